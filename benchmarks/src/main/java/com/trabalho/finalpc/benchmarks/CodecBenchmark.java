@@ -0,0 +1,76 @@
+package com.trabalho.finalpc.benchmarks; // Benchmarks JMH
+
+import com.trabalho.finalpc.common.ProductMessage;
+import com.trabalho.finalpc.common.ProductType;
+import com.trabalho.finalpc.common.serialization.ByteCodec;
+import com.trabalho.finalpc.common.serialization.JacksonProductMessageCodec;
+import com.trabalho.finalpc.common.serialization.ProductMessageCodecs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trips de (de)serialização de ProductMessage.
+ * - codec=json-string: caminho original (JsonCodec: objeto -> String -> bytes e volta).
+ * - codec=json / binary: ByteCodec direto em bytes.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime }) // ops/s e percentis (p99) de latência
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    @Param({ "json-string", "json", "binary" })
+    public String codec;
+
+    private final JacksonProductMessageCodec jsonString = new JacksonProductMessageCodec();
+    private ByteCodec<ProductMessage> byteCodec;
+    private ProductMessage message;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws Exception {
+        byteCodec = "binary".equals(codec) ? ProductMessageCodecs.binary() : ProductMessageCodecs.json();
+        message = new ProductMessage();
+        message.setType(ProductType.TIPO_A);
+        message.setProducerId("producer-1");
+        encoded = byteCodec.encode(message);
+    }
+
+    @Benchmark
+    public ProductMessage roundTrip() throws Exception {
+        if ("json-string".equals(codec)) {
+            String json = jsonString.toJson(message);
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            return jsonString.fromJson(new String(body, StandardCharsets.UTF_8));
+        }
+        return byteCodec.decode(byteCodec.encode(message));
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return "json-string".equals(codec)
+                ? jsonString.toJson(message).getBytes(StandardCharsets.UTF_8)
+                : byteCodec.encode(message);
+    }
+
+    @Benchmark
+    public ProductMessage decode() throws Exception {
+        return "json-string".equals(codec)
+                ? jsonString.fromJson(new String(encoded, StandardCharsets.UTF_8))
+                : byteCodec.decode(encoded);
+    }
+}
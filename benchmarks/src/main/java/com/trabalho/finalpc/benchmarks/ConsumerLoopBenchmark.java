@@ -0,0 +1,52 @@
+package com.trabalho.finalpc.benchmarks; // Benchmarks JMH
+
+import com.trabalho.finalpc.common.Timing;
+import com.trabalho.finalpc.consumer.ConsumerService;
+import com.trabalho.finalpc.consumer.RandomNeedSelectionStrategy;
+import com.trabalho.finalpc.consumer.messaging.NoOpSubscriber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uma iteração do loop do ConsumerService (escolha do tipo, receive, “consumo”, acknowledge) com os
+ * sleeps do Timing zerados (escala 0) e o NoOpSubscriber — ou seja, só o overhead do framework.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime }) // ops/s e percentis (p99) de latência
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Thread)
+public class ConsumerLoopBenchmark {
+
+    private ConsumerService service;
+    private double previousScale;
+
+    @Setup
+    public void setup() {
+        previousScale = Timing.getTimeScale();
+        Timing.setTimeScale(0); // Sem sleeps de consumo
+        service = new ConsumerService("bench-consumer", new NoOpSubscriber(), new RandomNeedSelectionStrategy());
+    }
+
+    @TearDown
+    public void tearDown() {
+        Timing.setTimeScale(previousScale);
+    }
+
+    @Benchmark
+    public void consumeIteration() {
+        service.runLoop(1);
+    }
+}
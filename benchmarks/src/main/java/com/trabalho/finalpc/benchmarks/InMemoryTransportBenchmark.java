@@ -0,0 +1,123 @@
+package com.trabalho.finalpc.benchmarks; // Benchmarks JMH
+
+import com.trabalho.finalpc.common.ProductMessage;
+import com.trabalho.finalpc.common.ProductType;
+import com.trabalho.finalpc.common.messaging.inmemory.InMemoryTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão do InMemoryTransport com produtores e consumidores concorrentes (grupos assimétricos do JMH).
+ * - spsc: 1 produtor x 1 consumidor, com anel single- ou multi-producer (param ring).
+ * - mpmc: 4 produtores x 4 consumidores (sempre multi-producer).
+ * - batch: 1 produtor x 1 consumidor com receiveBatch de até 64 itens.
+ * O receive usa prazo curto para que o consumidor não fique preso quando a iteração termina.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class InMemoryTransportBenchmark {
+
+    @State(Scope.Group)
+    public static class SpscState {
+        @Param({ "single", "multi" })
+        public String ring;
+        InMemoryTransport transport;
+
+        @Setup
+        public void setup() {
+            transport = new InMemoryTransport(1 << 14, "single".equals(ring));
+        }
+
+        @TearDown
+        public void tearDown() {
+            transport.close();
+        }
+    }
+
+    @State(Scope.Group)
+    public static class MpmcState {
+        InMemoryTransport transport;
+
+        @Setup
+        public void setup() {
+            transport = new InMemoryTransport(1 << 14, false);
+        }
+
+        @TearDown
+        public void tearDown() {
+            transport.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Message {
+        final ProductMessage value = new ProductMessage();
+
+        @Setup
+        public void setup() {
+            value.setType(ProductType.TIPO_A);
+            value.setProducerId("producer-1");
+        }
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public void spscPublish(SpscState s, Message m) throws Exception {
+        s.transport.publish(ProductType.TIPO_A, m.value);
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public ProductMessage spscReceive(SpscState s) throws Exception {
+        return s.transport.receive(ProductType.TIPO_A, 1, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(4)
+    public void mpmcPublish(MpmcState s, Message m) throws Exception {
+        s.transport.publish(ProductType.TIPO_A, m.value);
+    }
+
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(4)
+    public ProductMessage mpmcReceive(MpmcState s) throws Exception {
+        return s.transport.receive(ProductType.TIPO_A, 1, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    @Group("batch")
+    @GroupThreads(1)
+    public void batchPublish(MpmcState s, Message m) throws Exception {
+        s.transport.publish(ProductType.TIPO_A, m.value);
+    }
+
+    /** Uma operação = um lote (até 64 itens). */
+    @Benchmark
+    @Group("batch")
+    @GroupThreads(1)
+    public List<ProductMessage> batchReceive(MpmcState s) throws Exception {
+        return s.transport.receiveBatch(ProductType.TIPO_A, 64, 1);
+    }
+}
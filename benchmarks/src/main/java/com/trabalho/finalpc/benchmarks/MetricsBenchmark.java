@@ -0,0 +1,51 @@
+package com.trabalho.finalpc.benchmarks; // Benchmarks JMH
+
+import com.trabalho.finalpc.common.ProductMessage;
+import com.trabalho.finalpc.common.ProductType;
+import com.trabalho.finalpc.common.metrics.Metrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da instrumentação no loop quente: gravações concorrentes (4 threads) nos contadores e
+ * histogramas do Metrics, e o custo de uma coleta completa (scrape).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    private final ProductMessage message = new ProductMessage();
+
+    @Benchmark
+    @Threads(4)
+    public void recordPublish() {
+        Metrics.published(ProductType.TIPO_A, 12_345);
+    }
+
+    /** Um ciclo completo do consumidor: received + consumed. */
+    @Benchmark
+    @Threads(4)
+    public void recordConsume() {
+        Metrics.received(ProductType.TIPO_B, message);
+        Metrics.consumed(ProductType.TIPO_B, message, 67_890);
+    }
+
+    @Benchmark
+    public String scrape() {
+        return Metrics.scrape();
+    }
+}
@@ -0,0 +1,60 @@
+package com.trabalho.finalpc.benchmarks; // Benchmarks JMH
+
+import com.trabalho.finalpc.common.ProductMessage;
+import com.trabalho.finalpc.common.id.ItemIds;
+import com.trabalho.finalpc.common.id.MonotonicItemIdGenerator;
+import com.trabalho.finalpc.common.id.RandomItemIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de criar uma ProductMessage (id + timestamp), por gerador de id.
+ * - create: nova instância por item (com e sem renderizar o itemId em texto).
+ * - reuse: a mesma instância com regenerate(), como no modo PRODUCER_REUSE_MESSAGES.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime }) // ops/s e percentis (p99) de latência
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Thread)
+public class ProductMessageBenchmark {
+
+    @Param({ "monotonic", "random" })
+    public String generator;
+
+    private ProductMessage reusable;
+
+    @Setup
+    public void setup() {
+        ItemIds.setGenerator("random".equals(generator) ? new RandomItemIdGenerator() : new MonotonicItemIdGenerator());
+        reusable = new ProductMessage();
+    }
+
+    @Benchmark
+    public ProductMessage create() {
+        return new ProductMessage();
+    }
+
+    @Benchmark
+    public String createAndRenderId() {
+        return new ProductMessage().getItemId();
+    }
+
+    @Benchmark
+    public ProductMessage reuse() {
+        reusable.regenerate();
+        return reusable;
+    }
+}
@@ -0,0 +1,74 @@
+package com.trabalho.finalpc.benchmarks; // Benchmarks JMH
+
+import com.trabalho.finalpc.common.ProductMessage;
+import com.trabalho.finalpc.common.ProductType;
+import com.trabalho.finalpc.common.serialization.ProductMessageCodecs;
+import com.trabalho.finalpc.producer.messaging.RabbitPublisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RabbitPublisher.publish/publishBatch contra o StandInBroker (sem rede).
+ * Mede o custo do adaptador por mensagem: codec, propriedades AMQP, lock do canal e logs.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime }) // ops/s e percentis (p99) de latência
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Thread)
+public class RabbitPublisherBenchmark {
+
+    @Param({ "json", "binary" })
+    public String codec;
+
+    private RabbitPublisher publisher;
+    private ProductMessage message;
+    private List<ProductMessage> batch;
+
+    @Setup
+    public void setup() throws Exception {
+        publisher = new RabbitPublisher(new StandInBroker().connection(),
+                "binary".equals(codec) ? ProductMessageCodecs.binary() : ProductMessageCodecs.json());
+        message = new ProductMessage();
+        message.setType(ProductType.TIPO_A);
+        message.setProducerId("producer-1");
+        batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ProductMessage m = new ProductMessage();
+            m.setType(i % 2 == 0 ? ProductType.TIPO_A : ProductType.TIPO_B);
+            m.setProducerId("producer-1");
+            batch.add(m);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        publisher.close();
+    }
+
+    @Benchmark
+    public void publish() throws Exception {
+        publisher.publish(message.getType(), message);
+    }
+
+    /** Lote de 100 mensagens por operação (divida ops/s por 100 para comparar com publish). */
+    @Benchmark
+    public void publishBatch100() throws Exception {
+        publisher.publishBatch(batch);
+    }
+}
@@ -0,0 +1,51 @@
+package com.trabalho.finalpc.benchmarks; // Benchmarks JMH
+
+import com.rabbitmq.client.Channel;    // Interfaces do client AMQP que simulamos
+import com.rabbitmq.client.Connection;
+
+import java.lang.reflect.Proxy;        // Implementa as interfaces sem rede
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * “Broker” em processo para medir o RabbitPublisher sem rede.
+ * Eu implemento Connection e Channel com proxies dinâmicos: basicPublish só contabiliza mensagens/bytes,
+ * getNextPublishSeqNo avança uma sequência e o resto devolve valores neutros (null/0/false).
+ * Assim o benchmark mede serialização, propriedades, locks e logs do adaptador — não o RabbitMQ.
+ */
+final class StandInBroker {
+    final AtomicLong published = new AtomicLong();
+    final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong seqNo = new AtomicLong(1);
+
+    /** Conexão falsa cujos canais aceitam qualquer operação. */
+    Connection connection() {
+        Channel channel = (Channel) Proxy.newProxyInstance(Channel.class.getClassLoader(), new Class<?>[] { Channel.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "basicPublish":
+                            published.incrementAndGet();
+                            bytes.addAndGet(((byte[]) args[args.length - 1]).length); // Corpo é o último argumento
+                            return null;
+                        case "getNextPublishSeqNo":
+                            return seqNo.getAndIncrement();
+                        case "isOpen":
+                            return true;
+                        default:
+                            return neutral(method.getReturnType());
+                    }
+                });
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "createChannel" -> channel;
+                    case "isOpen" -> true;
+                    default -> neutral(method.getReturnType());
+                });
+    }
+
+    private static Object neutral(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        return null;
+    }
+}
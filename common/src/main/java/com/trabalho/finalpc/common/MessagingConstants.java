@@ -4,8 +4,10 @@ package com.trabalho.finalpc.common; // Pacote comum (contratos compartilhados)
  * Eu centralizo aqui os nomes da topologia AMQP para evitar divergências.
  * Minhas decisões:
  * - Um exchange do tipo direct chamado "products" (roteamento por routing key exata).
- * - Duas filas: uma para A e outra para B, facilitando paralelismo e separação de cargas.
- * - Duas routing keys: "typeA" e "typeB" (nomenclatura simples e explícita).
+ * - Uma fila por tipo, facilitando paralelismo e separação de cargas.
+ * - Routing keys "typeA", "typeB"... (nomenclatura simples e explícita).
+ * As filas/chaves de A e B abaixo são os valores dos tipos embutidos; as dos demais tipos ficam no registro
+ * (ProductType.queue()/routingKey()), que segue a mesma regra de nomes.
  */
 public final class MessagingConstants { // Classe utilitária final (não instanciável)
     // Exchange principal: onde produtores publicam e de onde consumidores recebem via bindings
@@ -19,5 +21,16 @@ public final class MessagingConstants { // Classe utilitária final (não instan
     public static final String ROUTING_KEY_TYPE_A = "typeA"; // Mensagens de A roteiam para QUEUE_TYPE_A
     public static final String ROUTING_KEY_TYPE_B = "typeB"; // Mensagens de B roteiam para QUEUE_TYPE_B
 
+    // Mensagens mortas: itens que não serão consumidos (ex.: prazo vencido) vão para um exchange fanout com
+    // uma fila só, para auditoria/reprocessamento manual sem voltar às filas de trabalho
+    public static final String EXCHANGE_DEAD_LETTER = "products.dlx";
+    public static final String QUEUE_DEAD_LETTER = "products.dead";
+
+    // Novas tentativas: um exchange por nível de atraso (prefixo + ms) e, ao fim dos níveis, o estacionamento
+    // (exchange fanout + fila que ninguém consome); nomes das filas de espera em messaging.rabbit.Retries
+    public static final String EXCHANGE_RETRY_PREFIX = "products.retry.";
+    public static final String EXCHANGE_PARKING = "products.parking";
+    public static final String QUEUE_PARKING = "products.parking";
+
     private MessagingConstants() { /* Impede instanciação */ }
 }
@@ -1,30 +1,111 @@
 package com.trabalho.finalpc.common; // Pacote compartilhado entre produtores/consumidores
 
-import java.time.Instant; // Usado para obter o timestamp atual de criação
-import java.util.UUID;    // Usado para gerar IDs únicos (identidade do item)
+import com.fasterxml.jackson.annotation.JsonIgnore; // Campos internos (bits do id) fora do JSON
+import com.fasterxml.jackson.annotation.JsonInclude; // priority/deadline só aparecem quando definidos
+import com.trabalho.finalpc.common.id.ItemIds;      // Gerador de itemId configurado no processo
+
+import java.util.UUID;    // Usado só para renderizar o id em texto (sob demanda)
 
 /**
  * Este DTO é o “contrato” do payload que trafega no RabbitMQ.
  * Minhas decisões:
- * - Eu uso um UUID no itemId para cada unidade produzida (rastreabilidade fim a fim).
+ * - Eu uso um id de 128 bits no formato UUID no itemId para cada unidade produzida (rastreabilidade fim a fim).
+ *   O id é gerado pelo ItemIdGenerator do processo e guardado como dois longs; o texto de 36 caracteres
+ *   só é montado (e memorizado) quando alguém chama getItemId().
  * - Eu guardo o type (A/B) para roteamento e para que o consumidor identifique o tipo recebido.
  * - Eu mantenho o producerId para diferenciar qual processo gerou o item (útil na demonstração com 2 produtores).
  * - O timestamp guarda o momento de criação (epoch ms) e serve para auditar tempos e ordem aproximada.
+ * - Opcionais para itens sensíveis à latência: priority (0 = normal; maior = mais urgente, vira a prioridade
+ *   AMQP) e deadline (epoch ms; 0 = sem prazo). Um item que passa do prazo não é consumido: vai para a fila
+ *   de mensagens mortas. Sem eles o JSON fica igual ao de antes.
+ * - retryCount (tentativas anteriores que falharam) não faz parte do corpo: viaja no cabeçalho AMQP
+ *   x-retry-count e é preenchido pelo adaptador que recebeu a mensagem.
+ * - Para o caminho de publicação sem alocação, uma instância pode ser reaproveitada com regenerate()
+ *   desde que o publicador não guarde a referência depois de publish (ex.: sem BatchingPublisher).
  */
 public class ProductMessage { // Declaração da classe DTO (Data Transfer Object)
-    private String itemId;       // ID único do item (gerado automaticamente no construtor)
+    private String itemId;       // Texto do id (renderizado sob demanda a partir dos bits)
+    private long idMsb;          // 64 bits mais significativos do id
+    private long idLsb;          // 64 bits menos significativos do id
+    private boolean idBits;      // true = o id atual está nos bits (itemId pode ainda não ter sido montado)
     private ProductType type;    // Tipo do produto (TIPO_A/TIPO_B)
     private String producerId;   // Identificador lógico do produtor (ex.: producer-1)
     private long timestamp;      // Momento de criação da mensagem (epoch ms)
+    private int priority;        // 0 = normal; maior = mais urgente
+    private long deadline;       // Prazo para o consumo começar (epoch ms); 0 = sem prazo
+    private int retryCount;      // Tentativas anteriores que falharam (cabeçalho, fora do corpo)
 
     public ProductMessage() {    // Construtor padrão (gera itemId e timestamp automaticamente)
-        this.itemId = UUID.randomUUID().toString();          // Eu uso UUID para unicidade global e fácil log
-        this.timestamp = Instant.now().toEpochMilli();       // Eu salvo o ts de criação para auditoria/observabilidade
+        regenerate();
+    }
+
+    /**
+     * Instância vazia para os codecs preencherem na decodificação: não gera id nem lê o relógio (o que o
+     * construtor padrão faria para ser sobrescrito logo em seguida).
+     */
+    public static ProductMessage blank() {
+        return new ProductMessage(false);
+    }
+
+    private ProductMessage(boolean generate) { // false = campos zerados (decodificação)
+        if (generate) regenerate();
+    }
+
+    /** Prepara a instância para representar um novo item: novo id e novo timestamp (tipo/produtor são mantidos). */
+    public void regenerate() {
+        ItemIds.generator().assignTo(this);              // Id de 128 bits sem alocar String
+        this.timestamp = Timing.currentTimeMillis();     // Eu salvo o ts de criação para auditoria/observabilidade
+        this.retryCount = 0;
+    }
+
+    /** Cópia independente (ex.: para guardar uma mensagem reaproveitada com regenerate até uma nova tentativa). */
+    public ProductMessage copy() {
+        return new ProductMessage(this);
+    }
+
+    private ProductMessage(ProductMessage other) { // Sem gerar id: copia tudo de other
+        this.itemId = other.itemId;
+        this.idMsb = other.idMsb;
+        this.idLsb = other.idLsb;
+        this.idBits = other.idBits;
+        this.type = other.type;
+        this.producerId = other.producerId;
+        this.timestamp = other.timestamp;
+        this.priority = other.priority;
+        this.deadline = other.deadline;
+        this.retryCount = other.retryCount;
     }
 
     // Getters e setters canônicos (mantemos encapsulamento e facilitamos (de)serialização JSON)
-    public String getItemId() { return itemId; }
-    public void setItemId(String itemId) { this.itemId = itemId; }
+    public String getItemId() {
+        if (itemId == null && idBits) {
+            itemId = new UUID(idMsb, idLsb).toString(); // Renderiza uma única vez
+        }
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+        this.idBits = false; // O texto passa a ser a fonte da verdade
+    }
+
+    /** Define o id a partir dos 128 bits (o texto é montado só se getItemId() for chamado). */
+    public void setIdBits(long msb, long lsb) {
+        this.idMsb = msb;
+        this.idLsb = lsb;
+        this.idBits = true;
+        this.itemId = null;
+    }
+
+    /** true se o id atual está disponível como bits (getIdMsb/getIdLsb válidos). */
+    @JsonIgnore
+    public boolean hasIdBits() { return idBits; }
+
+    @JsonIgnore
+    public long getIdMsb() { return idMsb; }
+
+    @JsonIgnore
+    public long getIdLsb() { return idLsb; }
 
     public ProductType getType() { return type; }
     public void setType(ProductType type) { this.type = type; }
@@ -34,4 +115,21 @@ public class ProductMessage { // Declaração da classe DTO (Data Transfer Objec
 
     public long getTimestamp() { return timestamp; }
     public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public int getPriority() { return priority; }
+    public void setPriority(int priority) { this.priority = priority; }
+
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public long getDeadline() { return deadline; }
+    public void setDeadline(long deadline) { this.deadline = deadline; }
+
+    @JsonIgnore
+    public int getRetryCount() { return retryCount; }
+    public void setRetryCount(int retryCount) { this.retryCount = retryCount; }
+
+    /** true se a mensagem tem prazo e ele já passou no instante informado (epoch ms). */
+    public boolean isExpired(long nowMillis) {
+        return deadline > 0 && nowMillis > deadline;
+    }
 }
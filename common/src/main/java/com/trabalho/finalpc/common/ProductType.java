@@ -1,13 +1,201 @@
 package com.trabalho.finalpc.common; // Declara o pacote desta classe (namespace do projeto)
 
+import com.fasterxml.jackson.annotation.JsonCreator; // JSON continua "TIPO_A", como no enum original
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trabalho.finalpc.common.config.AppConfig; // PRODUCT_TYPES e PRODUCT_TYPES_FILE
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 /**
- * Aqui eu defino os DOIS tipos de itens do problema Produtor–Consumidor.
- * Eu uso um enum para garantir segurança de tipo e evitar strings soltas.
- * Regras do enunciado ligadas a estes tipos:
+ * Aqui eu defino os tipos de itens do problema Produtor–Consumidor.
+ * Regras do enunciado ligadas aos tipos embutidos:
  * - TIPO_A: produção em 3.5s; consumo em 7.0s (exatamente o dobro).
  * - TIPO_B: produção em 7.5s; consumo em 15.0s (exatamente o dobro).
+ * Começou como um enum de dois valores; agora é um registro montado na partida, para ter dezenas de linhas
+ * de produto sem mudar código. Minhas decisões:
+ * - TIPO_A e TIPO_B estão sempre registrados (ordinais 0 e 1) com os nomes e tempos do enunciado; outros
+ *   tipos vêm de PRODUCT_TYPES (ex.: "TIPO_C:1200,TIPO_D") e/ou de PRODUCT_TYPES_FILE (JSON: lista de
+ *   objetos name, productionMs, queue, routingKey). Uma entrada com nome já registrado sobrescreve os campos
+ *   informados (inclusive dos embutidos).
+ * - Cada tipo carrega o tempo médio de produção, a fila e a routing key. Sem fila/chave, derivo do sufixo
+ *   do nome: TIPO_C -> typeC / products.typeC (mesma regra que dá os nomes originais de A e B).
+ * - A mesma API do enum (name, ordinal, values, valueOf, TIPO_A/TIPO_B): o resto do código continua indexando
+ *   tabelas pelo ordinal, sem Strings montadas nem desvios por tipo no caminho quente.
+ * - Instâncias únicas (como constantes de enum): comparar com == continua correto.
+ * - Os ordinais dependem da ordem de PRODUCT_TYPES/PRODUCT_TYPES_FILE de cada processo, então não saem do
+ *   processo: JSON e codec binário gravam o nome (processos com registros diferentes não trocam tipos).
+ * - No máximo 127 tipos (o formato binário antigo, ainda lido, gravava o ordinal em um byte).
  */
-public enum ProductType { // Enum = conjunto fechado de constantes nomeadas
-    TIPO_A, // Tipo A (mais rápido de produzir, mais rápido de consumir)
-    TIPO_B  // Tipo B (mais lento de produzir, mais lento de consumir)
+public final class ProductType {
+    private static final int MAX_TYPES = 127; // Ordinal cabe no byte do formato binário antigo (versão 1)
+
+    private static final ProductType[] REGISTRY = load();
+    private static final Map<String, ProductType> ALIASES = aliases(); // nome, sufixo e routing key (minúsculas)
+
+    /** Tipo A (mais rápido de produzir, mais rápido de consumir). */
+    public static final ProductType TIPO_A = REGISTRY[0];
+    /** Tipo B (mais lento de produzir, mais lento de consumir). */
+    public static final ProductType TIPO_B = REGISTRY[1];
+
+    private final String name;
+    private final int ordinal;
+    private final long productionMillis; // Média de produção do tipo (Timing aplica modelo, escala e TIMING_*)
+    private final String queue;
+    private final String routingKey;
+
+    private ProductType(String name, int ordinal, long productionMillis, String queue, String routingKey) {
+        this.name = name;
+        this.ordinal = ordinal;
+        this.productionMillis = productionMillis;
+        this.queue = queue;
+        this.routingKey = routingKey;
+    }
+
+    /** Nome do tipo (ex.: TIPO_A); também é a forma em JSON e o sufixo das ENVs por tipo. */
+    @JsonValue
+    public String name() {
+        return name;
+    }
+
+    /** Posição no registro (0..count()-1): índice das tabelas por tipo. */
+    public int ordinal() {
+        return ordinal;
+    }
+
+    /** Tempo médio de produção definido no registro, em ms. */
+    public long productionMillis() {
+        return productionMillis;
+    }
+
+    /** Fila base do tipo (sem sufixo de shard). */
+    public String queue() {
+        return queue;
+    }
+
+    /** Routing key base do tipo (sem sufixo de shard). */
+    public String routingKey() {
+        return routingKey;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /** Todos os tipos registrados, em ordem de ordinal (cópia, como Enum.values()). */
+    public static ProductType[] values() {
+        return REGISTRY.clone();
+    }
+
+    /** Quantidade de tipos registrados. */
+    public static int count() {
+        return REGISTRY.length;
+    }
+
+    /** Tipo pelo ordinal (sem cópia do registro). */
+    public static ProductType byOrdinal(int ordinal) {
+        return REGISTRY[ordinal];
+    }
+
+    /** Tipo pelo nome exato (ex.: TIPO_A). Lança IllegalArgumentException se não estiver registrado. */
+    @JsonCreator
+    public static ProductType valueOf(String name) {
+        for (ProductType type : REGISTRY) {
+            if (type.name.equals(name)) return type;
+        }
+        throw new IllegalArgumentException("Tipo de produto não registrado: " + name);
+    }
+
+    /** Tipo por nome, sufixo ou routing key, sem diferenciar maiúsculas (TIPO_A, A, typeA); null se desconhecido. */
+    public static ProductType lookup(String text) {
+        return text != null ? ALIASES.get(text.toLowerCase(Locale.ROOT)) : null;
+    }
+
+    // Embutidos + PRODUCT_TYPES_FILE + PRODUCT_TYPES (nessa ordem; a última definição de um campo vale)
+    private static ProductType[] load() {
+        Map<String, Definition> defs = new LinkedHashMap<>();
+        defs.put("TIPO_A", new Definition(3500L, MessagingConstants.QUEUE_TYPE_A, MessagingConstants.ROUTING_KEY_TYPE_A));
+        defs.put("TIPO_B", new Definition(7500L, MessagingConstants.QUEUE_TYPE_B, MessagingConstants.ROUTING_KEY_TYPE_B));
+        String file = AppConfig.getProductTypesFile();
+        if (file != null) {
+            try {
+                for (JsonNode node : new ObjectMapper().readTree(Files.readAllBytes(Paths.get(file)))) {
+                    Definition d = defs.computeIfAbsent(normalized(node.path("name").asText(null)), n -> new Definition());
+                    if (node.hasNonNull("productionMs")) d.productionMillis = node.get("productionMs").asLong();
+                    if (node.hasNonNull("queue")) d.queue = node.get("queue").asText();
+                    if (node.hasNonNull("routingKey")) d.routingKey = node.get("routingKey").asText();
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("PRODUCT_TYPES_FILE inválido (" + file + "): " + e.getMessage(), e);
+            }
+        }
+        for (String entry : AppConfig.getProductTypes()) { // NOME ou NOME:ms
+            int colon = entry.indexOf(':');
+            Definition d = defs.computeIfAbsent(normalized(colon < 0 ? entry : entry.substring(0, colon)), n -> new Definition());
+            if (colon >= 0) {
+                try {
+                    d.productionMillis = Long.parseLong(entry.substring(colon + 1).trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalStateException("PRODUCT_TYPES: tempo inválido em \"" + entry + "\"", e);
+                }
+            }
+        }
+        if (defs.size() > MAX_TYPES) {
+            throw new IllegalStateException("No máximo " + MAX_TYPES + " tipos de produto (registrados: " + defs.size() + ")");
+        }
+        List<ProductType> types = new ArrayList<>(defs.size());
+        for (Map.Entry<String, Definition> e : defs.entrySet()) {
+            String name = e.getKey();
+            Definition d = e.getValue();
+            String routingKey = d.routingKey != null ? d.routingKey : "type" + suffix(name);
+            String queue = d.queue != null ? d.queue : MessagingConstants.EXCHANGE_PRODUCTS + "." + routingKey;
+            types.add(new ProductType(name, types.size(), d.productionMillis, queue, routingKey));
+        }
+        return types.toArray(new ProductType[0]);
+    }
+
+    private static Map<String, ProductType> aliases() {
+        Map<String, ProductType> map = new HashMap<>();
+        for (ProductType type : REGISTRY) { // Nome tem prioridade: vai por último
+            map.put(type.routingKey.toLowerCase(Locale.ROOT), type);
+            map.put(suffix(type.name).toLowerCase(Locale.ROOT), type);
+        }
+        for (ProductType type : REGISTRY) map.put(type.name.toLowerCase(Locale.ROOT), type);
+        return map;
+    }
+
+    private static String normalized(String name) {
+        if (name == null || name.isBlank()) throw new IllegalStateException("Tipo de produto sem nome no registro");
+        return name.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // TIPO_C -> C (nomes sem '_' ficam inteiros)
+    private static String suffix(String name) {
+        return name.substring(name.lastIndexOf('_') + 1);
+    }
+
+    /** Campos de um tipo enquanto o registro é montado (nulos = derivados do nome). */
+    private static final class Definition {
+        long productionMillis = 5000L; // Média padrão de um tipo novo sem tempo informado
+        String queue;
+        String routingKey;
+
+        Definition() { }
+
+        Definition(long productionMillis, String queue, String routingKey) {
+            this.productionMillis = productionMillis;
+            this.queue = queue;
+            this.routingKey = routingKey;
+        }
+    }
 }
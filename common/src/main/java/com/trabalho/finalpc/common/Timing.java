@@ -1,39 +1,137 @@
 package com.trabalho.finalpc.common; // Pacote comum (contratos e utilitários)
 
+import com.trabalho.finalpc.common.config.AppConfig;       // TIMING_* (modelo, escala, médias, relógio)
+import com.trabalho.finalpc.common.timing.Clock;            // Relógio das esperas e timestamps
+import com.trabalho.finalpc.common.timing.SystemClock;
+import com.trabalho.finalpc.common.timing.TimingModel;      // Distribuição dos tempos por tipo
+import com.trabalho.finalpc.common.timing.TimingModels;
+import com.trabalho.finalpc.common.timing.VirtualClock;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
 /**
  * Aqui eu consolido os tempos definidos no enunciado.
  * Minhas decisões:
  * - Guardar em milissegundos (fácil para Thread.sleep e medições).
- * - consumptionMillis é derivado diretamente de productionMillis (garante “dobro” sem duplicar valores).
+ * - As médias vêm do registro de tipos (A: 3.5 s, B: 7.5 s do enunciado; consumo = 2x a produção), e ainda
+ *   podem ser trocadas por TIMING_PRODUCTION_MS(_TIPO_X) e TIMING_CONSUMPTION_FACTOR sem mudar o código.
+ * - Cada tipo tem um modelo de tempo (TIMING_MODEL: fixed, exponential, lognormal ou zero) que sorteia a
+ *   duração em torno da média; com fixed (padrão) os tempos são exatamente os do enunciado.
+ * - Um fator de escala global (TIMING_SCALE, 1.0 = tempos do enunciado) permite acelerar ou zerar os
+ *   sleeps em benchmarks, sem mudar a proporção entre os tipos.
+ * - Esperas e timestamps passam por um relógio injetável (TIMING_CLOCK): o real ou um VirtualClock, que
+ *   avança sem dormir. sleep(0) retorna sem chamar o relógio (modo zero sem custo).
  */
 public final class Timing { // Classe utilitária (métodos estáticos)
 
-    // Constantes em milissegundos para manter os valores centralizados e claros
-    private static final long PRODUCTION_A_MS = 3500L; // 3.5 segundos para TIPO_A
-    private static final long PRODUCTION_B_MS = 7500L; // 7.5 segundos para TIPO_B
+    // Médias de produção em milissegundos (índice = ordinal do tipo)
+    private static final long[] PRODUCTION_MS = new long[ProductType.count()];
+    private static final TimingModel[] MODELS = new TimingModel[ProductType.count()];
+    private static volatile double timeScale = AppConfig.getTimingScale(); // Multiplicador aplicado a todos os tempos
+    private static volatile double consumptionFactor = AppConfig.getTimingConsumptionFactor();
+    private static volatile Clock clock = "virtual".equals(AppConfig.getTimingClock()) ? new VirtualClock() : SystemClock.INSTANCE;
+
+    static {
+        for (ProductType type : ProductType.values()) {
+            int configured = AppConfig.getTimingProductionMillis(type);
+            PRODUCTION_MS[type.ordinal()] = configured >= 0 ? configured : type.productionMillis(); // ENV > registro
+            MODELS[type.ordinal()] = TimingModels.configured(type);
+        }
+    }
 
     private Timing() { /* Impede instanciação */ }
 
     /**
-     * Retorna o tempo de produção (em ms) de um item do tipo informado.
-     * A: 3500ms; B: 7500ms.
+     * Retorna o tempo de produção (em ms) de um item do tipo informado, sorteado pelo modelo do tipo.
+     * Com o modelo fixed: A 3500ms; B 7500ms (multiplicados pelo fator de escala, 1.0 por padrão).
      * Lança IllegalArgumentException se o tipo for nulo/desconhecido.
      */
     public static long productionMillis(ProductType type) { // Retorna tempo de produção conforme tipo
-        if (type == null) {
-            throw new IllegalArgumentException("type não pode ser nulo");
-        }
-        return switch (type) {
-            case TIPO_A -> PRODUCTION_A_MS;
-            case TIPO_B -> PRODUCTION_B_MS;
-        };
+        return productionMillis(type, ThreadLocalRandom.current());
+    }
+
+    /** Como productionMillis(type), com a fonte de aleatoriedade de quem chama (ex.: semeada no simulador). */
+    public static long productionMillis(ProductType type, RandomGenerator random) {
+        return MODELS[checked(type).ordinal()].sampleMillis(PRODUCTION_MS[type.ordinal()] * timeScale, random);
     }
 
     /**
-     * Retorna o tempo de consumo (em ms) do tipo informado: sempre 2x a produção.
+     * Retorna o tempo de consumo (em ms) do tipo informado: média de 2x a produção (TIMING_CONSUMPTION_FACTOR),
+     * sorteada pelo mesmo modelo do tipo.
      */
     public static long consumptionMillis(ProductType type) { // Define consumo como 2x a produção (regra do enunciado)
-        // Decisão importante: derivar diretamente mantém consistência quando tempos de produção mudarem
-        return productionMillis(type) * 2L;
+        return consumptionMillis(type, ThreadLocalRandom.current());
+    }
+
+    /** Como consumptionMillis(type), com a fonte de aleatoriedade de quem chama. */
+    public static long consumptionMillis(ProductType type, RandomGenerator random) {
+        // Decisão importante: derivar da média de produção mantém a proporção quando os tempos mudarem
+        return MODELS[checked(type).ordinal()].sampleMillis(PRODUCTION_MS[type.ordinal()] * consumptionFactor * timeScale, random);
+    }
+
+    /** Espera a duração pelo relógio configurado (não faz nada para durações <= 0). */
+    public static void sleep(long millis) throws InterruptedException {
+        if (millis <= 0) return; // Modo zero/escala 0: nem chama o relógio
+        clock.sleep(millis);
+    }
+
+    /** Tempo atual (epoch ms) pelo relógio configurado; usado nos timestamps das mensagens. */
+    public static long currentTimeMillis() {
+        return clock.currentTimeMillis();
+    }
+
+    /** Informa ao relógio o timestamp de uma mensagem recebida (relógio virtual avança até ele). */
+    public static void observe(long timestampMillis) {
+        clock.observe(timestampMillis);
+    }
+
+    /**
+     * Define o fator de escala dos tempos (ex.: 0.001 = 1000x mais rápido; 0 = sem espera).
+     * Lança IllegalArgumentException para valores negativos.
+     */
+    public static void setTimeScale(double scale) {
+        if (scale < 0) {
+            throw new IllegalArgumentException("scale não pode ser negativo");
+        }
+        timeScale = scale;
+    }
+
+    /** Retorna o fator de escala atual dos tempos. */
+    public static double getTimeScale() {
+        return timeScale;
+    }
+
+    /** Troca o modelo de tempo de todos os tipos. */
+    public static void setModel(TimingModel model) {
+        for (ProductType type : ProductType.values()) setModel(type, model);
+    }
+
+    /** Troca o modelo de tempo de um tipo. */
+    public static void setModel(ProductType type, TimingModel model) {
+        if (model == null) {
+            throw new IllegalArgumentException("model não pode ser nulo");
+        }
+        MODELS[checked(type).ordinal()] = model;
+    }
+
+    /** Troca o relógio das esperas e timestamps (ex.: um VirtualClock em simulações). */
+    public static void setClock(Clock newClock) {
+        if (newClock == null) {
+            throw new IllegalArgumentException("clock não pode ser nulo");
+        }
+        clock = newClock;
+    }
+
+    /** Retorna o relógio atual. */
+    public static Clock getClock() {
+        return clock;
+    }
+
+    private static ProductType checked(ProductType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("type não pode ser nulo");
+        }
+        return type;
     }
 }
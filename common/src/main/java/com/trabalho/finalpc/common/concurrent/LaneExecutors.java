@@ -0,0 +1,34 @@
+package com.trabalho.finalpc.common.concurrent; // Utilitários de concorrência compartilhados
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;           // Executor que roda as “faixas” (lanes) de trabalho
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;      // Numeração das threads criadas
+
+/**
+ * Eu centralizo aqui a criação dos executores que rodam várias faixas de trabalho no mesmo processo.
+ * Minhas decisões:
+ * - Modo "virtual": uma virtual thread por tarefa. O projeto compila para Java 17, então eu obtenho
+ *   Executors.newVirtualThreadPerTaskExecutor por reflexão; em JVMs sem virtual threads caio no modo platform.
+ * - Modo "platform" (padrão): pool fixo com uma thread nomeada por faixa (fácil de ler em logs e thread dumps).
+ */
+public final class LaneExecutors { // Classe utilitária (somente métodos estáticos)
+    private static final Logger log = LoggerFactory.getLogger(LaneExecutors.class);
+
+    private LaneExecutors() { /* Impede instanciação */ }
+
+    /** Cria um executor para {@code lanes} tarefas longas, em virtual threads ou threads de plataforma. */
+    public static ExecutorService newLaneExecutor(String mode, int lanes, String namePrefix) {
+        if ("virtual".equalsIgnoreCase(mode)) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads indisponíveis nesta JVM ({}). Usando threads de plataforma.", Runtime.version());
+            }
+        }
+        AtomicInteger seq = new AtomicInteger();
+        return Executors.newFixedThreadPool(lanes, r -> new Thread(r, namePrefix + "-" + seq.incrementAndGet()));
+    }
+}
@@ -1,6 +1,11 @@
 package com.trabalho.finalpc.common.config; // Pacote de configuração (comum a serviços)
 
+import com.trabalho.finalpc.common.ProductType; // Configurações por tipo de produto
+
 import java.net.InetAddress; // Para obter o hostname local como fallback
+import java.util.ArrayList;  // Listas de valores (SIM_*)
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;     // Para sanitizar strings de forma previsível (minúsculas e hifens)
 
 /**
@@ -18,6 +23,82 @@ public final class AppConfig { // Classe utilitária (somente métodos estático
     public static final String ENV_RABBITMQ_PASS = "RABBITMQ_PASS"; // senha (opcional)
     public static final String ENV_PRODUCER_ID = "PRODUCER_ID";     // id lógico do produtor
     public static final String ENV_CONSUMER_ID = "CONSUMER_ID";     // id lógico do consumidor
+    public static final String ENV_SUBSCRIBER_MODE = "SUBSCRIBER_MODE";     // pull (basicGet) ou push (basicConsume)
+    public static final String ENV_RABBITMQ_PREFETCH = "RABBITMQ_PREFETCH"; // basicQos por fila no modo push
+    public static final String ENV_ACK_MODE = "ACK_MODE";                   // auto (ao receber) ou manual (após consumir)
+    public static final String ENV_ACK_BATCH_SIZE = "ACK_BATCH_SIZE";       // acks acumulados antes de um basicAck(multiple)
+    public static final String ENV_ACK_BATCH_MILLIS = "ACK_BATCH_MILLIS";   // janela máxima (ms) de um ack pendente
+    public static final String ENV_PUBLISHER_CONFIRMS = "PUBLISHER_CONFIRMS";   // true = confirmSelect no publicador
+    public static final String ENV_CONFIRM_WINDOW = "CONFIRM_WINDOW";           // publicações em voo sem confirmação
+    public static final String ENV_CONFIRM_TIMEOUT_MS = "CONFIRM_TIMEOUT_MS";   // tempo até republicar sem confirmação
+    public static final String ENV_PUBLISH_BATCH_SIZE = "PUBLISH_BATCH_SIZE";   // mensagens por lote (1 = sem lote)
+    public static final String ENV_PUBLISH_LINGER_MS = "PUBLISH_LINGER_MS";     // espera máxima de um lote incompleto
+    public static final String ENV_PRODUCER_THREADS = "PRODUCER_THREADS";       // faixas de produção no mesmo processo
+    public static final String ENV_PRODUCER_MODE = "PRODUCER_MODE";             // platform ou virtual (threads das faixas)
+    public static final String ENV_CONSUMER_WORKERS = "CONSUMER_WORKERS";       // workers por tipo (0 = loop único)
+    public static final String ENV_CONSUMER_MODE = "CONSUMER_MODE";             // virtual ou platform (threads dos workers)
+    public static final String ENV_MESSAGE_CODEC = "MESSAGE_CODEC";             // json ou binary (formato publicado)
+    public static final String ENV_ITEM_ID_GENERATOR = "ITEM_ID_GENERATOR";     // monotonic ou random (UUID v4)
+    public static final String ENV_PRODUCER_REUSE_MESSAGES = "PRODUCER_REUSE_MESSAGES"; // true = reaproveita ProductMessage
+    public static final String ENV_IN_MEMORY = "IN_MEMORY";                     // true = transporte em memória (sem broker)
+    public static final String ENV_IN_MEMORY_CAPACITY = "IN_MEMORY_CAPACITY";   // slots do ring buffer por tipo
+    public static final String ENV_METRICS_PORT = "METRICS_PORT";               // porta do endpoint /metrics (0 = desligado)
+    public static final String ENV_LOG_MODE = "LOG_MODE";                       // sync, async ou summary (logs por mensagem)
+    public static final String ENV_LOG_SAMPLE_RATE = "LOG_SAMPLE_RATE";         // 1 de cada N eventos no modo async
+    public static final String ENV_LOG_SUMMARY_SECONDS = "LOG_SUMMARY_SECONDS"; // intervalo das linhas de resumo
+    public static final String ENV_LOG_PAYLOADS = "LOG_PAYLOADS";               // true = inclui o corpo nos logs
+    public static final String ENV_NEED_STRATEGY = "NEED_STRATEGY";             // random ou adaptive (escolha do tipo no consumidor)
+    public static final String ENV_NEED_FAIRNESS_FLOOR = "NEED_FAIRNESS_FLOOR"; // fração mínima de escolhas por tipo com mensagens
+    public static final String ENV_QUEUE_STATS_REFRESH_MS = "QUEUE_STATS_REFRESH_MS"; // intervalo mínimo entre medições de fila
+    public static final String ENV_TYPE_STRATEGY = "TYPE_STRATEGY";             // random ou backpressure (escolha do tipo no produtor)
+    public static final String ENV_QUEUE_HIGH_WATER = "QUEUE_HIGH_WATER";       // profundidade em que o produtor para de produzir o tipo
+    public static final String ENV_RABBIT_CONNECTIONS = "RABBIT_CONNECTIONS";   // conexões AMQP do pool por processo
+    public static final String ENV_RABBIT_CHANNELS_PER_CONNECTION = "RABBIT_CHANNELS_PER_CONNECTION"; // canais máximos por conexão
+    public static final String ENV_RABBIT_RECOVERY_MS = "RABBIT_RECOVERY_MS";   // intervalo entre tentativas de reconexão
+    public static final String ENV_RABBIT_HEARTBEAT_SECONDS = "RABBIT_HEARTBEAT_SECONDS"; // heartbeat AMQP (detecção de conexão morta)
+    public static final String ENV_SHARDS_PER_TYPE = "SHARDS_PER_TYPE";         // filas (shards) por tipo de produto
+    public static final String ENV_SPILL_DIR = "SPILL_DIR";                     // diretório do log de spill do produtor (vazio = desligado)
+    public static final String ENV_SPILL_SEGMENT_MB = "SPILL_SEGMENT_MB";       // tamanho de cada segmento do spill
+    public static final String ENV_SPILL_FSYNC_MS = "SPILL_FSYNC_MS";           // intervalo entre fsyncs do spill
+    public static final String ENV_SPILL_RETRY_MS = "SPILL_RETRY_MS";           // intervalo entre tentativas de reenvio/reconexão
+    public static final String ENV_SPILL_SLOW_MS = "SPILL_SLOW_MS";             // publicação mais lenta que isso desvia para o spill
+    public static final String ENV_LOADGEN_FILE = "LOADGEN_FILE";               // arquivo JSONL de carga (vazio = produção normal)
+    public static final String ENV_LOADGEN_RATE = "LOADGEN_RATE";               // mensagens/s alvo do gerador (0 = o mais rápido possível)
+    public static final String ENV_LOADGEN_MODE = "LOADGEN_MODE";               // open (taxa fixa) ou closed (cada worker espera a resposta)
+    public static final String ENV_LOADGEN_CONCURRENCY = "LOADGEN_CONCURRENCY"; // workers publicando em paralelo
+    public static final String ENV_LOADGEN_LOOPS = "LOADGEN_LOOPS";             // quantas vezes o arquivo é repetido
+    public static final String ENV_TIMING_MODEL = "TIMING_MODEL";               // distribuição dos tempos: fixed, exponential, lognormal ou zero
+    public static final String ENV_TIMING_SCALE = "TIMING_SCALE";               // multiplicador global dos tempos (0.001 = 1000x mais rápido)
+    public static final String ENV_TIMING_PRODUCTION_MS = "TIMING_PRODUCTION_MS"; // tempo médio de produção (use o sufixo _TIPO_X)
+    public static final String ENV_TIMING_CONSUMPTION_FACTOR = "TIMING_CONSUMPTION_FACTOR"; // consumo = fator x produção
+    public static final String ENV_TIMING_LOGNORMAL_SIGMA = "TIMING_LOGNORMAL_SIGMA"; // dispersão do modelo lognormal
+    public static final String ENV_TIMING_CLOCK = "TIMING_CLOCK";               // relógio das esperas: system ou virtual
+    public static final String ENV_SIM_PRODUCERS = "SIM_PRODUCERS";             // produtores simulados (lista/faixa: 1,2,4 ou 1-8)
+    public static final String ENV_SIM_CONSUMERS = "SIM_CONSUMERS";             // consumidores simulados (lista/faixa)
+    public static final String ENV_SIM_TYPE_STRATEGIES = "SIM_TYPE_STRATEGIES"; // estratégias de tipo do produtor a comparar
+    public static final String ENV_SIM_NEED_STRATEGIES = "SIM_NEED_STRATEGIES"; // estratégias de necessidade do consumidor a comparar
+    public static final String ENV_SIM_ITEMS = "SIM_ITEMS";                     // itens produzidos por simulação
+    public static final String ENV_SIM_SEED = "SIM_SEED";                       // semente dos tempos sorteados
+    public static final String ENV_SIM_OUTPUT = "SIM_OUTPUT";                   // CSV de resumo (vazio = saída padrão)
+    public static final String ENV_SIM_TIMESERIES = "SIM_TIMESERIES";           // CSV com a profundidade das filas ao longo do tempo
+    public static final String ENV_SIM_SAMPLE_MS = "SIM_SAMPLE_MS";             // intervalo (tempo simulado) entre amostras da série
+    public static final String ENV_CONSUMER_BATCH_SIZE = "CONSUMER_BATCH_SIZE"; // itens por ciclo de consumo (1 = um por vez)
+    public static final String ENV_CONSUMER_BATCH_WAIT_MS = "CONSUMER_BATCH_WAIT_MS"; // espera máxima pelo primeiro item do lote
+    public static final String ENV_DEDUP_MODE = "DEDUP_MODE";                   // off, lru (cache com TTL) ou bloom (filtro por janela)
+    public static final String ENV_DEDUP_CAPACITY = "DEDUP_CAPACITY";           // itemIds lembrados (lru) ou esperados por janela (bloom)
+    public static final String ENV_DEDUP_TTL_MS = "DEDUP_TTL_MS";               // por quanto tempo um itemId conta como já visto
+    public static final String ENV_DEDUP_SHARDS = "DEDUP_SHARDS";               // partições do cache lru (menos disputa entre workers)
+    public static final String ENV_DEDUP_FPP = "DEDUP_FPP";                     // taxa de falso positivo alvo do bloom
+    public static final String ENV_DEDUP_SNAPSHOT_FILE = "DEDUP_SNAPSHOT_FILE"; // arquivo do retrato em disco (vazio = sem retrato)
+    public static final String ENV_DEDUP_SNAPSHOT_MS = "DEDUP_SNAPSHOT_MS";     // intervalo entre retratos
+    public static final String ENV_PRODUCT_TYPES = "PRODUCT_TYPES";             // tipos extras: NOME[:ms de produção],...
+    public static final String ENV_PRODUCT_TYPES_FILE = "PRODUCT_TYPES_FILE";   // registro de tipos em JSON (nome, tempo, fila, routing key)
+    public static final String ENV_QUEUE_MAX_PRIORITY = "QUEUE_MAX_PRIORITY";   // x-max-priority das filas de trabalho (0 = filas FIFO comuns)
+    public static final String ENV_MESSAGE_PRIORITY = "MESSAGE_PRIORITY";       // prioridade das mensagens publicadas (use o sufixo _TIPO_X)
+    public static final String ENV_MESSAGE_DEADLINE_MS = "MESSAGE_DEADLINE_MS"; // prazo relativo à criação (use o sufixo _TIPO_X; 0 = sem prazo)
+    public static final String ENV_CONSUMER_ORDER = "CONSUMER_ORDER";           // ordem do buffer local do consumidor: fifo ou edf (prazo mais cedo primeiro)
+    public static final String ENV_RETRY_DELAYS_MS = "RETRY_DELAYS_MS";         // atrasos das tentativas (ms, um por nível: 1000,10000,60000; off = sem retry)
+    public static final String ENV_RETRY_MAX_PENDING = "RETRY_MAX_PENDING";     // publicações aguardando nova tentativa no produtor
 
     private AppConfig() { /* Impede instanciação */ }
 
@@ -48,6 +129,484 @@ public final class AppConfig { // Classe utilitária (somente métodos estático
         return v != null ? v : "guest";
     }
 
+    /**
+     * Retorna o modo de consumo do assinante: "pull" (basicGet, padrão) ou "push" (basicConsume + buffer local).
+     * Valores desconhecidos caem no padrão para não quebrar a demonstração.
+     */
+    public static String getSubscriberMode() {
+        String v = safeEnv(ENV_SUBSCRIBER_MODE);
+        return v != null && v.equalsIgnoreCase("push") ? "push" : "pull";
+    }
+
+    /** Retorna o prefetch (basicQos) por fila usado no modo push. Default: 10 */
+    public static int getRabbitPrefetch() {
+        return intEnv(ENV_RABBITMQ_PREFETCH, 10, 1);
+    }
+
+    /** Retorna true se ACK_MODE=manual (ack só após o consumo terminar; entrega at-least-once). Default: auto */
+    public static boolean isManualAck() {
+        String v = safeEnv(ENV_ACK_MODE);
+        return v != null && v.equalsIgnoreCase("manual");
+    }
+
+    /** Retorna quantos consumos concluídos disparam um basicAck(multiple=true). Default: 32 */
+    public static int getAckBatchSize() {
+        return intEnv(ENV_ACK_BATCH_SIZE, 32, 1);
+    }
+
+    /** Retorna a janela (ms) após a qual acks pendentes são enviados mesmo sem completar o lote. Default: 200 */
+    public static int getAckBatchMillis() {
+        return intEnv(ENV_ACK_BATCH_MILLIS, 200, 1);
+    }
+
+    /** Retorna true se PUBLISHER_CONFIRMS=true (confirmações assíncronas do broker). Default: false */
+    public static boolean isPublisherConfirms() {
+        String v = safeEnv(ENV_PUBLISHER_CONFIRMS);
+        return v != null && v.equalsIgnoreCase("true");
+    }
+
+    /** Retorna o máximo de publicações aguardando confirmação antes de bloquear o produtor. Default: 1024 */
+    public static int getConfirmWindow() {
+        return intEnv(ENV_CONFIRM_WINDOW, 1024, 1);
+    }
+
+    /** Retorna o tempo (ms) sem confirmação após o qual a mensagem é republicada. Default: 5000 */
+    public static int getConfirmTimeoutMillis() {
+        return intEnv(ENV_CONFIRM_TIMEOUT_MS, 5000, 1);
+    }
+
+    /** Retorna quantas mensagens formam um lote de publicação (1 desliga o agrupamento). Default: 1 */
+    public static int getPublishBatchSize() {
+        return intEnv(ENV_PUBLISH_BATCH_SIZE, 1, 1);
+    }
+
+    /** Retorna quanto tempo (ms) um lote incompleto espera antes de ser publicado. Default: 50 */
+    public static int getPublishLingerMillis() {
+        return intEnv(ENV_PUBLISH_LINGER_MS, 50, 1);
+    }
+
+    /** Retorna quantas faixas de produção rodam em paralelo neste processo. Default: 1 (loop na thread main) */
+    public static int getProducerThreads() {
+        return intEnv(ENV_PRODUCER_THREADS, 1, 1);
+    }
+
+    /** Retorna o tipo de thread das faixas do produtor: "virtual" ou "platform". Default: platform */
+    public static String getProducerMode() {
+        String v = safeEnv(ENV_PRODUCER_MODE);
+        return v != null && v.equalsIgnoreCase("virtual") ? "virtual" : "platform";
+    }
+
+    /**
+     * Retorna quantos workers consomem o tipo informado no modo pool.
+     * CONSUMER_WORKERS_<TIPO> (ex.: CONSUMER_WORKERS_TIPO_B=4) tem prioridade sobre CONSUMER_WORKERS.
+     * Default: 0 (pool desligado; o consumidor roda o loop único original)
+     */
+    public static int getConsumerWorkers(ProductType type) {
+        int all = intEnv(ENV_CONSUMER_WORKERS, 0, 0);
+        return intEnv(ENV_CONSUMER_WORKERS + "_" + type.name(), all, 0);
+    }
+
+    /** Retorna o tipo de thread dos workers do consumidor: "virtual" ou "platform". Default: virtual */
+    public static String getConsumerMode() {
+        String v = safeEnv(ENV_CONSUMER_MODE);
+        return v != null && v.equalsIgnoreCase("platform") ? "platform" : "virtual";
+    }
+
+    /** Retorna o formato de publicação das mensagens: "json" ou "binary". Default: json */
+    public static String getMessageCodec() {
+        String v = safeEnv(ENV_MESSAGE_CODEC);
+        return v != null && v.equalsIgnoreCase("binary") ? "binary" : "json";
+    }
+
+    /** Retorna o gerador de itemId: "monotonic" (ordenado no tempo) ou "random" (UUID v4). Default: monotonic */
+    public static String getItemIdGenerator() {
+        String v = safeEnv(ENV_ITEM_ID_GENERATOR);
+        return v != null && v.equalsIgnoreCase("random") ? "random" : "monotonic";
+    }
+
+    /** Retorna true se PRODUCER_REUSE_MESSAGES=true (uma ProductMessage reaproveitada por faixa). Default: false */
+    public static boolean isProducerReuseMessages() {
+        String v = safeEnv(ENV_PRODUCER_REUSE_MESSAGES);
+        return v != null && v.equalsIgnoreCase("true");
+    }
+
+    /** Retorna true se IN_MEMORY=true (transporte em memória quando USE_RABBIT não está ativo). Default: false */
+    public static boolean isInMemoryTransport() {
+        String v = safeEnv(ENV_IN_MEMORY);
+        return v != null && v.equalsIgnoreCase("true");
+    }
+
+    /** Retorna a capacidade (slots) do ring buffer de cada tipo no transporte em memória. Default: 65536 */
+    public static int getInMemoryCapacity() {
+        return intEnv(ENV_IN_MEMORY_CAPACITY, 65536, 2);
+    }
+
+    /** Retorna a porta HTTP do endpoint /metrics (formato Prometheus). Default: 0 (desligado) */
+    public static int getMetricsPort() {
+        return intEnv(ENV_METRICS_PORT, 0, 0);
+    }
+
+    /**
+     * Retorna o modo dos logs por mensagem: "sync" (direto no logger, padrão), "async" (ring buffer +
+     * thread escritora, com amostragem) ou "summary" (só contagens periódicas).
+     */
+    public static String getLogMode() {
+        String v = safeEnv(ENV_LOG_MODE);
+        if (v != null && v.equalsIgnoreCase("async")) return "async";
+        if (v != null && v.equalsIgnoreCase("summary")) return "summary";
+        return "sync";
+    }
+
+    /** Retorna N da amostragem no modo async (loga 1 de cada N eventos, em média). Default: 1 (todos) */
+    public static int getLogSampleRate() {
+        return intEnv(ENV_LOG_SAMPLE_RATE, 1, 1);
+    }
+
+    /** Retorna o intervalo (s) das linhas de resumo nos modos async/summary. Default: 10 */
+    public static int getLogSummarySeconds() {
+        return intEnv(ENV_LOG_SUMMARY_SECONDS, 10, 1);
+    }
+
+    /** Retorna true se LOG_PAYLOADS=true (corpo da mensagem nos logs de publicação/recebimento). Default: false */
+    public static boolean isLogPayloads() {
+        String v = safeEnv(ENV_LOG_PAYLOADS);
+        return v != null && v.equalsIgnoreCase("true");
+    }
+
+    /** Retorna a política de escolha do tipo no consumidor: "random" (50/50) ou "adaptive" (por carga). Default: random */
+    public static String getNeedStrategy() {
+        String v = safeEnv(ENV_NEED_STRATEGY);
+        return v != null && v.equalsIgnoreCase("adaptive") ? "adaptive" : "random";
+    }
+
+    /**
+     * Retorna a fração mínima das escolhas garantida a cada tipo com mensagens na política adaptive
+     * (0 a 1/número de tipos). Default: 0.1
+     */
+    public static double getNeedFairnessFloor() {
+        String v = safeEnv(ENV_NEED_FAIRNESS_FLOOR);
+        double max = 1.0 / ProductType.values().length;
+        try { return v != null ? Math.max(0, Math.min(max, Double.parseDouble(v))) : Math.min(max, 0.1); } catch (NumberFormatException e) { return Math.min(max, 0.1); }
+    }
+
+    /** Retorna o intervalo mínimo (ms) entre medições de profundidade de fila por tipo. Default: 500 */
+    public static int getQueueStatsRefreshMillis() {
+        return intEnv(ENV_QUEUE_STATS_REFRESH_MS, 500, 10);
+    }
+
+    /** Retorna a política de escolha do tipo no produtor: "random" (padrão) ou "backpressure". */
+    public static String getTypeStrategy() {
+        String v = safeEnv(ENV_TYPE_STRATEGY);
+        return v != null && v.equalsIgnoreCase("backpressure") ? "backpressure" : "random";
+    }
+
+    /** Retorna a profundidade de fila (mensagens) a partir da qual o tipo deixa de ser produzido. Default: 1000 */
+    public static int getQueueHighWater() {
+        return intEnv(ENV_QUEUE_HIGH_WATER, 1000, 1);
+    }
+
+    /** Retorna quantas conexões AMQP o pool do processo abre. Default: 1 */
+    public static int getRabbitConnections() {
+        return intEnv(ENV_RABBIT_CONNECTIONS, 1, 1);
+    }
+
+    /** Retorna o máximo de canais por conexão do pool (channelMax negociado com o broker). Default: 64 */
+    public static int getRabbitChannelsPerConnection() {
+        return intEnv(ENV_RABBIT_CHANNELS_PER_CONNECTION, 64, 1);
+    }
+
+    /** Retorna o intervalo (ms) entre tentativas de recuperação automática da conexão. Default: 500 */
+    public static int getRabbitRecoveryMillis() {
+        return intEnv(ENV_RABBIT_RECOVERY_MS, 500, 50);
+    }
+
+    /** Retorna o heartbeat AMQP em segundos (0 desliga). Default: 10 */
+    public static int getRabbitHeartbeatSeconds() {
+        return intEnv(ENV_RABBIT_HEARTBEAT_SECONDS, 10, 0);
+    }
+
+    /** Retorna quantas filas (shards) cada tipo de produto usa no RabbitMQ. Default: 1 (uma fila por tipo) */
+    public static int getShardsPerType() {
+        return intEnv(ENV_SHARDS_PER_TYPE, 1, 1);
+    }
+
+    /** Retorna o diretório do spill em disco do produtor, ou null se o spill estiver desligado (padrão). */
+    public static String getSpillDir() {
+        return safeEnv(ENV_SPILL_DIR);
+    }
+
+    /** Retorna o tamanho (MiB) de cada segmento do spill. Default: 16 */
+    public static int getSpillSegmentMegabytes() {
+        return intEnv(ENV_SPILL_SEGMENT_MB, 16, 1);
+    }
+
+    /**
+     * Retorna o intervalo (ms) entre fsyncs do spill (numa queda da máquina, perde-se no máximo o que foi
+     * gravado nesse intervalo). Default: 100
+     */
+    public static int getSpillFsyncMillis() {
+        return intEnv(ENV_SPILL_FSYNC_MS, 100, 1);
+    }
+
+    /** Retorna o intervalo (ms) entre tentativas de reenviar o spill (e de reconectar ao broker). Default: 1000 */
+    public static int getSpillRetryMillis() {
+        return intEnv(ENV_SPILL_RETRY_MS, 1000, 10);
+    }
+
+    /**
+     * Retorna a duração (ms) de uma publicação a partir da qual o broker é considerado lento e as próximas
+     * mensagens vão para o spill (0 = só desvia em erro). Default: 1000
+     */
+    public static int getSpillSlowMillis() {
+        return intEnv(ENV_SPILL_SLOW_MS, 1000, 0);
+    }
+
+    /** Retorna o arquivo JSONL do gerador de carga, ou null para a produção normal (padrão). */
+    public static String getLoadgenFile() {
+        return safeEnv(ENV_LOADGEN_FILE);
+    }
+
+    /** Retorna a taxa alvo do gerador de carga em mensagens/s (0 = o mais rápido possível). Default: 0 */
+    public static int getLoadgenRate() {
+        return intEnv(ENV_LOADGEN_RATE, 0, 0);
+    }
+
+    /** Retorna o modo do gerador de carga: "open" (laço aberto) ou "closed" (laço fechado). Default: open */
+    public static String getLoadgenMode() {
+        String v = safeEnv(ENV_LOADGEN_MODE);
+        return v != null && v.equalsIgnoreCase("closed") ? "closed" : "open";
+    }
+
+    /** Retorna quantos workers do gerador de carga publicam em paralelo. Default: 1 */
+    public static int getLoadgenConcurrency() {
+        return intEnv(ENV_LOADGEN_CONCURRENCY, 1, 1);
+    }
+
+    /** Retorna quantas vezes o arquivo de carga é reproduzido. Default: 1 */
+    public static int getLoadgenLoops() {
+        return intEnv(ENV_LOADGEN_LOOPS, 1, 1);
+    }
+
+    /**
+     * Retorna o modelo de tempo do tipo informado: "fixed", "exponential", "lognormal" ou "zero".
+     * TIMING_MODEL_<TIPO> (ex.: TIMING_MODEL_TIPO_B=lognormal) tem prioridade sobre TIMING_MODEL. Default: fixed
+     */
+    public static String getTimingModel(ProductType type) {
+        String v = safeEnv(ENV_TIMING_MODEL + "_" + type.name());
+        if (v == null) v = safeEnv(ENV_TIMING_MODEL);
+        if (v == null) return "fixed";
+        v = v.toLowerCase(Locale.ROOT);
+        return v.equals("exponential") || v.equals("lognormal") || v.equals("zero") ? v : "fixed";
+    }
+
+    /** Retorna o fator de escala global dos tempos (1.0 = tempos do enunciado; 0 = sem espera). Default: 1.0 */
+    public static double getTimingScale() {
+        return doubleEnv(ENV_TIMING_SCALE, 1.0, 0);
+    }
+
+    /**
+     * Retorna o tempo médio de produção (ms) configurado para o tipo (TIMING_PRODUCTION_MS_<TIPO> tem
+     * prioridade sobre TIMING_PRODUCTION_MS), ou -1 para usar o tempo do enunciado (padrão).
+     */
+    public static int getTimingProductionMillis(ProductType type) {
+        int all = intEnv(ENV_TIMING_PRODUCTION_MS, -1, 0);
+        return intEnv(ENV_TIMING_PRODUCTION_MS + "_" + type.name(), all, 0);
+    }
+
+    /** Retorna quantas vezes o consumo é mais longo que a produção. Default: 2.0 (regra do enunciado) */
+    public static double getTimingConsumptionFactor() {
+        return doubleEnv(ENV_TIMING_CONSUMPTION_FACTOR, 2.0, 0);
+    }
+
+    /** Retorna o desvio padrão (sigma, escala logarítmica) do modelo lognormal. Default: 0.5 */
+    public static double getTimingLognormalSigma() {
+        return doubleEnv(ENV_TIMING_LOGNORMAL_SIGMA, 0.5, 0);
+    }
+
+    /** Retorna o relógio das esperas de produção/consumo: "system" ou "virtual". Default: system */
+    public static String getTimingClock() {
+        String v = safeEnv(ENV_TIMING_CLOCK);
+        return v != null && v.equalsIgnoreCase("virtual") ? "virtual" : "system";
+    }
+
+    /** Retorna as quantidades de produtores a simular (ex.: "1,2,4" ou "1-4"). Default: 2 (como o run-demo.sh) */
+    public static int[] getSimProducers() {
+        return intListEnv(ENV_SIM_PRODUCERS, new int[] {2});
+    }
+
+    /** Retorna as quantidades de consumidores a simular (ex.: "1-8"). Default: 4 (como o run-demo.sh) */
+    public static int[] getSimConsumers() {
+        return intListEnv(ENV_SIM_CONSUMERS, new int[] {4});
+    }
+
+    /** Retorna as estratégias de tipo a simular ("random", "backpressure"; separadas por vírgula). Default: random */
+    public static String[] getSimTypeStrategies() {
+        return nameListEnv(ENV_SIM_TYPE_STRATEGIES, "random", "random", "backpressure");
+    }
+
+    /** Retorna as estratégias de necessidade a simular ("random", "adaptive"; separadas por vírgula). Default: random */
+    public static String[] getSimNeedStrategies() {
+        return nameListEnv(ENV_SIM_NEED_STRATEGIES, "random", "random", "adaptive");
+    }
+
+    /** Retorna quantos itens cada simulação produz. Default: 1000000 */
+    public static int getSimItems() {
+        return intEnv(ENV_SIM_ITEMS, 1_000_000, 1);
+    }
+
+    /** Retorna a semente dos tempos sorteados no simulador (a mesma em todas as combinações). Default: 42 */
+    public static int getSimSeed() {
+        return intEnv(ENV_SIM_SEED, 42, Integer.MIN_VALUE);
+    }
+
+    /** Retorna o arquivo CSV de resumo do simulador, ou null para a saída padrão. */
+    public static String getSimOutput() {
+        return safeEnv(ENV_SIM_OUTPUT);
+    }
+
+    /** Retorna o arquivo CSV da série temporal do simulador, ou null se desligada (padrão). */
+    public static String getSimTimeseries() {
+        return safeEnv(ENV_SIM_TIMESERIES);
+    }
+
+    /** Retorna o intervalo (ms de tempo simulado) entre amostras da série temporal. Default: 60000 */
+    public static int getSimSampleMillis() {
+        return intEnv(ENV_SIM_SAMPLE_MS, 60_000, 1);
+    }
+
+    /**
+     * Retorna quantos itens do tipo o consumidor recebe, consome e confirma por ciclo.
+     * CONSUMER_BATCH_SIZE_<TIPO> (ex.: CONSUMER_BATCH_SIZE_TIPO_A=64) tem prioridade sobre CONSUMER_BATCH_SIZE.
+     * Default: 1 (um item por ciclo, como no original)
+     */
+    public static int getConsumerBatchSize(ProductType type) {
+        int all = intEnv(ENV_CONSUMER_BATCH_SIZE, 1, 1);
+        return intEnv(ENV_CONSUMER_BATCH_SIZE + "_" + type.name(), all, 1);
+    }
+
+    /** Retorna quanto tempo (ms) o consumo em lote espera pelo primeiro item antes de reavaliar o tipo. Default: 100 */
+    public static int getConsumerBatchWaitMillis() {
+        return intEnv(ENV_CONSUMER_BATCH_WAIT_MS, 100, 0);
+    }
+
+    /**
+     * Retorna o modo de deduplicação do consumidor: "lru" (cache limitado com TTL), "bloom" (filtros de Bloom
+     * por janela de tempo, para cardinalidade muito alta) ou "off". Default: off
+     */
+    public static String getDedupMode() {
+        String v = safeEnv(ENV_DEDUP_MODE);
+        if (v != null && v.equalsIgnoreCase("lru")) return "lru";
+        return v != null && v.equalsIgnoreCase("bloom") ? "bloom" : "off";
+    }
+
+    /** Retorna quantos itemIds o cache lru guarda, ou quantos o bloom espera por janela. Default: 100000 */
+    public static int getDedupCapacity() {
+        return intEnv(ENV_DEDUP_CAPACITY, 100_000, 1);
+    }
+
+    /** Retorna por quanto tempo (ms) um itemId consumido conta como duplicado (0 = sem expiração no lru). Default: 600000 */
+    public static int getDedupTtlMillis() {
+        return intEnv(ENV_DEDUP_TTL_MS, 600_000, 0);
+    }
+
+    /** Retorna o número de partições do cache lru (arredondado para potência de 2). Default: 16 */
+    public static int getDedupShards() {
+        return intEnv(ENV_DEDUP_SHARDS, 16, 1);
+    }
+
+    /** Retorna a taxa de falso positivo alvo do filtro bloom (entre 1e-9 e 0.5). Default: 0.001 */
+    public static double getDedupFalsePositiveRate() {
+        return Math.min(0.5, doubleEnv(ENV_DEDUP_FPP, 0.001, 1e-9));
+    }
+
+    /** Retorna o arquivo do retrato da deduplicação em disco, ou null se desligado (padrão). */
+    public static String getDedupSnapshotFile() {
+        return safeEnv(ENV_DEDUP_SNAPSHOT_FILE);
+    }
+
+    /** Retorna o intervalo (ms) entre retratos da deduplicação em disco. Default: 30000 */
+    public static int getDedupSnapshotMillis() {
+        return intEnv(ENV_DEDUP_SNAPSHOT_MS, 30_000, 100);
+    }
+
+    /**
+     * Retorna as entradas de PRODUCT_TYPES (ex.: "TIPO_C:1200,TIPO_D" -> ["TIPO_C:1200", "TIPO_D"]).
+     * Cada uma registra (ou redefine o tempo de) um tipo de produto. Default: nenhuma (só TIPO_A e TIPO_B)
+     */
+    public static List<String> getProductTypes() {
+        String v = safeEnv(ENV_PRODUCT_TYPES);
+        List<String> entries = new ArrayList<>();
+        if (v == null) return entries;
+        for (String entry : v.split(",")) {
+            if (!entry.isBlank()) entries.add(entry.trim());
+        }
+        return entries;
+    }
+
+    /** Retorna o arquivo JSON com o registro de tipos de produto, ou null se não houver (padrão). */
+    public static String getProductTypesFile() {
+        return safeEnv(ENV_PRODUCT_TYPES_FILE);
+    }
+
+    /**
+     * Retorna o x-max-priority das filas de trabalho (1..255; o RabbitMQ recomenda até 10), ou 0 para filas
+     * FIFO sem prioridade. Mudar exige apagar as filas existentes. Default: 0
+     */
+    public static int getQueueMaxPriority() {
+        return Math.min(255, intEnv(ENV_QUEUE_MAX_PRIORITY, 0, 0));
+    }
+
+    /**
+     * Retorna a prioridade das mensagens do tipo (0..255; maior = mais urgente). MESSAGE_PRIORITY_<TIPO> tem
+     * prioridade sobre MESSAGE_PRIORITY. Só tem efeito no broker com QUEUE_MAX_PRIORITY > 0. Default: 0
+     */
+    public static int getMessagePriority(ProductType type) {
+        int all = intEnv(ENV_MESSAGE_PRIORITY, 0, 0);
+        return Math.min(255, intEnv(ENV_MESSAGE_PRIORITY + "_" + type.name(), all, 0));
+    }
+
+    /**
+     * Retorna o prazo (ms após a criação) das mensagens do tipo; um item vencido vai para a fila de mensagens
+     * mortas sem ser consumido. MESSAGE_DEADLINE_MS_<TIPO> tem prioridade sobre MESSAGE_DEADLINE_MS.
+     * Default: 0 (sem prazo)
+     */
+    public static int getMessageDeadlineMillis(ProductType type) {
+        int all = intEnv(ENV_MESSAGE_DEADLINE_MS, 0, 0);
+        return intEnv(ENV_MESSAGE_DEADLINE_MS + "_" + type.name(), all, 0);
+    }
+
+    /**
+     * Retorna a ordem do buffer local do consumidor (entregas já recebidas via prefetch): "edf" (prazo mais
+     * cedo primeiro, depois maior prioridade) ou "fifo" (ordem de chegada). Default: fifo
+     */
+    public static String getConsumerOrder() {
+        String v = safeEnv(ENV_CONSUMER_ORDER);
+        return v != null && v.equalsIgnoreCase("edf") ? "edf" : "fifo";
+    }
+
+    /**
+     * Retorna os atrasos (ms) dos níveis de nova tentativa, em ordem: a n-ésima falha espera o n-ésimo atraso;
+     * depois do último, a mensagem vai para a fila de estacionamento. Vazio com RETRY_DELAYS_MS=off (ou 0).
+     * Valores inválidos caem no default. Default: 1000,10000,60000
+     */
+    public static long[] getRetryDelaysMillis() {
+        long[] def = {1_000, 10_000, 60_000};
+        String v = safeEnv(ENV_RETRY_DELAYS_MS);
+        if (v == null) return def;
+        if (v.trim().equalsIgnoreCase("off") || v.trim().equals("0")) return new long[0];
+        try {
+            long[] delays = Arrays.stream(v.split(",")).mapToLong(s -> Long.parseLong(s.trim())).toArray();
+            return Arrays.stream(delays).allMatch(d -> d > 0) ? delays : def;
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+
+    /** Retorna quantas publicações falhas o produtor guarda em memória aguardando nova tentativa. Default: 10000 */
+    public static int getRetryMaxPending() {
+        return intEnv(ENV_RETRY_MAX_PENDING, 10_000, 1);
+    }
+
     /**
      * Retorna o identificador lógico do produtor.
      * Política de resolução (legível para o vídeo):
@@ -98,6 +657,48 @@ public final class AppConfig { // Classe utilitária (somente métodos estático
         }
     }
 
+    /** Lê um inteiro da ENV com default e valor mínimo (valores inválidos caem no default). */
+    private static int intEnv(String name, int def, int min) {
+        String v = safeEnv(name);
+        try { return v != null ? Math.max(min, Integer.parseInt(v)) : def; } catch (NumberFormatException e) { return def; }
+    }
+
+    /** Lê um número decimal da ENV com default e valor mínimo (valores inválidos caem no default). */
+    private static double doubleEnv(String name, double def, double min) {
+        String v = safeEnv(name);
+        try { return v != null ? Math.max(min, Double.parseDouble(v)) : def; } catch (NumberFormatException e) { return def; }
+    }
+
+    /** Lê uma lista de inteiros positivos da ENV ("1,2,4", "1-8" ou combinações); inválida ou vazia cai no default. */
+    private static int[] intListEnv(String name, int[] def) {
+        String v = safeEnv(name);
+        if (v == null) return def;
+        try {
+            List<Integer> values = new ArrayList<>();
+            for (String part : v.split(",")) {
+                String[] range = part.trim().split("-");
+                int from = Integer.parseInt(range[0].trim());
+                int to = range.length > 1 ? Integer.parseInt(range[1].trim()) : from;
+                for (int i = Math.max(1, from); i <= to; i++) values.add(i);
+            }
+            return values.isEmpty() ? def : values.stream().mapToInt(Integer::intValue).toArray();
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+
+    /** Lê uma lista de nomes da ENV, mantendo só os permitidos (minúsculos); vazia cai no default. */
+    private static String[] nameListEnv(String name, String def, String... allowed) {
+        String v = safeEnv(name);
+        if (v == null) return new String[] {def};
+        String[] names = Arrays.stream(v.split(","))
+                .map(s -> s.trim().toLowerCase(Locale.ROOT))
+                .filter(s -> Arrays.asList(allowed).contains(s))
+                .distinct()
+                .toArray(String[]::new);
+        return names.length > 0 ? names : new String[] {def};
+    }
+
     /** Obtém o hostname da máquina (ou container) — útil para derivar IDs. */
     private static String resolveHostname() {
         // 1) Tenta ENV HOSTNAME (comum em Linux/containers)
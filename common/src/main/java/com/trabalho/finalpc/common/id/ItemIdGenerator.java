@@ -0,0 +1,13 @@
+package com.trabalho.finalpc.common.id; // Geração de identificadores de itens
+
+import com.trabalho.finalpc.common.ProductMessage; // Mensagem que recebe o novo id
+
+/**
+ * Estratégia de geração do itemId (128 bits).
+ * Eu gravo o id direto na mensagem como dois longs (setIdBits) para não devolver objetos nem Strings;
+ * a representação textual só é montada se alguém pedir getItemId().
+ */
+public interface ItemIdGenerator {
+    /** Gera um novo id e o grava na mensagem. */
+    void assignTo(ProductMessage message);
+}
@@ -0,0 +1,24 @@
+package com.trabalho.finalpc.common.id; // Geração de identificadores de itens
+
+import com.trabalho.finalpc.common.config.AppConfig; // ITEM_ID_GENERATOR escolhe a estratégia
+
+/**
+ * Ponto único de acesso ao gerador de itemId do processo (usado pelo construtor de ProductMessage).
+ * Default: monotônico (ordenado no tempo, sem lock e sem SecureRandom por item).
+ */
+public final class ItemIds { // Classe utilitária (somente métodos estáticos)
+    private static volatile ItemIdGenerator generator =
+            "random".equals(AppConfig.getItemIdGenerator()) ? new RandomItemIdGenerator() : new MonotonicItemIdGenerator();
+
+    private ItemIds() { /* Impede instanciação */ }
+
+    /** Gerador atual do processo. */
+    public static ItemIdGenerator generator() {
+        return generator;
+    }
+
+    /** Troca o gerador (ex.: benchmarks ou testes com ids determinísticos). */
+    public static void setGenerator(ItemIdGenerator newGenerator) {
+        generator = newGenerator;
+    }
+}
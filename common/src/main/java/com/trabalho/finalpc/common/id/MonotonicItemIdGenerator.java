@@ -0,0 +1,48 @@
+package com.trabalho.finalpc.common.id; // Geração de identificadores de itens
+
+import com.trabalho.finalpc.common.ProductMessage;
+
+import java.security.SecureRandom;              // Usado uma única vez, para o “nó” deste processo
+import java.util.concurrent.atomic.AtomicLong;  // Estado monotônico sem lock
+
+/**
+ * Gerador de ids ordenados no tempo e monotônicos, no layout do UUID v7:
+ * <pre>
+ *  msb: 48 bits epoch ms | versão 7 (4 bits) | contador de 12 bits dentro do mesmo ms
+ *  lsb: variante IETF (2 bits) | 62 bits aleatórios sorteados uma vez por processo
+ * </pre>
+ * Minhas decisões:
+ * - O par (ms, contador) avança por CAS: nunca repete nem volta no tempo dentro do processo; se o contador
+ *   estourar no mesmo milissegundo, eu “pego emprestado” o ms seguinte.
+ * - O lsb fixo por processo distingue produtores diferentes; assim não há SecureRandom nem alocação por item.
+ * - O texto continua no formato UUID (36 caracteres), compatível com o que já circula nas filas.
+ */
+public class MonotonicItemIdGenerator implements ItemIdGenerator {
+    private static final int COUNTER_BITS = 12;
+
+    private final AtomicLong last = new AtomicLong(); // (epoch ms << 12) | contador
+    private final long node;                          // lsb fixo deste gerador
+
+    public MonotonicItemIdGenerator() {
+        this(new SecureRandom().nextLong());
+    }
+
+    public MonotonicItemIdGenerator(long nodeBits) {
+        this.node = (nodeBits & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // Variante IETF (10xx)
+    }
+
+    @Override
+    public void assignTo(ProductMessage message) {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long prev, next;
+        do {
+            prev = last.get();
+            next = Math.max(prev + 1, now);
+        } while (!last.compareAndSet(prev, next));
+
+        long millis = next >>> COUNTER_BITS;
+        long counter = next & ((1L << COUNTER_BITS) - 1);
+        long msb = (millis << 16) | 0x7000L | counter; // 48 bits de tempo | versão 7 | contador
+        message.setIdBits(msb, node);
+    }
+}
@@ -0,0 +1,18 @@
+package com.trabalho.finalpc.common.id; // Geração de identificadores de itens
+
+import com.trabalho.finalpc.common.ProductMessage;
+
+import java.util.UUID; // UUID v4 (aleatório, via SecureRandom)
+
+/**
+ * Gerador original do projeto: UUID.randomUUID() (v4).
+ * Mantido para quem precisa de ids sem ordem temporal; custa um acesso ao SecureRandom por item.
+ */
+public class RandomItemIdGenerator implements ItemIdGenerator {
+
+    @Override
+    public void assignTo(ProductMessage message) {
+        UUID uuid = UUID.randomUUID();
+        message.setIdBits(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+}
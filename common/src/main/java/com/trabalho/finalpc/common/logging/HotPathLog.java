@@ -0,0 +1,165 @@
+package com.trabalho.finalpc.common.logging; // Logs do caminho quente (por mensagem)
+
+import com.trabalho.finalpc.common.config.AppConfig;                       // LOG_MODE, LOG_SAMPLE_RATE, ...
+import com.trabalho.finalpc.common.messaging.inmemory.MultiProducerRingBuffer; // Fila sem locks até a thread escritora
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList; // Eventos conhecidos (para o resumo)
+import java.util.concurrent.ThreadLocalRandom;    // Amostragem sem estado compartilhado
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Um evento de log que acontece uma vez por mensagem (publicado, recebido, consumido...).
+ * Logs de inicialização e de erro continuam usando o Logger direto; só o caminho quente passa por aqui.
+ * Modos (LOG_MODE):
+ * - sync (padrão): igual ao log.info de sempre, linha a linha (bom para a demonstração).
+ * - async: a thread que produz/consome só enfileira o evento num ring buffer; uma thread escritora formata
+ *   e escreve. LOG_SAMPLE_RATE=N mantém 1 de cada N eventos; com o buffer cheio o evento é descartado
+ *   (nunca bloqueia o loop) e contado.
+ * - summary: nenhuma linha por mensagem, apenas contagens por evento a cada LOG_SUMMARY_SECONDS.
+ * Nos modos async/summary uma linha de resumo periódica mostra quantos eventos houve, quantos foram
+ * amostrados fora e quantos foram descartados. Dumps do corpo (payload) só com LOG_PAYLOADS=true.
+ */
+public final class HotPathLog {
+    private static final Logger summaryLog = LoggerFactory.getLogger(HotPathLog.class);
+    private static final int BUFFER_CAPACITY = 8192;        // Eventos aguardando a thread escritora
+    private static final long WRITER_IDLE_NANOS = 1_000_000; // Pausa da escritora com o buffer vazio
+
+    private static final String MODE = AppConfig.getLogMode();
+    private static final boolean ASYNC = "async".equals(MODE);
+    private static final boolean SYNC = "sync".equals(MODE);
+    private static final int SAMPLE_RATE = AppConfig.getLogSampleRate();
+    private static final boolean PAYLOADS = AppConfig.isLogPayloads();
+
+    private static final List<HotPathLog> EVENTS = new CopyOnWriteArrayList<>();
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final MultiProducerRingBuffer<Entry> BUFFER = ASYNC ? new MultiProducerRingBuffer<>(BUFFER_CAPACITY) : null;
+
+    static {
+        if (!SYNC) startBackgroundThreads();
+    }
+
+    private final Logger logger;
+    private final String name;                   // Ex.: ProducerService.publicado (linha de resumo)
+    private final LongAdder count = new LongAdder();
+    private long reported;                       // Só lido/escrito pela thread de resumo
+
+    private HotPathLog(Logger logger, String event) {
+        this.logger = logger;
+        this.name = simpleName(logger.getName()) + "." + event;
+    }
+
+    /** Cria o evento {@code event} do logger (guarde em um campo estático, como o próprio Logger). */
+    public static HotPathLog event(Logger logger, String event) {
+        HotPathLog e = new HotPathLog(logger, event);
+        EVENTS.add(e);
+        return e;
+    }
+
+    /** true se LOG_PAYLOADS=true: quem loga pode incluir o corpo da mensagem (ver payload()). */
+    public static boolean payloads() {
+        return PAYLOADS;
+    }
+
+    /** Corpo legível para log: texto se for JSON, Base64 para formatos binários. */
+    public static String payload(byte[] body, String contentType) {
+        if (contentType != null && contentType.contains("json")) return new String(body, StandardCharsets.UTF_8);
+        return "base64:" + Base64.getEncoder().encodeToString(body);
+    }
+
+    /** Registra uma ocorrência do evento (formato e argumentos no padrão do SLF4J). */
+    public void info(String format, Object... args) {
+        if (SYNC) {
+            logger.info(format, args);
+            return;
+        }
+        count.increment();
+        if (!ASYNC || !logger.isInfoEnabled()) return;                               // summary: só conta
+        if (SAMPLE_RATE > 1 && ThreadLocalRandom.current().nextInt(SAMPLE_RATE) != 0) return;
+        if (!BUFFER.offer(new Entry(this, Thread.currentThread().getName(), format, args))) {
+            DROPPED.increment(); // Buffer cheio: descarta em vez de segurar o loop
+        }
+    }
+
+    private static void startBackgroundThreads() {
+        if (ASYNC) {
+            Thread writer = new Thread(HotPathLog::writeLoop, "hot-path-log");
+            writer.setDaemon(true); // Não impede o encerramento da JVM
+            writer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(HotPathLog::drain)); // O que sobrou no buffer sai no fim
+        }
+        long interval = AppConfig.getLogSummarySeconds();
+        Thread reporter = new Thread(() -> {
+            while (true) {
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(interval));
+                summarize(interval);
+            }
+        }, "hot-path-log-summary");
+        reporter.setDaemon(true);
+        reporter.start();
+    }
+
+    private static void writeLoop() {
+        while (true) {
+            if (drain() == 0) LockSupport.parkNanos(WRITER_IDLE_NANOS);
+        }
+    }
+
+    // Escreve tudo que está no buffer; retorna quantos eventos saíram
+    private static synchronized int drain() {
+        int n = 0;
+        Entry e;
+        while ((e = BUFFER.poll()) != null) {
+            e.event.logger.info("(" + e.thread + ") " + e.format, e.args); // Thread de origem, já que quem escreve é a escritora
+            n++;
+        }
+        return n;
+    }
+
+    // Linha periódica: eventos desde o último resumo (+ amostrados fora e descartados no modo async)
+    private static synchronized void summarize(long intervalSeconds) {
+        StringBuilder sb = new StringBuilder();
+        long logged = 0;
+        for (HotPathLog e : EVENTS) {
+            long total = e.count.sum();
+            long delta = total - e.reported;
+            e.reported = total;
+            if (delta == 0) continue;
+            if (sb.length() > 0) sb.append(" | ");
+            sb.append(e.name).append(": ").append(delta);
+            logged += delta;
+        }
+        if (logged == 0) return; // Nada aconteceu no intervalo: não polui o console
+        long dropped = DROPPED.sumThenReset();
+        if (ASYNC) {
+            sb.append(" (amostragem 1/").append(SAMPLE_RATE).append(", descartados: ").append(dropped).append(')');
+        }
+        summaryLog.info("[HotPathLog] Últimos {} s => {}", intervalSeconds, sb);
+    }
+
+    private static String simpleName(String loggerName) {
+        int dot = loggerName.lastIndexOf('.');
+        return dot >= 0 ? loggerName.substring(dot + 1) : loggerName;
+    }
+
+    /** Evento aguardando a thread escritora (argumentos são formatados só lá). */
+    private static final class Entry {
+        final HotPathLog event;
+        final String thread;
+        final String format;
+        final Object[] args;
+
+        Entry(HotPathLog event, String thread, String format, Object[] args) {
+            this.event = event;
+            this.thread = thread;
+            this.format = format;
+            this.args = args;
+        }
+    }
+}
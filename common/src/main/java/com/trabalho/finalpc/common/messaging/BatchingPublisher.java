@@ -0,0 +1,136 @@
+package com.trabalho.finalpc.common.messaging; // Pacote para contratos de mensageria
+
+import com.trabalho.finalpc.common.ProductMessage; // DTO acumulado no lote
+import com.trabalho.finalpc.common.ProductType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService; // Timer do linger (lote incompleto)
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorador que transforma publicações individuais em publishBatch do adaptador real.
+ * Minhas decisões:
+ * - O lote é enviado ao atingir maxBatchSize ou quando a mensagem mais antiga espera lingerMillis.
+ * - O ProducerService continua chamando publish(type, msg); quem ganha com o lote é o adaptador
+ *   (propriedades montadas uma vez, um lock do canal por lote, um log por lote).
+ * - Mensagens ficam referenciadas até o envio, então não podem ser reaproveitadas pelo chamador.
+ * - Lote que falha não é descartado: volta para o início do próximo lote (a ordem se mantém) e é tentado de
+ *   novo no próximo envio, por tamanho ou pelo timer um linger depois. Se a falha foi na thread de quem
+ *   publicou, a mensagem dela sai do lote devolvido e o erro é propagado (quem publica conta a falha, como
+ *   sem lote); as demais esperam a próxima tentativa. Assim o acumulado fica limitado a ~2 lotes mesmo com
+ *   o adaptador fora do ar, e o que o timer não conseguiu enviar não se perde só num log.
+ * - Reenviar um lote que saiu pela metade pode duplicar mensagens (entrega pelo menos uma vez).
+ */
+public class BatchingPublisher implements MessagePublisher {
+    private static final Logger log = LoggerFactory.getLogger(BatchingPublisher.class);
+
+    private final MessagePublisher delegate;
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final ScheduledExecutorService lingerTimer;
+
+    private List<ProductMessage> buffer;   // Protegido por this
+    private long oldestAt;                 // Quando a primeira mensagem do lote atual chegou
+
+    public BatchingPublisher(MessagePublisher delegate, int maxBatchSize, long lingerMillis) {
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMillis = lingerMillis;
+        this.buffer = new ArrayList<>(maxBatchSize);
+        this.lingerTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "publish-linger");
+            t.setDaemon(true); // Não impede o encerramento da JVM
+            return t;
+        });
+        lingerTimer.scheduleWithFixedDelay(this::flushIfDue, lingerMillis, lingerMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(ProductType type, ProductMessage message) throws Exception {
+        List<ProductMessage> full = null;
+        synchronized (this) {
+            if (buffer.isEmpty()) oldestAt = System.currentTimeMillis();
+            buffer.add(message);
+            if (buffer.size() >= maxBatchSize) full = swap();
+        }
+        if (full != null) { // Publica fora do lock para não travar outros produtores
+            try {
+                delegate.publishBatch(full);
+            } catch (Exception e) {
+                full.remove(full.size() - 1); // A nossa (a última do lote) falha para quem publicou
+                requeue(full);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void publishBatch(List<ProductMessage> messages) throws Exception {
+        flush();                          // Mantém a ordem: o que estava acumulado sai antes
+        delegate.publishBatch(messages);
+    }
+
+    /** Publica imediatamente o lote acumulado (se houver). */
+    public void flush() throws Exception {
+        List<ProductMessage> batch;
+        synchronized (this) {
+            if (buffer.isEmpty()) return;
+            batch = swap();
+        }
+        try {
+            delegate.publishBatch(batch);
+        } catch (Exception e) {
+            requeue(batch);
+            throw e;
+        }
+    }
+
+    // Executado pelo timer: envia o lote se a mensagem mais antiga já esperou o linger
+    private void flushIfDue() {
+        List<ProductMessage> batch;
+        synchronized (this) {
+            if (buffer.isEmpty() || System.currentTimeMillis() - oldestAt < lingerMillis) return;
+            batch = swap();
+        }
+        try {
+            delegate.publishBatch(batch);
+        } catch (Exception e) {
+            requeue(batch);
+            log.warn("[BatchingPublisher] Falha ao publicar lote de {} mensagens ({}); elas voltam ao início do próximo lote",
+                    batch.size(), e.toString());
+        }
+    }
+
+    // Devolve um lote que falhou para a frente do acumulado; o timer só tenta de novo um linger depois
+    private synchronized void requeue(List<ProductMessage> batch) {
+        if (batch.isEmpty()) return;
+        batch.addAll(buffer); // O que chegou durante a tentativa vai depois
+        buffer = batch;
+        oldestAt = System.currentTimeMillis();
+    }
+
+    private List<ProductMessage> swap() {
+        List<ProductMessage> batch = buffer;
+        buffer = new ArrayList<>(maxBatchSize);
+        return batch;
+    }
+
+    @Override
+    public void close() throws Exception {
+        lingerTimer.shutdownNow();
+        try {
+            flush(); // Não deixa mensagens para trás no encerramento
+        } catch (Exception e) {
+            synchronized (this) {
+                log.error("[BatchingPublisher] {} mensagens não publicadas no encerramento: {}", buffer.size(), e.toString());
+            }
+            throw e;
+        } finally {
+            delegate.close();
+        }
+    }
+}
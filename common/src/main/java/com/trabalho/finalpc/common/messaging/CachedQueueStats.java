@@ -0,0 +1,44 @@
+package com.trabalho.finalpc.common.messaging; // Pacote para contratos de mensageria
+
+import com.trabalho.finalpc.common.ProductType;
+
+import java.util.concurrent.atomic.AtomicLongArray; // Valor e instante da última medição por tipo
+
+/**
+ * Decorador que limita as medições do QueueStats real a uma por tipo a cada refreshMillis.
+ * Minhas decisões:
+ * - Sem thread própria: a medição acontece na chamada que encontrar o valor vencido, e um CAS no instante
+ *   da medição garante que só uma thread vai ao broker; as demais devolvem o último valor conhecido.
+ * - Antes da primeira medição o valor é -1 (desconhecido), o mesmo contrato do QueueStats.
+ */
+public class CachedQueueStats implements QueueStats {
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final QueueStats delegate;
+    private final long refreshNanos;
+    private final AtomicLongArray values;       // Índice = ordinal do ProductType
+    private final AtomicLongArray refreshedAt;  // System.nanoTime() da última medição (NEVER = nunca)
+
+    public CachedQueueStats(QueueStats delegate, long refreshMillis) {
+        this.delegate = delegate;
+        this.refreshNanos = refreshMillis * 1_000_000;
+        int types = ProductType.values().length;
+        this.values = new AtomicLongArray(types);
+        this.refreshedAt = new AtomicLongArray(types);
+        for (int i = 0; i < types; i++) {
+            values.set(i, -1);
+            refreshedAt.set(i, NEVER);
+        }
+    }
+
+    @Override
+    public long depth(ProductType type) {
+        int i = type.ordinal();
+        long now = System.nanoTime();
+        long at = refreshedAt.get(i);
+        if ((at == NEVER || now - at >= refreshNanos) && refreshedAt.compareAndSet(i, at, now)) {
+            values.set(i, delegate.depth(type)); // Só a thread que ganhou o CAS mede
+        }
+        return values.get(i);
+    }
+}
@@ -3,6 +3,9 @@ package com.trabalho.finalpc.common.messaging; // Pacote para contratos de mensa
 import com.trabalho.finalpc.common.ProductMessage; // DTO da mensagem (payload)
 import com.trabalho.finalpc.common.ProductType;    // Tipo do produto (define routing key)
 
+import java.util.List; // Lote de mensagens para publicação em bloco
+import java.util.concurrent.CompletableFuture; // Confirmação do broker (publish confirms)
+
 /**
  * Esta é a “porta” de saída do domínio para a infraestrutura (mensageria) que eu defini.
  * Minhas decisões:
@@ -16,6 +19,40 @@ public interface MessagePublisher {
      */
     void publish(ProductType type, ProductMessage message) throws Exception;
 
+    /**
+     * Publica um lote de mensagens; o tipo de cada uma (getType) define sua routing key.
+     * Adaptadores podem amortizar custos por lote (propriedades, lock do canal, logs). O padrão publica uma a uma.
+     */
+    default void publishBatch(List<ProductMessage> messages) throws Exception {
+        for (ProductMessage message : messages) {
+            publish(message.getType(), message);
+        }
+    }
+
+    /**
+     * Publica e devolve um futuro que completa quando o broker confirma a mensagem (ou falha se o adaptador
+     * fechar antes disso). Serve a quem só pode dar a mensagem por entregue após a confirmação (o spill em
+     * disco). O padrão publica de forma síncrona e devolve o futuro já completo.
+     */
+    default CompletableFuture<Void> publishConfirmed(ProductType type, ProductMessage message) throws Exception {
+        publish(type, message);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /** Como publishConfirmed, para um lote: o futuro completa quando todas as mensagens forem confirmadas. */
+    default CompletableFuture<Void> publishBatchConfirmed(List<ProductMessage> messages) throws Exception {
+        publishBatch(messages);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Estaciona uma mensagem que esgotou as novas tentativas (RetryingPublisher), guardando quantas foram
+     * (getRetryCount) e o último erro. Retorna false se o adaptador não tem onde estacionar (padrão).
+     */
+    default boolean park(ProductMessage message, Exception lastError) throws Exception {
+        return false;
+    }
+
     /** Fecha recursos (conexões/canais) quando a aplicação encerrar. */
     void close() throws Exception;
 }
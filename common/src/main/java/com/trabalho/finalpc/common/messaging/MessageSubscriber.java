@@ -3,10 +3,15 @@ package com.trabalho.finalpc.common.messaging; // Pacote para contratos de mensa
 import com.trabalho.finalpc.common.ProductMessage; // DTO da mensagem recebida do broker
 import com.trabalho.finalpc.common.ProductType;    // Tipo de produto (mapeia para fila específica)
 
+import java.util.List;
+
 /**
  * Esta é a “porta” de entrada de mensagens vindas do broker que eu defini.
  * Decisão importante: para aderir ao enunciado (escolher tipo a cada iteração), eu adotei consumo pull
  * com basicGet, pois preciso pegar “exatamente 1 mensagem do tipo escolhido”.
+ * Adaptadores podem usar push (basicConsume + buffer local por tipo) desde que mantenham esse contrato.
+ * Para tipos de alta vazão e consumo barato há também o recebimento em lote (receiveBatch) com
+ * confirmação conjunta (acknowledgeAll), que dilui o custo fixo de cada recebimento.
  */
 public interface MessageSubscriber extends AutoCloseable {
     /**
@@ -15,6 +20,45 @@ public interface MessageSubscriber extends AutoCloseable {
      */
     ProductMessage receiveOne(ProductType type) throws Exception;
 
+    /**
+     * Espera até {@code maxWaitMillis} pela primeira mensagem do tipo e devolve junto as que já estiverem
+     * disponíveis, até {@code maxItems}. Lista vazia se nada chegar no prazo.
+     * Padrão para adaptadores sem lote: bloqueia por uma única mensagem (receiveOne), sem prazo.
+     */
+    default List<ProductMessage> receiveBatch(ProductType type, int maxItems, long maxWaitMillis) throws Exception {
+        return List.of(receiveOne(type));
+    }
+
+    /**
+     * Sinaliza que o consumo de uma mensagem obtida por receiveOne terminou.
+     * Adaptadores com ack manual confirmam a entrega aqui; os demais ignoram (padrão).
+     */
+    default void acknowledge(ProductMessage message) throws Exception {
+    }
+
+    /** Sinaliza a conclusão de um lote inteiro (padrão: acknowledge de cada mensagem). */
+    default void acknowledgeAll(List<ProductMessage> messages) throws Exception {
+        for (ProductMessage message : messages) acknowledge(message);
+    }
+
+    /**
+     * Tira de circulação uma mensagem recebida que não será consumida (ex.: prazo vencido), informando o motivo.
+     * Adaptadores com fila de mensagens mortas a republicam lá antes de confirmar; o padrão só confirma
+     * (a mensagem é descartada).
+     */
+    default void deadLetter(ProductMessage message, String reason) throws Exception {
+        acknowledge(message);
+    }
+
+    /**
+     * Sinaliza que o consumo de uma mensagem recebida falhou. Adaptadores com novas tentativas a republicam
+     * no nível de espera seguinte (ou no estacionamento, esgotados os níveis) e então a confirmam, sem segurar
+     * o worker; o padrão só confirma (a mensagem é descartada, como antes).
+     */
+    default void fail(ProductMessage message, Exception cause) throws Exception {
+        acknowledge(message);
+    }
+
     /** Fecha recursos (conexões/canais) ao encerrar. */
     @Override
     void close() throws Exception;
@@ -0,0 +1,60 @@
+package com.trabalho.finalpc.common.messaging; // Pacote para contratos de mensageria
+
+import com.trabalho.finalpc.common.ProductType;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService; // Medições periódicas fora do loop de produção
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;   // Últimos valores medidos por tipo
+
+/**
+ * Decorador que mede o QueueStats real numa thread própria, a cada periodMillis, e devolve sempre o último
+ * valor medido. Diferente de CachedQueueStats, nenhuma chamada de depth/consumers espera um round trip:
+ * bom para quem consulta antes de cada item (ex.: a política de backpressure do produtor).
+ * Antes da primeira medição (e quando ela falha) os valores são -1, o mesmo contrato do QueueStats.
+ */
+public class PolledQueueStats implements QueueStats, AutoCloseable {
+    private final QueueStats delegate;
+    private final AtomicLongArray depths;     // Índice = ordinal do ProductType
+    private final AtomicLongArray consumers;
+    private final ScheduledExecutorService poller;
+
+    public PolledQueueStats(QueueStats delegate, long periodMillis) {
+        this.delegate = delegate;
+        int types = ProductType.values().length;
+        this.depths = new AtomicLongArray(types);
+        this.consumers = new AtomicLongArray(types);
+        for (int i = 0; i < types; i++) {
+            depths.set(i, -1);
+            consumers.set(i, -1);
+        }
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "queue-stats-poller");
+            t.setDaemon(true); // Não impede o encerramento da JVM
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::poll, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+        for (ProductType type : ProductType.values()) {
+            depths.set(type.ordinal(), delegate.depth(type));
+            consumers.set(type.ordinal(), delegate.consumers(type));
+        }
+    }
+
+    @Override
+    public long depth(ProductType type) {
+        return depths.get(type.ordinal());
+    }
+
+    @Override
+    public int consumers(ProductType type) {
+        return (int) consumers.get(type.ordinal());
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+    }
+}
@@ -0,0 +1,24 @@
+package com.trabalho.finalpc.common.messaging; // Pacote para contratos de mensageria
+
+import com.trabalho.finalpc.common.ProductType; // Cada tipo tem sua fila
+
+/**
+ * Visão (somente leitura) do estado das filas de cada tipo, para políticas que decidem com base em carga.
+ * Adaptadores que conseguem medir (RabbitSubscriber, RabbitPublisher, InMemoryTransport) implementam esta interface;
+ * quem não consegue simplesmente não a implementa e as políticas caem no comportamento padrão.
+ */
+public interface QueueStats {
+    /**
+     * Mensagens do tipo prontas para consumo (fila no broker + buffer local, se houver),
+     * ou -1 se não foi possível medir agora. Pode custar um round trip: use CachedQueueStats no loop.
+     */
+    long depth(ProductType type);
+
+    /**
+     * Consumidores registrados na fila do tipo, ou -1 se desconhecido. Consumidores em pull (basicGet)
+     * não se registram no broker, então 0 não significa necessariamente que ninguém está consumindo.
+     */
+    default int consumers(ProductType type) {
+        return -1;
+    }
+}
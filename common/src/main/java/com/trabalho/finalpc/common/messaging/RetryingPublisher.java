@@ -0,0 +1,148 @@
+package com.trabalho.finalpc.common.messaging; // Pacote para contratos de mensageria
+
+import com.trabalho.finalpc.common.ProductMessage; // Cópia guardada até a nova tentativa
+import com.trabalho.finalpc.common.ProductType;
+import com.trabalho.finalpc.common.metrics.Metrics; // Novas tentativas, estacionadas e pendentes
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService; // Novas tentativas agendadas (ninguém dorme esperando)
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Decorador que não deixa uma publicação falha se perder nem segurar o loop do produtor: a falha é agendada
+ * para uma nova tentativa com backoff (RETRY_DELAYS_MS) e publish retorna na hora.
+ * Minhas decisões:
+ * - Nenhuma thread dorme numa falha: cada tentativa é uma tarefa num ScheduledExecutorService de uma thread,
+ *   que só trabalha quando o atraso de alguma mensagem vence.
+ * - A n-ésima falha espera o n-ésimo atraso; depois do último, a mensagem vai para o estacionamento do
+ *   adaptador (park). Se o adaptador não tem estacionamento, ou o broker continua fora, ela é registrada
+ *   no log de erro com o itemId (com SPILL_DIR, falhas nem chegam aqui: o spill as absorve).
+ * - Guardo uma cópia da mensagem (o chamador pode reaproveitar a instância com regenerate).
+ * - Limite de pendências (RETRY_MAX_PENDING): sem vaga, a falha é propagada ao chamador como antes, em vez
+ *   de acumular memória sem fim com o broker fora do ar.
+ * - Para o chamador a publicação foi aceita (ele conta como publicada); a ordem entre uma mensagem que
+ *   voltou a ser tentada e as seguintes não é preservada.
+ * - No close, as tentativas pendentes rodam uma última vez na hora (o que falhar vai para o estacionamento).
+ */
+public class RetryingPublisher implements MessagePublisher {
+    private static final Logger log = LoggerFactory.getLogger(RetryingPublisher.class);
+
+    private final MessagePublisher delegate;
+    private final long[] delaysMillis;
+    private final int maxPending;
+    private final ScheduledExecutorService timer;
+    private final AtomicInteger pending = new AtomicInteger(); // Mensagens aguardando nova tentativa
+    private final DoubleSupplier pendingGauge = pending::get;
+    private volatile boolean closed;
+
+    /**
+     * @param delegate     adaptador real
+     * @param delaysMillis atraso de cada nível de nova tentativa (vazio = estaciona na primeira falha)
+     * @param maxPending   mensagens aguardando nova tentativa ao mesmo tempo
+     */
+    public RetryingPublisher(MessagePublisher delegate, long[] delaysMillis, int maxPending) {
+        this.delegate = delegate;
+        this.delaysMillis = delaysMillis.clone();
+        this.maxPending = maxPending;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "publish-retry");
+            t.setDaemon(true); // Não impede o encerramento da JVM
+            return t;
+        });
+        Metrics.registerGauge("publish_retry_pending", "", "Publicações falhas aguardando nova tentativa", pendingGauge);
+    }
+
+    @Override
+    public void publish(ProductType type, ProductMessage message) throws Exception {
+        try {
+            delegate.publish(type, message);
+        } catch (Exception e) {
+            if (!reserve(1)) throw e;
+            retry(message.copy(), e);
+        }
+    }
+
+    @Override
+    public void publishBatch(List<ProductMessage> messages) throws Exception {
+        try {
+            delegate.publishBatch(messages);
+        } catch (Exception e) {
+            if (!reserve(messages.size())) throw e;
+            for (ProductMessage m : messages) retry(m.copy(), e); // Parte do lote pode já ter saído (duplicadas)
+        }
+    }
+
+    // Ocupa vagas de pendência; false se não há (ou se já está encerrando)
+    private boolean reserve(int n) {
+        if (closed) return false;
+        if (pending.addAndGet(n) <= maxPending) return true;
+        pending.addAndGet(-n);
+        return false;
+    }
+
+    // Agenda a próxima tentativa ou, esgotados os níveis (ou encerrando), estaciona
+    private void retry(ProductMessage message, Exception cause) {
+        int attempt = message.getRetryCount();
+        if (attempt >= delaysMillis.length || closed) {
+            giveUp(message, cause);
+            return;
+        }
+        message.setRetryCount(attempt + 1);
+        Metrics.publishRetried(message.getType());
+        try {
+            timer.schedule(() -> attempt(message), delaysMillis[attempt], TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) { // close() correu junto
+            giveUp(message, cause);
+        }
+    }
+
+    // Executado pelo timer (ou no close): nova tentativa; a falha volta para retry
+    private void attempt(ProductMessage message) {
+        try {
+            delegate.publish(message.getType(), message);
+            pending.decrementAndGet();
+        } catch (Exception e) {
+            retry(message, e);
+        }
+    }
+
+    // Esgotou os níveis: estaciona no adaptador ou, sem estacionamento, registra a perda no log
+    private void giveUp(ProductMessage message, Exception cause) {
+        pending.decrementAndGet();
+        try {
+            if (delegate.park(message, cause)) { // Só conta como estacionada com a confirmação do broker
+                Metrics.publishParked(message.getType());
+                log.warn("[RetryingPublisher] itemId={} tipo={} estacionado após {} tentativas: {}",
+                        message.getItemId(), message.getType(), message.getRetryCount() + 1, cause.toString());
+                return;
+            }
+        } catch (Exception e) {
+            cause.addSuppressed(e);
+        }
+        Metrics.publishFailed(message.getType()); // Perda definitiva
+        log.error("[RetryingPublisher] itemId={} tipo={} descartado após {} tentativas (estacionamento indisponível ou recusado pelo broker): {}",
+                message.getItemId(), message.getType(), message.getRetryCount() + 1, cause.toString());
+    }
+
+    @Override
+    public boolean park(ProductMessage message, Exception lastError) throws Exception {
+        return delegate.park(message, lastError);
+    }
+
+    @Override
+    public void close() throws Exception {
+        closed = true;
+        try {
+            for (Runnable task : timer.shutdownNow()) task.run(); // Última tentativa agora; falhas estacionam
+        } finally {
+            Metrics.unregisterGauge("publish_retry_pending", "", pendingGauge);
+            delegate.close();
+        }
+    }
+}
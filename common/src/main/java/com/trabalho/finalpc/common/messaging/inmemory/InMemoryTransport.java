@@ -0,0 +1,217 @@
+package com.trabalho.finalpc.common.messaging.inmemory; // Transporte em memória (sem broker)
+
+import com.trabalho.finalpc.common.ProductMessage;
+import com.trabalho.finalpc.common.ProductType;
+import com.trabalho.finalpc.common.config.AppConfig;               // IN_MEMORY_CAPACITY da instância compartilhada
+import com.trabalho.finalpc.common.messaging.MessagePublisher;
+import com.trabalho.finalpc.common.messaging.MessageSubscriber;
+import com.trabalho.finalpc.common.messaging.QueueStats;
+import com.trabalho.finalpc.common.metrics.Metrics;                // Gauge de profundidade por tipo
+
+import java.lang.invoke.VarHandle;                  // Barreira entre publicar e checar consumidores dormindo
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;   // Contagem de usuários da instância compartilhada
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;      // Backoff do produtor com a fila cheia
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Transporte em processo que substitui o RabbitMQ quando produtor e consumidor rodam na mesma JVM
+ * (testes de carga, implantação co-localizada, medir o overhead puro do framework).
+ * Minhas decisões:
+ * - Um RingBuffer limitado e sem locks por ProductType (índice = ordinal), como as filas products.typeA/B.
+ * - Produtor: se o anel do tipo está cheio, espera com backoff curto (backpressure), sem descartar.
+ * - Consumidor: tenta o anel, gira um pouco e só então dorme numa Condition do tipo. O produtor só toca
+ *   no lock quando há alguém dormindo, então o caminho comum (fila com itens) não usa lock algum.
+ * - Recebimento bloqueante (receiveOne), com prazo (receive) e em lote (receiveBatch).
+ * - Não há ack: a mensagem sai do anel ao ser recebida (equivale ao ACK_MODE=auto).
+ * - shared() devolve uma instância por processo com contagem de referências: cada close() libera uma
+ *   referência e o transporte só fecha de fato quando o último usuário (publicador ou assinante) fecha.
+ */
+public class InMemoryTransport implements MessagePublisher, MessageSubscriber, QueueStats {
+    private static final int SPIN_TRIES = 100;                 // Tentativas antes de dormir na Condition
+    private static final long PUBLISH_BACKOFF_NANOS = 50_000;  // Espera do produtor com o anel cheio
+
+    private static InMemoryTransport shared;                   // Protegido por InMemoryTransport.class
+
+    private final RingBuffer<ProductMessage>[] rings;          // Índice = ordinal do ProductType
+    private final Waiters[] waiters;
+    private final DoubleSupplier[] depthGauges;                 // Fontes do gauge inmemory_queue_depth
+    private final AtomicInteger refs = new AtomicInteger(1);
+    private volatile boolean closed;
+
+    /**
+     * @param capacityPerType slots por tipo (arredondado para potência de 2)
+     * @param singleProducer  true se apenas uma thread publica (anel sem CAS no lado do produtor)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public InMemoryTransport(int capacityPerType, boolean singleProducer) {
+        ProductType[] types = ProductType.values();
+        this.rings = new RingBuffer[types.length];
+        this.waiters = new Waiters[types.length];
+        for (ProductType type : types) {
+            rings[type.ordinal()] = singleProducer
+                    ? new SingleProducerRingBuffer<>(capacityPerType)
+                    : new MultiProducerRingBuffer<>(capacityPerType);
+            waiters[type.ordinal()] = new Waiters();
+        }
+        this.depthGauges = new DoubleSupplier[types.length];
+        for (ProductType type : types) {
+            RingBuffer<ProductMessage> ring = rings[type.ordinal()];
+            depthGauges[type.ordinal()] = ring::size;
+            Metrics.registerGauge("inmemory_queue_depth", Metrics.typeLabel(type),
+                    "Mensagens aguardando no transporte em memória", depthGauges[type.ordinal()]);
+        }
+    }
+
+    /** Instância do processo (multi-produtor, capacidade IN_MEMORY_CAPACITY); cada chamada deve ter seu close(). */
+    public static synchronized InMemoryTransport shared() {
+        if (shared == null || shared.closed) {
+            shared = new InMemoryTransport(AppConfig.getInMemoryCapacity(), false);
+        } else {
+            shared.refs.incrementAndGet();
+        }
+        return shared;
+    }
+
+    @Override
+    public void publish(ProductType type, ProductMessage message) throws Exception {
+        offer(type, message);
+        signal(type, false);
+    }
+
+    @Override
+    public void publishBatch(List<ProductMessage> messages) throws Exception {
+        boolean[] touched = new boolean[rings.length];
+        for (ProductMessage m : messages) {
+            offer(m.getType(), m);
+            touched[m.getType().ordinal()] = true;
+        }
+        for (ProductType type : ProductType.values()) {
+            if (touched[type.ordinal()]) signal(type, true); // Um sinal por tipo, não por mensagem
+        }
+    }
+
+    // Insere no anel do tipo, esperando com backoff enquanto estiver cheio
+    private void offer(ProductType type, ProductMessage message) throws InterruptedException {
+        RingBuffer<ProductMessage> ring = rings[type.ordinal()];
+        while (!ring.offer(message)) {
+            if (closed) throw new IllegalStateException("Transporte em memória fechado");
+            LockSupport.parkNanos(PUBLISH_BACKOFF_NANOS);
+            if (Thread.interrupted()) throw new InterruptedException();
+        }
+    }
+
+    // Acorda consumidores do tipo somente se algum está dormindo
+    private void signal(ProductType type, boolean all) {
+        Waiters w = waiters[type.ordinal()];
+        VarHandle.fullFence(); // Publicação no anel visível antes de ler “waiting” (par com o consumidor)
+        if (w.waiting == 0) return;
+        w.lock.lock();
+        try {
+            if (all) w.notEmpty.signalAll(); else w.notEmpty.signal();
+        } finally {
+            w.lock.unlock();
+        }
+    }
+
+    /** Bloqueia até haver uma mensagem do tipo (ou o transporte ser fechado e esvaziado). */
+    @Override
+    public ProductMessage receiveOne(ProductType type) throws Exception {
+        return await(type, -1);
+    }
+
+    /** Espera até {@code timeout} por uma mensagem do tipo; null se o prazo acabar. */
+    public ProductMessage receive(ProductType type, long timeout, TimeUnit unit) throws InterruptedException {
+        return await(type, Math.max(0, unit.toNanos(timeout)));
+    }
+
+    /**
+     * Espera até {@code maxWaitMillis} pela primeira mensagem e devolve junto as que já estiverem
+     * disponíveis, até {@code maxItems}. Lista vazia se nada chegar no prazo.
+     */
+    @Override
+    public List<ProductMessage> receiveBatch(ProductType type, int maxItems, long maxWaitMillis) throws InterruptedException {
+        ProductMessage first = receive(type, maxWaitMillis, TimeUnit.MILLISECONDS);
+        if (first == null) return Collections.emptyList();
+        List<ProductMessage> batch = new ArrayList<>(Math.min(maxItems, 64));
+        batch.add(first);
+        if (maxItems > 1) rings[type.ordinal()].drainTo(batch, maxItems - 1);
+        return batch;
+    }
+
+    // nanos < 0 = sem prazo
+    private ProductMessage await(ProductType type, long nanos) throws InterruptedException {
+        RingBuffer<ProductMessage> ring = rings[type.ordinal()];
+        ProductMessage m = ring.poll();
+        for (int i = 0; m == null && i < SPIN_TRIES; i++) {
+            Thread.onSpinWait();
+            m = ring.poll();
+        }
+        if (m != null) return m;
+
+        boolean timed = nanos >= 0;
+        Waiters w = waiters[type.ordinal()];
+        w.lock.lockInterruptibly();
+        try {
+            w.waiting++; // Antes de reler o anel: o produtor que publicar depois disso vai nos acordar
+            try {
+                for (;;) {
+                    VarHandle.fullFence();
+                    m = ring.poll();
+                    if (m != null) return m;
+                    if (closed) throw new IllegalStateException("Transporte em memória fechado");
+                    if (!timed) {
+                        w.notEmpty.await();
+                    } else if (nanos <= 0) {
+                        return null;
+                    } else {
+                        nanos = w.notEmpty.awaitNanos(nanos); // Pode voltar negativo (prazo vencido)
+                    }
+                }
+            } finally {
+                w.waiting--;
+            }
+        } finally {
+            w.lock.unlock();
+        }
+    }
+
+    /** Número aproximado de mensagens aguardando no anel do tipo. */
+    public int size(ProductType type) {
+        return rings[type.ordinal()].size();
+    }
+
+    @Override
+    public long depth(ProductType type) {
+        return size(type); // Leitura local, sem custo: dispensa cache
+    }
+
+    @Override
+    public void close() {
+        if (refs.decrementAndGet() > 0) return; // Ainda há usuários da instância compartilhada
+        closed = true;
+        for (ProductType type : ProductType.values()) {
+            Metrics.unregisterGauge("inmemory_queue_depth", Metrics.typeLabel(type), depthGauges[type.ordinal()]);
+        }
+        for (Waiters w : waiters) {
+            w.lock.lock();
+            try {
+                w.notEmpty.signalAll(); // Consumidores dormindo saem com IllegalStateException
+            } finally {
+                w.lock.unlock();
+            }
+        }
+    }
+
+    /** Consumidores dormindo de um tipo (waiting só muda com o lock; é lido sem lock pelo produtor). */
+    private static final class Waiters {
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition notEmpty = lock.newCondition();
+        volatile int waiting;
+    }
+}
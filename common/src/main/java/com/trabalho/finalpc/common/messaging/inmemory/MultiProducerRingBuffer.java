@@ -0,0 +1,38 @@
+package com.trabalho.finalpc.common.messaging.inmemory; // Transporte em memória (sem broker)
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** RingBuffer para vários produtores concorrentes: o cursor de inserção é reservado por CAS. */
+public class MultiProducerRingBuffer<T> extends RingBuffer<T> {
+    private final AtomicLong tail = new AtomicLong(); // Próxima posição a inserir
+
+    public MultiProducerRingBuffer(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(T item) {
+        long pos = tail.get();
+        for (;;) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.lazySet(index, item);
+                    sequences.lazySet(index, pos + 1); // Publica: consumidores já podem ler o slot
+                    return true;
+                }
+                pos = tail.get();                       // Outro produtor reservou a posição
+            } else if (diff < 0) {
+                return false;                           // Slot ainda não consumido na volta anterior: cheia
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    @Override
+    protected long producerCursor() {
+        return tail.get();
+    }
+}
@@ -0,0 +1,79 @@
+package com.trabalho.finalpc.common.messaging.inmemory; // Transporte em memória (sem broker)
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;      // Sequência de cada slot (quem pode usá-lo agora)
+import java.util.concurrent.atomic.AtomicReferenceArray; // Os itens propriamente ditos
+
+/**
+ * Fila circular limitada e sem locks (estilo Disruptor / fila de Vyukov).
+ * Minhas decisões:
+ * - Capacidade arredondada para potência de 2: o índice do slot é {@code posição & mask}, sem divisão.
+ * - Cada slot tem uma sequência: igual à posição = livre para o produtor; posição + 1 = pronto para o
+ *   consumidor. Assim produtores e consumidores só disputam o próprio cursor (CAS), nunca um lock.
+ * - O lado consumidor é sempre múltiplo (vários workers do mesmo tipo); o lado produtor varia
+ *   nas subclasses (SingleProducerRingBuffer / MultiProducerRingBuffer).
+ */
+public abstract class RingBuffer<T> {
+    protected final int mask;
+    protected final AtomicLongArray sequences;
+    protected final AtomicReferenceArray<T> slots;
+    private final AtomicLong head = new AtomicLong(); // Próxima posição a consumir
+
+    protected RingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1; // Próxima potência de 2
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.slots = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < capacity; i++) sequences.set(i, i);
+    }
+
+    /** Insere sem bloquear; false se a fila está cheia. */
+    public abstract boolean offer(T item);
+
+    /** Posição da próxima inserção (usada apenas para o tamanho aproximado). */
+    protected abstract long producerCursor();
+
+    /** Remove sem bloquear; null se a fila está vazia. Seguro para vários consumidores. */
+    public T poll() {
+        long pos = head.get();
+        for (;;) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    T item = slots.get(index);
+                    slots.lazySet(index, null);                   // Solta a referência para o GC
+                    sequences.lazySet(index, pos + mask + 1);     // Libera o slot para a próxima volta
+                    return item;
+                }
+                pos = head.get();                                  // Outro consumidor ganhou: tenta a seguinte
+            } else if (diff < 0) {
+                return null;                                       // Slot ainda não publicado: vazia
+            } else {
+                pos = head.get();                                  // Cursor desatualizado
+            }
+        }
+    }
+
+    /** Remove até {@code max} itens disponíveis para {@code target}; retorna quantos foram removidos. */
+    public int drainTo(Collection<? super T> target, int max) {
+        int n = 0;
+        T item;
+        while (n < max && (item = poll()) != null) {
+            target.add(item);
+            n++;
+        }
+        return n;
+    }
+
+    /** Número aproximado de itens (instantâneo, pode mudar em seguida). */
+    public int size() {
+        long size = producerCursor() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,31 @@
+package com.trabalho.finalpc.common.messaging.inmemory; // Transporte em memória (sem broker)
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RingBuffer para exatamente uma thread produtora: o cursor de inserção é avançado sem CAS.
+ * Usar com mais de um produtor corrompe a fila — nesse caso use MultiProducerRingBuffer.
+ */
+public class SingleProducerRingBuffer<T> extends RingBuffer<T> {
+    private final AtomicLong tail = new AtomicLong(); // Escrito só pelo produtor (lazySet)
+
+    public SingleProducerRingBuffer(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(T item) {
+        long pos = tail.get();
+        int index = (int) (pos & mask);
+        if (sequences.get(index) != pos) return false; // Slot ainda ocupado: cheia
+        slots.lazySet(index, item);
+        sequences.lazySet(index, pos + 1);             // Publica para os consumidores
+        tail.lazySet(pos + 1);
+        return true;
+    }
+
+    @Override
+    protected long producerCursor() {
+        return tail.get();
+    }
+}
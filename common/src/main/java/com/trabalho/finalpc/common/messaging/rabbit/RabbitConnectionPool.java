@@ -0,0 +1,220 @@
+package com.trabalho.finalpc.common.messaging.rabbit; // Infraestrutura RabbitMQ compartilhada
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import com.rabbitmq.client.Recoverable;        // Conexões com recuperação automática
+import com.rabbitmq.client.RecoveryListener;   // Início/fim de cada recuperação (para log e health check)
+import com.trabalho.finalpc.common.config.AppConfig; // Broker, tamanho do pool e parâmetros de recuperação
+import com.trabalho.finalpc.common.metrics.Metrics;  // Gauge de conexões abertas
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService; // Health check periódico
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray; // Conexões substituíveis pelo health check
+import java.util.function.DoubleSupplier;
+
+/**
+ * Pool de conexões AMQP do processo: N conexões (RABBIT_CONNECTIONS), cada uma com até M canais
+ * (RABBIT_CHANNELS_PER_CONNECTION), compartilhado por publicadores e assinantes.
+ * Minhas decisões:
+ * - openChannel() distribui os canais entre as conexões em rodízio, então vários workers deixam de
+ *   disputar um único canal (e um único socket). Com a conexão cheia, tenta a próxima.
+ * - threadChannel() devolve um canal fixo da thread atual, para operações curtas sem estado por canal
+ *   (ex.: basicGet com autoAck): cada worker usa o seu e não precisa de lock.
+ * - Recuperação automática do cliente com intervalo curto (RABBIT_RECOVERY_MS, padrão 500 ms em vez dos
+ *   5 s do cliente) e heartbeat (RABBIT_HEARTBEAT_SECONDS) para detectar conexões mortas rapidamente;
+ *   canais, consumidores e topologia são recuperados pelo próprio cliente.
+ * - Health check a cada segundo: uma conexão fechada que não está em recuperação (ex.: alguém fechou a
+ *   conexão por engano) é substituída por uma nova. Bloqueios do broker (alarme de memória/disco) são logados.
+ * - shared(nome) devolve uma instância por nome de cliente com contagem de referências, como o
+ *   InMemoryTransport: o pool só fecha quando o último usuário fecha.
+ */
+public class RabbitConnectionPool implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(RabbitConnectionPool.class);
+    private static final long HEALTH_CHECK_MILLIS = 1_000;
+    private static final Map<String, RabbitConnectionPool> SHARED = new HashMap<>(); // Protegido por RabbitConnectionPool.class
+
+    private final String clientName;
+    private final int channelsPerConnection;
+    private final ConnectionFactory factory;
+    private final AtomicReferenceArray<Connection> connections;
+    private final AtomicLongArray recoveringSince;   // System.nanoTime() do início da recuperação (0 = estável)
+    private final AtomicInteger nextConnection = new AtomicInteger(); // Rodízio do openChannel
+    private final ThreadLocal<Channel> threadChannels = new ThreadLocal<>();
+    private final ScheduledExecutorService healthCheck;
+    private final DoubleSupplier openGauge = this::openConnections;
+    private final AtomicInteger refs = new AtomicInteger(1);
+    private volatile boolean closed;
+
+    /**
+     * @param clientName            nome exibido no broker (as conexões ficam clientName-1..N)
+     * @param connections           número de conexões (N)
+     * @param channelsPerConnection canais máximos por conexão (M)
+     */
+    public RabbitConnectionPool(String clientName, int connections, int channelsPerConnection) throws Exception {
+        this.clientName = clientName;
+        this.channelsPerConnection = channelsPerConnection;
+        this.factory = new ConnectionFactory();
+        factory.setHost(AppConfig.getRabbitHost());
+        factory.setPort(AppConfig.getRabbitPort());
+        factory.setUsername(AppConfig.getRabbitUser());
+        factory.setPassword(AppConfig.getRabbitPass());
+        factory.setRequestedChannelMax(channelsPerConnection);               // M canais por conexão
+        factory.setRequestedHeartbeat(AppConfig.getRabbitHeartbeatSeconds());
+        factory.setAutomaticRecoveryEnabled(true);
+        factory.setTopologyRecoveryEnabled(true);                            // Redeclara filas/bindings/consumidores
+        factory.setNetworkRecoveryInterval(AppConfig.getRabbitRecoveryMillis());
+
+        this.connections = new AtomicReferenceArray<>(connections);
+        this.recoveringSince = new AtomicLongArray(connections);
+        try {
+            for (int i = 0; i < connections; i++) this.connections.set(i, newConnection(i));
+        } catch (Exception e) {
+            closeConnections(); // Não deixa conexões abertas pela metade
+            throw e;
+        }
+
+        this.healthCheck = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, clientName + "-health");
+            t.setDaemon(true); // Não impede o encerramento da JVM
+            return t;
+        });
+        healthCheck.scheduleWithFixedDelay(this::checkHealth, HEALTH_CHECK_MILLIS, HEALTH_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+        Metrics.registerGauge("rabbit_connections_open", clientLabel(), "Conexões AMQP abertas no pool", openGauge);
+
+        log.info("[RabbitConnectionPool] {} conexão(ões) x até {} canais com {}:{} (recuperação a cada {} ms, heartbeat {} s)",
+                connections, channelsPerConnection, AppConfig.getRabbitHost(), AppConfig.getRabbitPort(),
+                AppConfig.getRabbitRecoveryMillis(), AppConfig.getRabbitHeartbeatSeconds());
+    }
+
+    /** Pool do processo para o cliente (tamanho do AppConfig); cada chamada deve ter seu close(). */
+    public static synchronized RabbitConnectionPool shared(String clientName) throws Exception {
+        RabbitConnectionPool pool = SHARED.get(clientName);
+        if (pool == null || pool.closed) {
+            pool = new RabbitConnectionPool(clientName, AppConfig.getRabbitConnections(), AppConfig.getRabbitChannelsPerConnection());
+            SHARED.put(clientName, pool);
+        } else {
+            pool.refs.incrementAndGet();
+        }
+        return pool;
+    }
+
+    /** Abre um canal novo (de quem chamou, que deve fechá-lo) na próxima conexão do rodízio com espaço. */
+    public Channel openChannel() throws IOException {
+        int n = connections.length();
+        int start = Math.floorMod(nextConnection.getAndIncrement(), n);
+        for (int k = 0; k < n; k++) {
+            Connection connection = connections.get((start + k) % n);
+            if (connection == null || !connection.isOpen()) continue; // Em recuperação: tenta outra
+            Channel channel = connection.createChannel();
+            if (channel != null) return channel;                       // null = conexão sem canais livres
+        }
+        throw new IOException("Pool '" + clientName + "' sem conexão aberta ou sem canais livres ("
+                + n + " x " + channelsPerConnection + ")");
+    }
+
+    /** Canal fixo da thread atual (reaberto se tiver sido fechado); fechado junto com o pool. */
+    public Channel threadChannel() throws IOException {
+        Channel channel = threadChannels.get();
+        if (channel == null || !channel.isOpen()) {
+            if (channel != null) {
+                try { channel.abort(); } catch (Exception ignored) {} // Tira da recuperação: seria um canal órfão
+            }
+            channel = openChannel();
+            threadChannels.set(channel);
+        }
+        return channel;
+    }
+
+    /** Número de conexões do pool (N). */
+    public int size() {
+        return connections.length();
+    }
+
+    private Connection newConnection(int index) throws Exception {
+        Connection connection = factory.newConnection(clientName + "-" + (index + 1));
+        recoveringSince.set(index, 0);
+        connection.addShutdownListener(cause -> {
+            // Queda não pedida pela aplicação: o cliente vai recuperar (após RABBIT_RECOVERY_MS); o health check espera
+            if (!cause.isInitiatedByApplication()) recoveringSince.compareAndSet(index, 0, System.nanoTime());
+        });
+        connection.addBlockedListener(
+                reason -> log.warn("[RabbitConnectionPool] Broker bloqueou publicações em {}-{}: {}", clientName, index + 1, reason),
+                () -> log.info("[RabbitConnectionPool] Broker liberou publicações em {}-{}", clientName, index + 1));
+        if (connection instanceof Recoverable) {
+            ((Recoverable) connection).addRecoveryListener(new RecoveryListener() {
+                @Override
+                public void handleRecoveryStarted(Recoverable recoverable) {
+                    recoveringSince.compareAndSet(index, 0, System.nanoTime());
+                    log.warn("[RabbitConnectionPool] Conexão {}-{} caiu; recuperando...", clientName, index + 1);
+                }
+
+                @Override
+                public void handleRecovery(Recoverable recoverable) {
+                    long ms = (System.nanoTime() - recoveringSince.getAndSet(index, 0)) / 1_000_000; // Desde a queda
+                    log.info("[RabbitConnectionPool] Conexão {}-{} recuperada em {} ms", clientName, index + 1, ms);
+                }
+            });
+        }
+        return connection;
+    }
+
+    // Substitui conexões fechadas que a recuperação automática não vai trazer de volta (fechadas pela aplicação)
+    private void checkHealth() {
+        for (int i = 0; i < connections.length(); i++) {
+            Connection connection = connections.get(i);
+            if (closed) return;
+            if (connection.isOpen() || recoveringSince.get(i) != 0) continue;
+            try {
+                connections.set(i, newConnection(i));
+                log.warn("[RabbitConnectionPool] Conexão {}-{} estava fechada sem recuperação; reaberta.", clientName, i + 1);
+            } catch (Exception e) {
+                log.warn("[RabbitConnectionPool] Falha ao reabrir conexão {}-{}: {}", clientName, i + 1, e.toString());
+            }
+        }
+    }
+
+    private int openConnections() {
+        int open = 0;
+        for (int i = 0; i < connections.length(); i++) {
+            Connection connection = connections.get(i);
+            if (connection != null && connection.isOpen()) open++;
+        }
+        return open;
+    }
+
+    private String clientLabel() {
+        return "client=\"" + clientName + "\"";
+    }
+
+    @Override
+    public void close() {
+        synchronized (RabbitConnectionPool.class) { // Mesmo lock do shared(): ninguém pega uma instância fechando
+            if (refs.decrementAndGet() > 0) return;  // Ainda há usuários do pool compartilhado
+            closed = true;
+        }
+        healthCheck.shutdownNow();
+        Metrics.unregisterGauge("rabbit_connections_open", clientLabel(), openGauge);
+        closeConnections();
+    }
+
+    private void closeConnections() {
+        for (int i = 0; i < connections.length(); i++) {
+            Connection connection = connections.get(i);
+            if (connection == null) continue;
+            try {
+                if (connection.isOpen()) connection.close(); // Fecha também os canais (inclusive os por thread)
+            } catch (Exception e) {
+                log.warn("[RabbitConnectionPool] Falha ao fechar conexão {}-{}: {}", clientName, i + 1, e.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.trabalho.finalpc.common.messaging.rabbit; // Infraestrutura RabbitMQ compartilhada
+
+import com.trabalho.finalpc.common.MessagingConstants; // Exchange principal (destino ao fim da espera)
+import com.trabalho.finalpc.common.ProductType;        // Uma fila de espera por tipo e nível
+import com.trabalho.finalpc.common.config.AppConfig;   // RETRY_DELAYS_MS
+
+import java.util.Map;
+
+/**
+ * Nomes e argumentos da topologia de novas tentativas (RETRY_DELAYS_MS), sem nenhuma thread esperando.
+ * Minhas decisões:
+ * - Um nível por atraso, com backoff exponencial por configuração (padrão 1 s, 10 s, 60 s). Cada nível é um
+ *   exchange direct products.retry.<ms> e, por tipo, uma fila products.typeA.retry.<ms> com x-message-ttl
+ *   igual ao atraso e x-dead-letter-exchange = products. Ninguém consome essas filas: quando o TTL vence, o
+ *   broker devolve a mensagem ao exchange principal.
+ * - A fila de espera é ligada pelas mesmas routing keys do tipo (todas as dos shards) e o dead-letter não
+ *   troca a chave, então a mensagem volta exatamente ao shard de onde saiu.
+ * - Todas as mensagens de uma fila de espera têm o mesmo TTL, então expiram na ordem em que entraram (o
+ *   broker só expira pela cabeça da fila; TTLs diferentes numa fila só travariam as de trás).
+ * - O atraso faz parte do nome: processos com RETRY_DELAYS_MS diferentes declaram filas diferentes, em vez
+ *   de falharem ao redeclarar uma fila com outro TTL.
+ * - O número da tentativa viaja no cabeçalho x-retry-count; esgotados os níveis, a mensagem vai para a fila
+ *   de estacionamento (products.parking), que ninguém consome: fica para inspeção e reprocessamento manual.
+ *   Com RETRY_DELAYS_MS=off não há níveis e uma falha vai direto para o estacionamento.
+ */
+public final class Retries { // Classe utilitária (somente métodos estáticos)
+    /** Cabeçalho com quantas tentativas já falharam. */
+    public static final String HEADER_RETRY_COUNT = "x-retry-count";
+    /** Cabeçalho com o erro da última falha (resumido). */
+    public static final String HEADER_LAST_ERROR = "x-last-error";
+
+    private static final long[] DELAYS = AppConfig.getRetryDelaysMillis();
+    private static final int MAX_ERROR_CHARS = 256;
+
+    private Retries() { /* Impede instanciação */ }
+
+    /** Quantos níveis de nova tentativa existem (0 = retry desligado). */
+    public static int tiers() {
+        return DELAYS.length;
+    }
+
+    /** Atraso (ms) do nível. */
+    public static long delayMillis(int tier) {
+        return DELAYS[tier];
+    }
+
+    /** Exchange do nível (publica-se nele com a routing key original do item). */
+    public static String exchange(int tier) {
+        return MessagingConstants.EXCHANGE_RETRY_PREFIX + DELAYS[tier];
+    }
+
+    /** Fila de espera do tipo no nível. */
+    public static String queue(ProductType type, int tier) {
+        return type.queue() + ".retry." + DELAYS[tier];
+    }
+
+    /** Argumentos da fila de espera: TTL do nível e retorno ao exchange principal quando vencer. */
+    static Map<String, Object> queueArguments(int tier) {
+        return Map.of("x-message-ttl", DELAYS[tier], "x-dead-letter-exchange", MessagingConstants.EXCHANGE_PRODUCTS);
+    }
+
+    /** Tentativas anteriores lidas dos cabeçalhos de uma entrega (0 sem o cabeçalho). */
+    public static int retryCount(Map<String, Object> headers) {
+        Object v = headers != null ? headers.get(HEADER_RETRY_COUNT) : null;
+        return v instanceof Number ? ((Number) v).intValue() : 0;
+    }
+
+    /** Texto curto do erro para o cabeçalho x-last-error. */
+    public static String describe(Throwable error) {
+        String text = String.valueOf(error);
+        return text.length() > MAX_ERROR_CHARS ? text.substring(0, MAX_ERROR_CHARS) : text;
+    }
+}
@@ -0,0 +1,92 @@
+package com.trabalho.finalpc.common.messaging.rabbit; // Infraestrutura RabbitMQ compartilhada
+
+import com.trabalho.finalpc.common.ProductMessage;     // Id em bits (sem montar o texto do UUID)
+import com.trabalho.finalpc.common.ProductType;        // Nomes base de filas/rk (registro de tipos)
+import com.trabalho.finalpc.common.config.AppConfig;   // SHARDS_PER_TYPE
+
+import java.util.UUID;
+
+/**
+ * Nomes das filas/routing keys de cada tipo quando ele é dividido em K shards (SHARDS_PER_TYPE).
+ * Minhas decisões:
+ * - K = 1 (padrão) mantém os nomes do registro (products.typeA, typeA...): nada muda para quem não usa.
+ * - K > 1: filas products.typeA.0..K-1 ligadas ao mesmo exchange direct pelas chaves typeA.0..K-1.
+ *   Cada fila é um processo (e um núcleo) no broker, então a vazão de um tipo passa a escalar com K.
+ * - O produtor escolhe o shard com hash do itemId no cliente (não exige o plugin de consistent hash);
+ *   os ids já são bem distribuídos, e a mistura de bits evita viés do hashCode de String.
+ * - O hash é dos 128 bits do UUID: com o id em bits (hasIdBits) o texto nunca é montado, e um itemId em
+ *   texto no formato UUID cai no mesmo shard (produtor e consumidor concordam qualquer que seja o codec).
+ *   Só ids que não são UUID (arquivos de carga) usam o hashCode do texto. Com K = 1 nada é calculado.
+ * - Tabelas pré-calculadas (índice = ordinal do tipo): publicar não monta Strings.
+ * - Todos os produtores e consumidores precisam usar o mesmo K.
+ */
+public final class Shards { // Classe utilitária (somente métodos estáticos)
+    private static final int COUNT = AppConfig.getShardsPerType();
+    private static final String[][] QUEUES = table(true);
+    private static final String[][] ROUTING_KEYS = table(false);
+
+    private Shards() { /* Impede instanciação */ }
+
+    /** Número de shards por tipo (K). */
+    public static int count() {
+        return COUNT;
+    }
+
+    /** Todas as filas do tipo (uma por shard). Não altere o array devolvido. */
+    public static String[] queues(ProductType type) {
+        return QUEUES[type.ordinal()];
+    }
+
+    /** Fila do shard do tipo. */
+    public static String queue(ProductType type, int shard) {
+        return QUEUES[type.ordinal()][shard];
+    }
+
+    /** Todas as routing keys do tipo (uma por shard). Não altere o array devolvido. */
+    public static String[] routingKeys(ProductType type) {
+        return ROUTING_KEYS[type.ordinal()];
+    }
+
+    /** Routing key do shard do tipo. */
+    public static String routingKey(ProductType type, int shard) {
+        return ROUTING_KEYS[type.ordinal()][shard];
+    }
+
+    /** Shard da mensagem (sempre 0 com K = 1); usa os bits do id quando disponíveis. */
+    public static int shardFor(ProductMessage message) {
+        if (COUNT == 1) return 0; // Nem olha o id
+        if (message.hasIdBits()) return mix(Long.hashCode(message.getIdMsb() ^ message.getIdLsb()));
+        return shardFor(message.getItemId());
+    }
+
+    /** Shard de um item, pelo hash do itemId (sempre 0 com K = 1). */
+    public static int shardFor(String itemId) {
+        if (COUNT == 1 || itemId == null) return 0;
+        if (itemId.length() == 36 && itemId.charAt(8) == '-') { // Formato de UUID: mesmo hash que os bits
+            try {
+                UUID id = UUID.fromString(itemId);
+                return mix(Long.hashCode(id.getMostSignificantBits() ^ id.getLeastSignificantBits()));
+            } catch (IllegalArgumentException e) {
+                // Não é UUID afinal: segue pelo texto
+            }
+        }
+        return mix(itemId.hashCode());
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9; // Espalha os bits (hash multiplicativo de Fibonacci)
+        return Math.floorMod(h ^ (h >>> 16), COUNT);
+    }
+
+    private static String[][] table(boolean queues) {
+        ProductType[] types = ProductType.values();
+        String[][] t = new String[types.length][COUNT];
+        for (ProductType type : types) {
+            String base = queues ? type.queue() : type.routingKey();
+            for (int shard = 0; shard < COUNT; shard++) {
+                t[type.ordinal()][shard] = COUNT == 1 ? base : base + "." + shard;
+            }
+        }
+        return t;
+    }
+}
@@ -0,0 +1,63 @@
+package com.trabalho.finalpc.common.messaging.rabbit; // Infraestrutura RabbitMQ compartilhada
+
+import com.rabbitmq.client.Channel;
+import com.trabalho.finalpc.common.MessagingConstants; // Nome do exchange
+import com.trabalho.finalpc.common.ProductType;
+import com.trabalho.finalpc.common.config.AppConfig; // QUEUE_MAX_PRIORITY
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Declaração da topologia (exchange products, a fila de cada tipo registrado — ou seus shards — e bindings),
+ * uma vez por processo, numa única passada pelo registro de tipos.
+ * Minhas decisões:
+ * - As declarações são idempotentes, mas cada uma é um round trip: antes cada publicador/assinante (e cada
+ *   faixa) repetia todas. Agora o primeiro a chegar declara e os demais só checam um volatile.
+ * - Se a declaração falhar, o próximo chamador tenta de novo (a flag só vira true no sucesso).
+ * - Com QUEUE_MAX_PRIORITY > 0 as filas de trabalho são declaradas com x-max-priority. O broker não muda os
+ *   argumentos de uma fila existente (a declaração falha com PRECONDITION_FAILED), então ligar/desligar exige
+ *   apagar as filas antes; por isso é opcional.
+ * - Também declaro o exchange e a fila de mensagens mortas (itens vencidos desviados pelo consumidor) e, com
+ *   retry ligado, os níveis de espera; o estacionamento é declarado sempre (ver Retries).
+ * - Depois de uma queda, a recuperação automática do cliente (topology recovery) redeclara o que foi
+ *   declarado pelas conexões do pool; não é preciso chamar de novo.
+ */
+public final class Topology { // Classe utilitária (somente métodos estáticos)
+    private static volatile boolean declared;
+
+    private Topology() { /* Impede instanciação */ }
+
+    /** Declara a topologia no canal informado, se este processo ainda não a declarou. */
+    public static void ensureDeclared(Channel channel) throws IOException {
+        if (declared) return;
+        synchronized (Topology.class) {
+            if (declared) return;
+            channel.exchangeDeclare(MessagingConstants.EXCHANGE_PRODUCTS, "direct", true); // exchange durável
+            int maxPriority = AppConfig.getQueueMaxPriority();
+            Map<String, Object> args = maxPriority > 0 ? Map.of("x-max-priority", maxPriority) : null;
+            for (ProductType type : ProductType.values()) {
+                for (int shard = 0; shard < Shards.count(); shard++) {
+                    String queue = Shards.queue(type, shard);
+                    channel.queueDeclare(queue, true, false, false, args); // filas duráveis
+                    channel.queueBind(queue, MessagingConstants.EXCHANGE_PRODUCTS, Shards.routingKey(type, shard));
+                }
+            }
+            channel.exchangeDeclare(MessagingConstants.EXCHANGE_DEAD_LETTER, "fanout", true);
+            channel.queueDeclare(MessagingConstants.QUEUE_DEAD_LETTER, true, false, false, null);
+            channel.queueBind(MessagingConstants.QUEUE_DEAD_LETTER, MessagingConstants.EXCHANGE_DEAD_LETTER, "");
+            for (int tier = 0; tier < Retries.tiers(); tier++) {
+                channel.exchangeDeclare(Retries.exchange(tier), "direct", true);
+                for (ProductType type : ProductType.values()) {
+                    String queue = Retries.queue(type, tier); // Sem consumidores: o TTL devolve ao exchange principal
+                    channel.queueDeclare(queue, true, false, false, Retries.queueArguments(tier));
+                    for (String routingKey : Shards.routingKeys(type)) channel.queueBind(queue, Retries.exchange(tier), routingKey);
+                }
+            }
+            channel.exchangeDeclare(MessagingConstants.EXCHANGE_PARKING, "fanout", true); // Também com retry desligado
+            channel.queueDeclare(MessagingConstants.QUEUE_PARKING, true, false, false, null);
+            channel.queueBind(MessagingConstants.QUEUE_PARKING, MessagingConstants.EXCHANGE_PARKING, "");
+            declared = true;
+        }
+    }
+}
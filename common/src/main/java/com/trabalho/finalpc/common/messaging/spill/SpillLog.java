@@ -0,0 +1,260 @@
+package com.trabalho.finalpc.common.messaging.spill; // Spill em disco do produtor
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;              // Segmentos e checkpoint mapeados em memória
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;                    // Detecta registros rasgados por uma queda no meio da escrita
+
+/**
+ * Log append-only em disco (write-ahead) com os registros que ainda não chegaram ao broker.
+ * Formato:
+ * - Segmentos de tamanho fixo spill-&lt;seq&gt;.seg, mapeados em memória (append = cópia para o mapa, sem syscall).
+ * - Registro: int tamanho + int CRC32 + bytes. Tamanho 0 = fim dos dados gravados (o mapa nasce zerado);
+ *   -1 = segmento selado (o próximo registro não cabia e foi para o segmento seguinte).
+ * - Arquivo checkpoint (também mapeado): seq do segmento + posição do próximo registro a reenviar.
+ * Minhas decisões:
+ * - Durabilidade em lote: force() grava segmento ativo e checkpoint; quem usa chama periodicamente
+ *   (SPILL_FSYNC_MS) em vez de um fsync por mensagem. Segmentos selados são gravados na hora.
+ * - Na abertura eu retomo do checkpoint e acho o fim dos dados varrendo os registros; um CRC inválido
+ *   (escrita interrompida) encerra o segmento ali.
+ * - Compactação: segmentos já reenviados são apagados ao passar para o próximo, e quando o leitor alcança
+ *   o escritor com o segmento ativo ao menos 1/4 usado, começo um segmento novo e apago o antigo.
+ * - Um único leitor (quem reenvia) e vários escritores; todos os métodos são sincronizados na instância.
+ *   O leitor pega um trecho com peek(max), sem consumi-lo, e só chama advance(n) para os n primeiros depois
+ *   que o broker os confirmou: vários registros ficam em voo sem que o checkpoint passe à frente deles.
+ * - Entrega at-least-once: se o processo cair entre o reenvio e o avanço do checkpoint, o registro volta.
+ */
+public class SpillLog implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(SpillLog.class);
+    private static final int HEADER = 8;          // int tamanho + int CRC32
+    private static final int SEALED = -1;         // Marcador de fim de segmento
+    private static final String PREFIX = "spill-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>(); // Do mais antigo (leitor) ao ativo (escritor)
+    private final FileChannel checkpointFile;
+    private final MappedByteBuffer checkpoint;    // long seq + int posição
+    private int writePos;                         // No segmento ativo
+    private int readPos;                          // No segmento mais antigo
+    private long pending;                         // Registros ainda não reenviados
+    private boolean dirty;                        // Há escrita desde o último force()
+
+    private SpillLog(Path dir, int segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.checkpointFile = FileChannel.open(dir.resolve("checkpoint"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.checkpoint = checkpointFile.map(FileChannel.MapMode.READ_WRITE, 0, 12);
+    }
+
+    /** Abre (ou cria) o log no diretório, retomando o que ficou pendente na execução anterior. */
+    public static SpillLog open(Path dir, int segmentBytes) throws IOException {
+        Files.createDirectories(dir);
+        SpillLog spill = new SpillLog(dir, segmentBytes);
+        spill.recover();
+        return spill;
+    }
+
+    private void recover() throws IOException {
+        long checkpointSeq = checkpoint.getLong(0);
+        int checkpointPos = checkpoint.getInt(8);
+        for (long seq : listSegments()) {
+            if (seq < checkpointSeq) {
+                Files.deleteIfExists(segmentPath(seq)); // Já reenviado (apagado antes de uma queda)
+            } else {
+                segments.addLast(openSegment(seq));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.addLast(openSegment(Math.max(checkpointSeq, 0)));
+            saveCheckpoint();
+            return;
+        }
+        readPos = segments.peekFirst().seq == checkpointSeq ? checkpointPos : 0;
+        for (Segment segment : segments) {
+            int pos = segment == segments.peekFirst() ? readPos : 0;
+            while (true) {
+                int length = recordAt(segment, pos);
+                if (length <= 0) break;
+                pending++;
+                pos += HEADER + length;
+            }
+            if (segment == segments.peekLast()) writePos = pos;
+        }
+        saveCheckpoint();
+        if (pending > 0) log.info("[SpillLog] {} registro(s) pendente(s) em {} retomados", pending, dir);
+    }
+
+    /** Acrescenta um registro ao fim do log (durável após o próximo force()). */
+    public synchronized void append(byte[] payload) throws IOException {
+        int need = HEADER + payload.length;
+        if (need + 4 > segmentBytes) throw new IOException("Registro de " + payload.length + " bytes não cabe num segmento");
+        Segment active = segments.peekLast();
+        if (writePos + need + 4 > segmentBytes) { // Sempre sobra espaço para o marcador de selo
+            active.map.putInt(writePos, SEALED);
+            active.map.force();                    // Segmento completo: durável já
+            active = openSegment(active.seq + 1);
+            segments.addLast(active);
+            writePos = 0;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        active.map.put(writePos + HEADER, payload, 0, payload.length);
+        active.map.putInt(writePos + 4, (int) crc.getValue());
+        active.map.putInt(writePos, payload.length); // Por último: o registro só “existe” com tudo gravado
+        writePos += need;
+        pending++;
+        dirty = true;
+    }
+
+    /** Até max próximos registros a reenviar, em ordem e sem consumi-los (vazio se não há pendentes). */
+    public synchronized List<byte[]> peek(int max) {
+        List<byte[]> records = new ArrayList<>((int) Math.min(max, pending));
+        Segment last = segments.peekLast();
+        for (Segment segment : segments) {
+            int pos = segment == segments.peekFirst() ? readPos : 0;
+            int end = segment == last ? writePos : segmentBytes;
+            while (records.size() < max && pos < end) {
+                int length = recordAt(segment, pos);
+                if (length <= 0) break; // Fim (ou resto inválido) de um segmento antigo: segue para o próximo
+                byte[] payload = new byte[length];
+                segment.map.get(pos + HEADER, payload, 0, length);
+                records.add(payload);
+                pos += HEADER + length;
+            }
+            if (records.size() >= max) break;
+        }
+        return records;
+    }
+
+    /** Confirma os count primeiros registros pendentes (os primeiros do último peek): não serão reenviados de novo. */
+    public synchronized void advance(int count) throws IOException {
+        if (count > pending) throw new IllegalStateException("advance além dos registros pendentes");
+        for (int i = 0; i < count; i++) {
+            int length;
+            while ((length = recordAt(segments.peekFirst(), readPos)) <= 0) {
+                dropHead(); // Fim de um segmento antigo (o ativo sempre tem o registro: count <= pending)
+            }
+            readPos += HEADER + length;
+            pending--;
+        }
+        Segment head = segments.peekFirst();
+        if (head == segments.peekLast() && readPos >= writePos && writePos >= segmentBytes / 4) {
+            segments.addLast(openSegment(head.seq + 1)); // Leitor alcançou o escritor: recomeça num segmento novo
+            writePos = 0;
+            dropHead();
+        } else {
+            saveCheckpoint();
+        }
+        dirty = true;
+    }
+
+    /** Registros ainda não reenviados. */
+    public synchronized long pending() {
+        return pending;
+    }
+
+    public synchronized boolean isEmpty() {
+        return pending == 0;
+    }
+
+    /** Grava em disco o segmento ativo e o checkpoint, se algo mudou desde a última chamada. */
+    public synchronized void force() {
+        if (!dirty) return;
+        segments.peekLast().map.force();
+        checkpoint.force();
+        dirty = false;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        for (Segment segment : segments) segment.file.close();
+        checkpointFile.close();
+    }
+
+    // Tamanho do registro na posição, ou <= 0 se ali não há registro válido
+    private int recordAt(Segment segment, int pos) {
+        if (pos + HEADER > segmentBytes) return 0;
+        int length = segment.map.getInt(pos);
+        if (length <= 0) return length;
+        if (pos + HEADER + length > segmentBytes) return 0;
+        byte[] payload = new byte[length];
+        segment.map.get(pos + HEADER, payload, 0, length);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != segment.map.getInt(pos + 4)) {
+            log.warn("[SpillLog] Registro inválido em {} posição {} (escrita interrompida); ignorando o resto do segmento",
+                    segmentPath(segment.seq).getFileName(), pos);
+            return 0;
+        }
+        return length;
+    }
+
+    // Apaga o segmento mais antigo (já reenviado por completo)
+    private void dropHead() throws IOException {
+        Segment head = segments.pollFirst();
+        readPos = 0;
+        saveCheckpoint(); // Checkpoint aponta para o próximo antes de apagar
+        checkpoint.force();
+        head.file.close();
+        Files.deleteIfExists(segmentPath(head.seq));
+    }
+
+    private void saveCheckpoint() {
+        checkpoint.putLong(0, segments.peekFirst().seq);
+        checkpoint.putInt(8, readPos);
+    }
+
+    private Segment openSegment(long seq) throws IOException {
+        FileChannel file = FileChannel.open(segmentPath(seq),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(seq, file, file.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes)); // Estende com zeros
+    }
+
+    private Path segmentPath(long seq) {
+        return dir.resolve(PREFIX + String.format("%020d", seq) + SUFFIX);
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> seqs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    seqs.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                    // Arquivo com nome parecido que não é nosso
+                }
+            }
+        }
+        Collections.sort(seqs);
+        return seqs;
+    }
+
+    /** Um arquivo de segmento aberto e mapeado. */
+    private static final class Segment {
+        final long seq;
+        final FileChannel file;
+        final MappedByteBuffer map;
+
+        Segment(long seq, FileChannel file, MappedByteBuffer map) {
+            this.seq = seq;
+            this.file = file;
+            this.map = map;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.trabalho.finalpc.common.messaging.spill; // Spill em disco do produtor
+
+import com.trabalho.finalpc.common.ProductMessage;
+import com.trabalho.finalpc.common.ProductType;
+import com.trabalho.finalpc.common.messaging.MessagePublisher;
+import com.trabalho.finalpc.common.messaging.QueueStats;            // Repassa a medição do adaptador real
+import com.trabalho.finalpc.common.metrics.Metrics;                 // Gauge de mensagens no spill
+import com.trabalho.finalpc.common.serialization.ByteCodec;
+import com.trabalho.finalpc.common.serialization.ProductMessageCodecs; // Registros gravados no formato binário
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;                 // Fábrica do adaptador real (reconexão)
+import java.util.concurrent.CompletableFuture;        // Confirmação do broker de cada publicação
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService; // Reenvio e fsync em segundo plano
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Decorador que nunca perde nem trava a produção por causa do broker: quando o adaptador real falha
+ * (ou está lento), as mensagens vão para um SpillLog em disco e uma thread de fundo as reenvia, em ordem,
+ * assim que o broker volta.
+ * Minhas decisões:
+ * - Caminho normal (spill vazio): publica direto no adaptador, sem custo extra.
+ * - Um erro, ou uma publicação mais lenta que slowMillis, liga o modo spill: dali em diante tudo vai para o
+ *   log (inclusive o que chegar durante o reenvio), preservando a ordem. Quando o reenvio alcança o fim do
+ *   log, o modo desliga e as publicações voltam a ir direto.
+ * - O adaptador é criado pela fábrica: se ele não sobe (broker fora no início) ou falha várias vezes
+ *   seguidas, é fechado e recriado na próxima tentativa, a cada retryMillis.
+ * - Registros no codec binário (compactos e autossuficientes); fsync em lote a cada fsyncMillis.
+ * - Entregue é o que o broker confirmou (publishConfirmed), não o que entrou na janela do adaptador:
+ *   o reenvio põe um trecho do log em voo e só avança o checkpoint sobre o prefixo confirmado; o que ficou
+ *   sem confirmação continua no log e é reenviado (at-least-once, pode duplicar).
+ * - No caminho direto, cada publicação fica guardada (já codificada) até a confirmação. Se ela falhar, ou
+ *   se o adaptador for descartado (reconexão) ou fechado antes dela, a mensagem volta ao log, depois das
+ *   que já estavam lá.
+ * - Mensagens pendentes ao encerrar ficam no disco e são reenviadas na próxima execução (mesmo diretório).
+ */
+public class SpillingPublisher implements MessagePublisher, QueueStats {
+    private static final Logger log = LoggerFactory.getLogger(SpillingPublisher.class);
+    private static final int RECONNECT_AFTER_FAILURES = 3; // Falhas seguidas no reenvio antes de recriar o adaptador
+    private static final int RESEND_CHUNK = 256;            // Registros do log em voo antes de esperar as confirmações
+
+    private final SpillLog spill;
+    private final Callable<MessagePublisher> factory;
+    private final long slowNanos;
+    private final long confirmNanos;
+    private final ByteCodec<ProductMessage> codec = ProductMessageCodecs.binary();
+    private final ScheduledExecutorService background;
+    private final DoubleSupplier pendingGauge;
+    private final Object lock = new Object();      // Liga/desliga o modo spill junto com o append/peek
+    private final ConcurrentHashMap<CompletableFuture<Void>, byte[][]> unconfirmed = new ConcurrentHashMap<>(); // Caminho direto
+    private volatile MessagePublisher delegate;    // null = ainda não conectado (ou descartado após falhas)
+    private volatile boolean spilling;             // true = publicações vão para o log
+    private volatile boolean closed;               // Encerrando: o que volta ao log fica para a próxima execução
+    private int failures;                          // Só usado pela thread de reenvio
+
+    /**
+     * @param spill       log em disco (fechado junto com este publicador)
+     * @param factory     cria o adaptador real; chamada agora e a cada tentativa de reconexão
+     * @param retryMillis intervalo entre tentativas de reenvio/reconexão
+     * @param slowMillis  publicação mais lenta que isso liga o spill (0 = só erros)
+     * @param fsyncMillis intervalo entre fsyncs do log
+     * @param confirmMillis espera máxima pelas confirmações de um trecho reenviado
+     */
+    public SpillingPublisher(SpillLog spill, Callable<MessagePublisher> factory,
+                             long retryMillis, long slowMillis, long fsyncMillis, long confirmMillis) {
+        this.spill = spill;
+        this.factory = factory;
+        this.slowNanos = slowMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(slowMillis) : Long.MAX_VALUE;
+        this.confirmNanos = TimeUnit.MILLISECONDS.toNanos(confirmMillis);
+        this.delegate = connect();
+        this.spilling = !spill.isEmpty(); // Sobras da execução anterior saem antes das novas
+        this.background = Executors.newScheduledThreadPool(2, r -> { // Reenvio pode bloquear; o fsync não espera por ele
+            Thread t = new Thread(r, "spill");
+            t.setDaemon(true); // Não impede o encerramento da JVM
+            return t;
+        });
+        background.scheduleWithFixedDelay(this::drain, 0, retryMillis, TimeUnit.MILLISECONDS);
+        background.scheduleWithFixedDelay(spill::force, fsyncMillis, fsyncMillis, TimeUnit.MILLISECONDS);
+        this.pendingGauge = spill::pending;
+        Metrics.registerGauge("spill_pending", "", "Mensagens no spill em disco aguardando reenvio", pendingGauge);
+    }
+
+    @Override
+    public void publish(ProductType type, ProductMessage message) throws Exception {
+        MessagePublisher d = delegate;
+        if (!spilling && d != null) {
+            long start = System.nanoTime();
+            try {
+                track(d.publishConfirmed(type, message), List.of(message));
+                if (System.nanoTime() - start > slowNanos) startSpilling("broker lento", null);
+                return;
+            } catch (Exception e) {
+                startSpilling("falha ao publicar", e);
+            }
+        }
+        append(message);
+    }
+
+    @Override
+    public void publishBatch(List<ProductMessage> messages) throws Exception {
+        MessagePublisher d = delegate;
+        if (!spilling && d != null) {
+            long start = System.nanoTime();
+            try {
+                track(d.publishBatchConfirmed(messages), messages);
+                if (System.nanoTime() - start > slowNanos) startSpilling("broker lento", null);
+                return;
+            } catch (Exception e) {
+                startSpilling("falha ao publicar lote", e); // O lote inteiro vai para o log (pode duplicar parte dele)
+            }
+        }
+        for (ProductMessage m : messages) append(m);
+    }
+
+    // Grava no log e garante o modo spill, para que as próximas publicações não passem à frente desta
+    private void append(ProductMessage message) throws Exception {
+        byte[] record = codec.encode(message);
+        synchronized (lock) {
+            spill.append(record);
+            spilling = true;
+        }
+    }
+
+    // Guarda as mensagens até a confirmação; sem ela (falha ou adaptador descartado) voltam ao log
+    private void track(CompletableFuture<Void> confirmed, List<ProductMessage> messages) throws Exception {
+        if (confirmed.isDone() && !confirmed.isCompletedExceptionally()) return; // Adaptador sem confirms
+        byte[][] records = new byte[messages.size()][];
+        for (int i = 0; i < records.length; i++) records[i] = codec.encode(messages.get(i)); // O chamador pode reaproveitar a instância
+        unconfirmed.put(confirmed, records);
+        confirmed.whenComplete((ignored, error) -> {
+            if (error == null) unconfirmed.remove(confirmed);
+            else spillBack(confirmed, error);
+        });
+    }
+
+    // Devolve ao log as mensagens de uma publicação direta que não foi (ou não será mais) confirmada
+    private void spillBack(CompletableFuture<Void> confirmed, Throwable cause) {
+        byte[][] records = unconfirmed.remove(confirmed);
+        if (records == null) return; // Confirmada ou já devolvida
+        try {
+            synchronized (lock) {
+                for (byte[] record : records) spill.append(record);
+            }
+        } catch (IOException e) {
+            log.error("[SpillingPublisher] {} mensagem(ns) sem confirmação perdida(s): falha ao gravar no spill ({})",
+                    records.length, e.toString());
+            return;
+        }
+        if (!closed) startSpilling("sem confirmação do broker", cause instanceof Exception ex ? ex : new Exception(cause));
+    }
+
+    // Adaptador descartado: tudo que ele ainda não confirmou volta ao log
+    private void returnUnconfirmed(String reason) {
+        IOException cause = new IOException(reason);
+        for (CompletableFuture<Void> confirmed : unconfirmed.keySet()) spillBack(confirmed, cause);
+    }
+
+    private void startSpilling(String reason, Exception cause) {
+        synchronized (lock) {
+            if (spilling) return;
+            spilling = true;
+        }
+        log.warn("[SpillingPublisher] {}{}: desviando publicações para o spill em disco até o broker normalizar.",
+                reason, cause != null ? " (" + cause + ")" : "");
+    }
+
+    // Executado em segundo plano: (re)conecta se preciso e reenvia o log em ordem até esvaziar ou falhar
+    private void drain() {
+        if (!spilling) return;
+        MessagePublisher d = delegate;
+        if (d == null && (d = delegate = connect()) == null) return;
+        long resent = 0;
+        try {
+            while (true) {
+                List<byte[]> records;
+                synchronized (lock) {
+                    records = spill.peek(RESEND_CHUNK);
+                    if (records.isEmpty()) {
+                        spilling = false; // Alcançou o fim: publicações voltam a ir direto
+                        break;
+                    }
+                }
+                List<CompletableFuture<Void>> confirmations = new ArrayList<>(records.size());
+                Exception failure = null;
+                for (byte[] record : records) { // O trecho inteiro em voo; o broker confirma em paralelo
+                    ProductMessage message = codec.decode(record);
+                    try {
+                        confirmations.add(d.publishConfirmed(message.getType(), message));
+                    } catch (Exception e) {
+                        failure = e; // O que já saiu ainda pode ser confirmado
+                        break;
+                    }
+                }
+                int confirmed = 0;
+                try {
+                    long deadline = System.nanoTime() + confirmNanos;
+                    for (CompletableFuture<Void> c : confirmations) {
+                        c.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                        confirmed++;
+                    }
+                } finally {
+                    if (confirmed > 0) spill.advance(confirmed); // Checkpoint só passa do que o broker confirmou
+                    resent += confirmed;
+                }
+                if (failure != null) throw failure;
+            }
+            failures = 0;
+            if (resent > 0) log.info("[SpillingPublisher] Spill esvaziado: {} mensagem(ns) reenviada(s).", resent);
+        } catch (Exception e) {
+            log.warn("[SpillingPublisher] Reenvio interrompido após {} mensagem(ns) ({} pendentes): {}",
+                    resent, spill.pending(), e.toString());
+            if (++failures >= RECONNECT_AFTER_FAILURES) { // Adaptador provavelmente inutilizável: recria
+                failures = 0;
+                delegate = null;
+                try { d.close(); } catch (Exception ignored) {}
+                returnUnconfirmed("adaptador descartado antes da confirmação");
+            }
+        }
+    }
+
+    private MessagePublisher connect() {
+        try {
+            return factory.call();
+        } catch (Exception e) {
+            log.warn("[SpillingPublisher] Broker indisponível ({}). Mensagens ficam no spill até a reconexão.", e.toString());
+            return null;
+        }
+    }
+
+    @Override
+    public long depth(ProductType type) {
+        MessagePublisher d = delegate;
+        return d instanceof QueueStats ? ((QueueStats) d).depth(type) : -1;
+    }
+
+    @Override
+    public int consumers(ProductType type) {
+        MessagePublisher d = delegate;
+        return d instanceof QueueStats ? ((QueueStats) d).consumers(type) : -1;
+    }
+
+    @Override
+    public void close() throws Exception {
+        closed = true;
+        background.shutdownNow();
+        try {
+            background.awaitTermination(5, TimeUnit.SECONDS); // Deixa o reenvio em curso terminar o registro atual
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Metrics.unregisterGauge("spill_pending", "", pendingGauge);
+        MessagePublisher d = delegate;
+        try {
+            if (d != null) d.close(); // Espera as últimas confirmações; o resto falha e volta ao log
+        } finally {
+            returnUnconfirmed("adaptador fechado antes da confirmação");
+            long left = spill.pending();
+            spill.close(); // fsync final
+            if (left > 0) log.info("[SpillingPublisher] {} mensagem(ns) no spill serão reenviadas na próxima execução.", left);
+        }
+    }
+}
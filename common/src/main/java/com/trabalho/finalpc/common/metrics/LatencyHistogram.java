@@ -0,0 +1,91 @@
+package com.trabalho.finalpc.common.metrics; // Métricas de produtores/consumidores
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray; // Um contador por faixa de valores
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma log-linear (mesma ideia do HdrHistogram) com gravação sem locks.
+ * Minhas decisões:
+ * - Valores em microssegundos. Até 16 são exatos; acima disso cada potência de 2 é dividida em 16 faixas
+ *   iguais, então o erro relativo de qualquer percentil fica abaixo de 6,25% em toda a escala (µs a dias).
+ * - record() é um incremento atômico em um slot fixo (índice calculado com numberOfLeadingZeros),
+ *   sem alocação nem lock: pode ser chamado no loop quente por várias threads.
+ * - A leitura (percentis/buckets) percorre os slots sem parar os escritores; o resultado é um retrato
+ *   aproximado, suficiente para exposição periódica.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4;                  // 2^4 = 16 faixas por potência de 2
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int SLOTS = SUB_COUNT + (64 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(SLOTS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /** Registra um valor em microssegundos (negativos, ex.: relógios fora de sincronia, contam como 0). */
+    public void record(long micros) {
+        long v = Math.max(0, micros);
+        counts.incrementAndGet(indexOf(v));
+        total.increment();
+        sum.add(v);
+        if (v > max.get()) max.accumulateAndGet(v, Math::max); // Só disputa quando é um novo máximo
+    }
+
+    /** Registra uma duração medida com System.nanoTime(). */
+    public void recordNanos(long nanos) {
+        record(nanos / 1_000);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    /** Soma dos valores registrados (µs). */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /** Maior valor registrado (µs). */
+    public long max() {
+        return max.get();
+    }
+
+    /** Percentil aproximado (q entre 0 e 1) em µs; 0 se vazio. */
+    public long percentile(double q) {
+        long n = count();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), max());
+        }
+        return max();
+    }
+
+    /** Quantidade de valores menores ou iguais a {@code micros} (para buckets cumulativos do Prometheus). */
+    public long countAtOrBelow(long micros) {
+        long c = 0;
+        for (int i = 0; i < SLOTS && upperBound(i) <= micros; i++) c += counts.get(i);
+        return c;
+    }
+
+    static int indexOf(long v) {
+        if (v < SUB_COUNT) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);            // Potência de 2 (>= SUB_BITS)
+        int sub = (int) ((v >>> (exp - SUB_BITS)) & (SUB_COUNT - 1));
+        return SUB_COUNT + (exp - SUB_BITS) * SUB_COUNT + sub;
+    }
+
+    // Maior valor que cai no slot i
+    static long upperBound(int i) {
+        if (i < SUB_COUNT) return i;
+        int k = i - SUB_COUNT;
+        int shift = k / SUB_COUNT;                               // exp - SUB_BITS
+        if (shift >= 59) return Long.MAX_VALUE;                  // Últimas faixas: evita overflow
+        long lower = (long) (SUB_COUNT + k % SUB_COUNT) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
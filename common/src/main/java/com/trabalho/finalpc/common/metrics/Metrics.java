@@ -0,0 +1,243 @@
+package com.trabalho.finalpc.common.metrics; // Métricas de produtores/consumidores
+
+import com.trabalho.finalpc.common.ProductMessage; // timestamp de criação (latência fim a fim)
+import com.trabalho.finalpc.common.ProductType;    // Rótulo type das métricas
+import com.trabalho.finalpc.common.Timing;         // Relógio configurado (real ou virtual) para as latências
+
+import java.math.BigDecimal; // Limites dos buckets sem notação científica
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList; // Fontes de um gauge (leitura frequente, escrita rara)
+import java.util.concurrent.atomic.LongAdder;     // Contadores sem contenção entre threads
+import java.util.function.DoubleSupplier;
+
+/**
+ * Eu centralizo aqui as métricas do processo (produtor ou consumidor), no formato de texto do Prometheus.
+ * Minhas decisões:
+ * - Fachada estática (como Timing/ItemIds): os serviços registram com uma chamada, sem injetar um registro.
+ * - Contadores por tipo em LongAdder e histogramas em LatencyHistogram (índice = ordinal do ProductType):
+ *   nenhuma gravação usa lock, então instrumentar o loop quente custa poucos nanossegundos.
+ * - Latências:
+ *   publish = duração da chamada publish; fila = recebimento - timestamp da mensagem;
+ *   consumo = processamento + acknowledge; fim a fim = conclusão - timestamp da mensagem.
+ *   As duas baseadas no timestamp dependem dos relógios de produtor e consumidor estarem sincronizados.
+ * - Gauges são lidos só na coleta (DoubleSupplier); várias fontes com o mesmo nome/rótulos são somadas
+ *   (ex.: um RabbitPublisher por faixa de produção).
+ */
+public final class Metrics { // Classe utilitária (somente métodos estáticos)
+    private static final String PREFIX = "finalpc_";
+    private static final ProductType[] TYPES = ProductType.values();
+    // Limites dos buckets exportados (µs): de 100 µs a 5 min, cobrindo ack local até fila parada
+    private static final long[] BUCKETS_MICROS = {
+            100, 500, 1_000, 5_000, 10_000, 50_000, 100_000, 250_000, 500_000,
+            1_000_000, 2_500_000, 5_000_000, 10_000_000, 30_000_000, 60_000_000, 300_000_000 };
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private static final LongAdder[] PUBLISHED = adders();
+    private static final LongAdder[] PUBLISH_FAILED = adders();
+    private static final LongAdder[] RECEIVED = adders();
+    private static final LongAdder[] CONSUMED = adders();
+    private static final LongAdder[] CONSUME_FAILED = adders();
+    private static final LongAdder[] EXPIRED = adders();         // Recebidas depois do prazo (não consumidas)
+    private static final LongAdder[] PUBLISH_RETRIED = adders();
+    private static final LongAdder[] CONSUME_RETRIED = adders();
+    private static final LongAdder[] PUBLISH_PARKED = adders();
+    private static final LongAdder[] CONSUME_PARKED = adders();
+    private static final LongAdder[] IN_FLIGHT = adders();       // Recebidas e ainda não concluídas
+    private static final LatencyHistogram[] PUBLISH_LATENCY = histograms();
+    private static final LatencyHistogram[] QUEUE_WAIT = histograms();
+    private static final LatencyHistogram[] CONSUME_TIME = histograms();
+    private static final LatencyHistogram[] END_TO_END = histograms();
+
+    private static final Map<String, Gauge> GAUGES = new ConcurrentHashMap<>(); // nome -> família
+
+    private Metrics() { /* Impede instanciação */ }
+
+    /** Uma publicação concluída e quanto tempo a chamada publish levou. */
+    public static void published(ProductType type, long elapsedNanos) {
+        PUBLISHED[type.ordinal()].increment();
+        PUBLISH_LATENCY[type.ordinal()].recordNanos(elapsedNanos);
+    }
+
+    public static void publishFailed(ProductType type) {
+        PUBLISH_FAILED[type.ordinal()].increment();
+    }
+
+    /** Uma mensagem recebida: passa a contar como em andamento e registra o tempo que esperou na fila. */
+    public static void received(ProductType type, ProductMessage message) {
+        RECEIVED[type.ordinal()].increment();
+        IN_FLIGHT[type.ordinal()].increment();
+        QUEUE_WAIT[type.ordinal()].record((Timing.currentTimeMillis() - message.getTimestamp()) * 1_000);
+    }
+
+    /** Consumo concluído (após o acknowledge): tempo de consumo e latência fim a fim. */
+    public static void consumed(ProductType type, ProductMessage message, long consumeNanos) {
+        CONSUMED[type.ordinal()].increment();
+        IN_FLIGHT[type.ordinal()].decrement();
+        CONSUME_TIME[type.ordinal()].recordNanos(consumeNanos);
+        END_TO_END[type.ordinal()].record((Timing.currentTimeMillis() - message.getTimestamp()) * 1_000);
+    }
+
+    /** Falha depois do recebimento (a mensagem deixa de contar como em andamento). */
+    public static void consumeFailed(ProductType type) {
+        CONSUME_FAILED[type.ordinal()].increment();
+        IN_FLIGHT[type.ordinal()].decrement();
+    }
+
+    /** Mensagem recebida depois do prazo e desviada sem consumo (não conta como recebida nem em andamento). */
+    public static void expired(ProductType type) {
+        EXPIRED[type.ordinal()].increment();
+    }
+
+    /** Publicação falha agendada para uma nova tentativa. */
+    public static void publishRetried(ProductType type) {
+        PUBLISH_RETRIED[type.ordinal()].increment();
+    }
+
+    /** Consumo falho devolvido a um nível de espera para uma nova tentativa. */
+    public static void consumeRetried(ProductType type) {
+        CONSUME_RETRIED[type.ordinal()].increment();
+    }
+
+    /** Publicação que esgotou as novas tentativas. */
+    public static void publishParked(ProductType type) {
+        PUBLISH_PARKED[type.ordinal()].increment();
+    }
+
+    /** Consumo que esgotou as novas tentativas e foi para o estacionamento. */
+    public static void consumeParked(ProductType type) {
+        CONSUME_PARKED[type.ordinal()].increment();
+    }
+
+    /**
+     * Registra uma fonte para o gauge {@code name} (sem o prefixo) com os rótulos já formatados
+     * (ex.: {@code type="TIPO_A"}, ou "" sem rótulos). Fontes repetidas do mesmo nome/rótulos são somadas.
+     */
+    public static void registerGauge(String name, String labels, String help, DoubleSupplier source) {
+        GAUGES.computeIfAbsent(name, n -> new Gauge(help)).sources
+                .computeIfAbsent(labels, l -> new CopyOnWriteArrayList<>()).add(source);
+    }
+
+    /** Remove uma fonte registrada (ex.: ao fechar o adaptador que a forneceu). */
+    public static void unregisterGauge(String name, String labels, DoubleSupplier source) {
+        Gauge gauge = GAUGES.get(name);
+        if (gauge == null) return;
+        List<DoubleSupplier> sources = gauge.sources.get(labels);
+        if (sources != null) sources.remove(source);
+    }
+
+    /** Retrato atual de todas as métricas no formato de texto do Prometheus (versão 0.0.4). */
+    public static String scrape() {
+        StringBuilder sb = new StringBuilder(8192);
+        counter(sb, "messages_published_total", "Mensagens publicadas", PUBLISHED);
+        counter(sb, "messages_received_total", "Mensagens recebidas", RECEIVED);
+        counter(sb, "messages_consumed_total", "Mensagens consumidas e confirmadas", CONSUMED);
+        counter(sb, "messages_expired_total", "Mensagens vencidas desviadas para a fila de mensagens mortas", EXPIRED);
+        staged(sb, "messages_failed_total", "Falhas de publicação ou consumo", PUBLISH_FAILED, CONSUME_FAILED);
+        staged(sb, "messages_retried_total", "Falhas enviadas para uma nova tentativa", PUBLISH_RETRIED, CONSUME_RETRIED);
+        staged(sb, "messages_parked_total", "Mensagens que esgotaram as novas tentativas", PUBLISH_PARKED, CONSUME_PARKED);
+        sb.append("# HELP ").append(PREFIX).append("messages_in_flight Mensagens recebidas ainda em consumo\n");
+        sb.append("# TYPE ").append(PREFIX).append("messages_in_flight gauge\n");
+        for (ProductType type : TYPES) sample(sb, "messages_in_flight", typeLabel(type), IN_FLIGHT[type.ordinal()].sum());
+        histogram(sb, "publish_latency_seconds", "Duração da chamada publish", PUBLISH_LATENCY);
+        histogram(sb, "queue_wait_seconds", "Tempo entre a criação e o recebimento da mensagem", QUEUE_WAIT);
+        histogram(sb, "consume_time_seconds", "Tempo de consumo (processamento + acknowledge)", CONSUME_TIME);
+        histogram(sb, "end_to_end_latency_seconds", "Tempo entre a criação e a conclusão do consumo", END_TO_END);
+        for (Map.Entry<String, Gauge> e : GAUGES.entrySet()) {
+            sb.append("# HELP ").append(PREFIX).append(e.getKey()).append(' ').append(e.getValue().help).append('\n');
+            sb.append("# TYPE ").append(PREFIX).append(e.getKey()).append(" gauge\n");
+            for (Map.Entry<String, List<DoubleSupplier>> s : e.getValue().sources.entrySet()) {
+                double v = 0;
+                for (DoubleSupplier source : s.getValue()) v += source.getAsDouble();
+                sample(sb, e.getKey(), s.getKey(), v);
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Rótulo padrão de tipo, no formato usado por scrape() e por registerGauge. */
+    public static String typeLabel(ProductType type) {
+        return "type=\"" + type + "\"";
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, LongAdder[] perType) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(" counter\n");
+        for (ProductType type : TYPES) sample(sb, name, typeLabel(type), perType[type.ordinal()].sum());
+    }
+
+    // Contador por tipo e etapa (stage="publish"/"consume")
+    private static void staged(StringBuilder sb, String name, String help, LongAdder[] publish, LongAdder[] consume) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(" counter\n");
+        for (ProductType type : TYPES) {
+            sample(sb, name, typeLabel(type) + ",stage=\"publish\"", publish[type.ordinal()].sum());
+            sample(sb, name, typeLabel(type) + ",stage=\"consume\"", consume[type.ordinal()].sum());
+        }
+    }
+
+    // Histograma cumulativo (buckets le em segundos) + percentis calculados no processo em um gauge à parte
+    private static void histogram(StringBuilder sb, String name, String help, LatencyHistogram[] perType) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(" histogram\n");
+        for (ProductType type : TYPES) {
+            LatencyHistogram h = perType[type.ordinal()];
+            long count = h.count();
+            for (long le : BUCKETS_MICROS) {
+                sample(sb, name + "_bucket", typeLabel(type) + ",le=\"" + seconds(le) + "\"", h.countAtOrBelow(le));
+            }
+            sample(sb, name + "_bucket", typeLabel(type) + ",le=\"+Inf\"", count);
+            sample(sb, name + "_sum", typeLabel(type), h.sum() / 1e6);
+            sample(sb, name + "_count", typeLabel(type), count);
+        }
+        String quantiles = name.replace("_seconds", "_quantile_seconds");
+        sb.append("# HELP ").append(PREFIX).append(quantiles).append(' ').append(help).append(" (percentis)\n");
+        sb.append("# TYPE ").append(PREFIX).append(quantiles).append(" gauge\n");
+        for (ProductType type : TYPES) {
+            for (double q : QUANTILES) {
+                sample(sb, quantiles, typeLabel(type) + ",quantile=\"" + q + "\"", perType[type.ordinal()].percentile(q) / 1e6);
+            }
+        }
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, double value) {
+        sb.append(PREFIX).append(name);
+        if (!labels.isEmpty()) sb.append('{').append(labels).append('}');
+        sb.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            sb.append((long) value);
+        } else {
+            sb.append(String.format(Locale.US, "%.6f", value));
+        }
+        sb.append('\n');
+    }
+
+    // 100 µs -> "0.0001", 1 s -> "1"
+    private static String seconds(long micros) {
+        return BigDecimal.valueOf(micros, 6).stripTrailingZeros().toPlainString();
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] a = new LongAdder[TYPES.length];
+        for (int i = 0; i < a.length; i++) a[i] = new LongAdder();
+        return a;
+    }
+
+    private static LatencyHistogram[] histograms() {
+        LatencyHistogram[] h = new LatencyHistogram[TYPES.length];
+        for (int i = 0; i < h.length; i++) h[i] = new LatencyHistogram();
+        return h;
+    }
+
+    /** Família de gauge: ajuda + fontes por conjunto de rótulos. */
+    private static final class Gauge {
+        final String help;
+        final Map<String, List<DoubleSupplier>> sources = new ConcurrentHashMap<>();
+
+        Gauge(String help) {
+            this.help = help;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.trabalho.finalpc.common.metrics; // Métricas de produtores/consumidores
+
+import com.sun.net.httpserver.HttpExchange; // Servidor HTTP embutido no JDK (sem dependência extra)
+import com.sun.net.httpserver.HttpServer;
+import com.trabalho.finalpc.common.config.AppConfig; // METRICS_PORT
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Endpoint HTTP mínimo que expõe Metrics.scrape() em /metrics para o Prometheus (ou um curl).
+ * Minhas decisões:
+ * - Uso o com.sun.net.httpserver do próprio JDK: nenhuma dependência nova e poucos KB de memória.
+ * - Uma thread (daemon) atende as coletas; o cálculo acontece só na coleta, nunca no loop quente.
+ * - A thread de despacho do HttpServer não é daemon, então quem inicia o servidor deve fechá-lo ao terminar.
+ */
+public final class MetricsServer implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(MetricsServer.class);
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8"; // Formato de texto do Prometheus
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public MetricsServer(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "metrics-http");
+            t.setDaemon(true); // Não impede o encerramento da JVM
+            return t;
+        });
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /** Inicia o endpoint se METRICS_PORT > 0; null se desligado ou se a porta não puder ser aberta. */
+    public static MetricsServer startIfConfigured() {
+        int port = AppConfig.getMetricsPort();
+        if (port <= 0) return null;
+        try {
+            MetricsServer server = new MetricsServer(port);
+            log.info("Métricas disponíveis em http://localhost:{}/metrics", port);
+            return server;
+        } catch (IOException e) {
+            log.warn("Falha ao abrir o endpoint de métricas na porta {} ({}). Seguindo sem métricas HTTP.", port, e.toString());
+            return null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = Metrics.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,248 @@
+package com.trabalho.finalpc.common.serialization; // Pacote de (de)serialização
+
+import com.trabalho.finalpc.common.ProductMessage; // Tipo que vamos (de)serializar
+import com.trabalho.finalpc.common.ProductType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;        // Dicionário de producerId já codificados (encode)
+import java.util.concurrent.atomic.AtomicReferenceArray; // Dicionário de producerId já decodificados (decode)
+
+/**
+ * Codec binário compacto e de layout fixo para ProductMessage (alternativa ao JSON no caminho quente).
+ * Layout (big-endian):
+ * <pre>
+ *  byte  versão (2)
+ *  byte  flags (bit 0: itemId gravado como UUID binário; bit 1: priority; bit 2: deadline)
+ *  byte  tamanho do nome do ProductType (-1 = nulo) + nome em UTF-8 (ex.: TIPO_A)
+ *  long  timestamp (epoch ms)
+ *  itemId: 2 longs (msb, lsb) com o bit 0, senão short tamanho + UTF-8
+ *  short tamanho do producerId (-1 = nulo) + UTF-8
+ *  byte  priority (só com o bit 1)
+ *  long  deadline (epoch ms; só com o bit 2)
+ * </pre>
+ * priority e deadline entram como campos opcionais no fim, marcados nas flags: mensagens sem eles têm
+ * exatamente o layout anterior, e um leitor antigo (que ignora bits desconhecidos e bytes extras) continua
+ * lendo as novas, então a versão não mudou por eles.
+ * O tipo vai pelo nome (versão 2), como no JSON: o ordinal depende da ordem de PRODUCT_TYPES/PRODUCT_TYPES_FILE
+ * de cada processo, e produtor e consumidor configurados de forma diferente trocariam os tipos em silêncio.
+ * Os nomes dos tipos registrados ficam pré-codificados e o decode compara bytes (sem alocar); um nome que não
+ * está registrado neste processo falha o decode (IllegalArgumentException) em vez de virar outro tipo.
+ * A versão 1 (ordinal em um byte) ainda é lida, para esvaziar filas antigas; ela só é correta entre
+ * processos com o mesmo registro de tipos.
+ * Minhas decisões sobre o producerId: ele se repete em quase todas as mensagens, então eu mantenho um
+ * dicionário de cada lado. No encode reaproveito os bytes UTF-8 já calculados; no decode comparo os bytes
+ * recebidos com a entrada do dicionário e devolvo a mesma String, sem alocar. O nome continua no corpo,
+ * então produtores e consumidores não precisam compartilhar estado (cada mensagem é autossuficiente).
+ */
+public class BinaryProductMessageCodec implements ByteCodec<ProductMessage> {
+    public static final String CONTENT_TYPE = "application/vnd.finalpc.product+binary"; // Content type AMQP
+
+    private static final byte VERSION = 2;
+    private static final byte VERSION_ORDINAL = 1; // Tipo pelo ordinal (só leitura)
+    private static final byte FLAG_UUID = 1;
+    private static final byte FLAG_PRIORITY = 2;
+    private static final byte FLAG_DEADLINE = 4;
+    private static final int MAX_ENCODE_DICT = 1024; // Limite de producerIds memorizados no encode
+    private static final int DECODE_DICT_SLOTS = 256; // Slots (potência de 2) do dicionário de decode
+    private static final byte[][] TYPE_NAMES = typeNames(); // Índice = ordinal do tipo neste processo
+
+    private final ConcurrentHashMap<String, byte[]> encodeDict = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<DictEntry> decodeDict = new AtomicReferenceArray<>(DECODE_DICT_SLOTS);
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(ProductMessage value) {
+        boolean bits = value.hasIdBits();               // Caminho rápido: id já está em 2 longs
+        long msb = value.getIdMsb(), lsb = value.getIdLsb();
+        byte[] idBytes = null;
+        if (!bits) {
+            String itemId = value.getItemId();
+            UUID uuid = parseUuid(itemId);
+            if (uuid != null) {
+                bits = true;
+                msb = uuid.getMostSignificantBits();
+                lsb = uuid.getLeastSignificantBits();
+            } else if (itemId != null) {
+                idBytes = itemId.getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        byte[] producer = producerBytes(value.getProducerId());
+
+        int priority = value.getPriority();
+        long deadline = value.getDeadline();
+        byte[] typeName = value.getType() != null ? TYPE_NAMES[value.getType().ordinal()] : null;
+        int size = 3 + (typeName != null ? typeName.length : 0) + 8
+                + (bits ? 16 : 2 + (idBytes != null ? idBytes.length : 0))
+                + 2 + (producer != null ? producer.length : 0)
+                + (priority != 0 ? 1 : 0) + (deadline != 0 ? 8 : 0);
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.put(VERSION);
+        out.put((byte) ((bits ? FLAG_UUID : 0) | (priority != 0 ? FLAG_PRIORITY : 0) | (deadline != 0 ? FLAG_DEADLINE : 0)));
+        if (typeName != null) {
+            out.put((byte) typeName.length);
+            out.put(typeName);
+        } else {
+            out.put((byte) -1);
+        }
+        out.putLong(value.getTimestamp());
+        if (bits) {
+            out.putLong(msb);
+            out.putLong(lsb);
+        } else {
+            putBytes(out, idBytes);
+        }
+        putBytes(out, producer);
+        if (priority != 0) out.put((byte) priority);
+        if (deadline != 0) out.putLong(deadline);
+        return out.array();
+    }
+
+    @Override
+    public ProductMessage decode(ByteBuffer buffer) {
+        ByteBuffer in = buffer.duplicate(); // Não mexe na posição do chamador
+        byte version = in.get();
+        if (version != VERSION && version != VERSION_ORDINAL) {
+            throw new IllegalArgumentException("Versão de codec binário não suportada: " + version);
+        }
+        byte flags = in.get();
+
+        ProductMessage msg = ProductMessage.blank(); // Todos os campos vêm do corpo: nada de gerar id
+        msg.setType(version == VERSION ? readType(in) : readTypeOrdinal(in));
+        msg.setTimestamp(in.getLong());
+        if ((flags & FLAG_UUID) != 0) {
+            msg.setIdBits(in.getLong(), in.getLong()); // Texto do id só é montado se alguém pedir
+        } else {
+            short len = in.getShort();
+            msg.setItemId(len < 0 ? null : readUtf8(in, len));
+        }
+        msg.setProducerId(readProducer(in));
+        if ((flags & FLAG_PRIORITY) != 0) msg.setPriority(in.get() & 0xFF);
+        if ((flags & FLAG_DEADLINE) != 0) msg.setDeadline(in.getLong());
+        return msg;
+    }
+
+    // decode (versão 2): compara o nome com os tipos registrados; desconhecido é erro, não outro tipo
+    private static ProductType readType(ByteBuffer in) {
+        int len = in.get();
+        if (len < 0) return null;
+        int start = in.position();
+        for (int ordinal = 0; ordinal < TYPE_NAMES.length; ordinal++) {
+            byte[] name = TYPE_NAMES[ordinal];
+            if (name.length == len && matches(name, in, start)) {
+                in.position(start + len);
+                return ProductType.byOrdinal(ordinal);
+            }
+        }
+        return ProductType.valueOf(readUtf8(in, len)); // Lança IllegalArgumentException com o nome recebido
+    }
+
+    // decode (versão 1): ordinal do registro de quem publicou, que precisa ser igual ao deste processo
+    private static ProductType readTypeOrdinal(ByteBuffer in) {
+        byte ordinal = in.get();
+        if (ordinal < 0) return null;
+        if (ordinal >= ProductType.count()) {
+            throw new IllegalArgumentException("Ordinal de tipo fora do registro deste processo: " + ordinal);
+        }
+        return ProductType.byOrdinal(ordinal);
+    }
+
+    // Nome UTF-8 de cada tipo registrado (cabe no byte de tamanho)
+    private static byte[][] typeNames() {
+        ProductType[] types = ProductType.values();
+        byte[][] names = new byte[types.length][];
+        for (ProductType type : types) {
+            byte[] name = type.name().getBytes(StandardCharsets.UTF_8);
+            if (name.length > Byte.MAX_VALUE) {
+                throw new IllegalStateException("Nome de tipo longo demais para o codec binário: " + type.name());
+            }
+            names[type.ordinal()] = name;
+        }
+        return names;
+    }
+
+    private static boolean matches(byte[] bytes, ByteBuffer in, int start) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != in.get(start + i)) return false;
+        }
+        return true;
+    }
+
+    // encode: bytes UTF-8 do producerId, memorizados para os IDs recorrentes
+    private byte[] producerBytes(String producerId) {
+        if (producerId == null) return null;
+        byte[] cached = encodeDict.get(producerId);
+        if (cached != null) return cached;
+        byte[] bytes = producerId.getBytes(StandardCharsets.UTF_8);
+        if (encodeDict.size() < MAX_ENCODE_DICT) encodeDict.putIfAbsent(producerId, bytes);
+        return bytes;
+    }
+
+    // decode: devolve a String já conhecida quando os bytes batem com a entrada do dicionário
+    private String readProducer(ByteBuffer in) {
+        short len = in.getShort();
+        if (len < 0) return null;
+        int start = in.position();
+        int hash = 1;
+        for (int i = 0; i < len; i++) hash = 31 * hash + in.get(start + i);
+        int slot = hash & (DECODE_DICT_SLOTS - 1);
+        DictEntry entry = decodeDict.get(slot);
+        if (entry != null && entry.matches(in, start, len)) {
+            in.position(start + len);
+            return entry.value;
+        }
+        byte[] bytes = new byte[len];
+        in.get(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        decodeDict.set(slot, new DictEntry(bytes, value)); // Substitui em caso de colisão (cache simples)
+        return value;
+    }
+
+    private static String readUtf8(ByteBuffer in, int len) {
+        byte[] bytes = new byte[len];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putBytes(ByteBuffer out, byte[] bytes) {
+        if (bytes == null) {
+            out.putShort((short) -1);
+        } else {
+            out.putShort((short) bytes.length);
+            out.put(bytes);
+        }
+    }
+
+    // Aceita apenas o formato canônico 8-4-4-4-12 (evita exceção como controle de fluxo)
+    private static UUID parseUuid(String id) {
+        if (id == null || id.length() != 36 || id.charAt(8) != '-' || id.charAt(13) != '-'
+                || id.charAt(18) != '-' || id.charAt(23) != '-') {
+            return null;
+        }
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** Entrada do dicionário de decode: bytes originais + String correspondente. */
+    private static final class DictEntry {
+        final byte[] bytes;
+        final String value;
+
+        DictEntry(byte[] bytes, String value) {
+            this.bytes = bytes;
+            this.value = value;
+        }
+
+        boolean matches(ByteBuffer in, int start, int len) {
+            return bytes.length == len && BinaryProductMessageCodec.matches(bytes, in, start);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.trabalho.finalpc.common.serialization; // Pacote de (de)serialização
+
+import java.nio.ByteBuffer; // Corpo da mensagem sem cópia intermediária
+
+/**
+ * Abstração de codec orientada a bytes (o formato que realmente trafega no broker).
+ * Eu a criei ao lado do JsonCodec para evitar a volta por String (byte[] -> String -> objeto e vice-versa).
+ * O contentType identifica o formato no AMQP, permitindo que codecs diferentes convivam na mesma fila.
+ */
+public interface ByteCodec<T> {
+    /** Content type AMQP gravado nas propriedades da mensagem (ex.: application/json). */
+    String contentType();
+
+    /** Serializa o objeto diretamente para bytes. */
+    byte[] encode(T value) throws Exception;
+
+    /** Desserializa a partir da posição atual até o limite do buffer. */
+    T decode(ByteBuffer buffer) throws Exception;
+
+    /** Atalho para desserializar um corpo inteiro. */
+    default T decode(byte[] body) throws Exception {
+        return decode(ByteBuffer.wrap(body));
+    }
+}
@@ -1,14 +1,36 @@
 package com.trabalho.finalpc.common.serialization; // Pacote de (de)serialização
 
+import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.ObjectMapper;           // Jackson para JSON
+import com.fasterxml.jackson.databind.deser.ValueInstantiator; // Cria a instância vazia na leitura
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.trabalho.finalpc.common.ProductMessage;            // Tipo que vamos (de)serializar
 
+import java.nio.ByteBuffer;
+
 /**
  * Nesta classe eu isolo a lógica de JSON (Jackson) do restante do código.
  * Eu optei por manter um ObjectMapper estático, reutilizável e thread-safe (uso padrão do Jackson).
+ * Como ByteCodec, o Jackson lê/escreve UTF-8 direto em bytes, sem String intermediária.
+ * Na leitura, a instância vem de ProductMessage.blank() em vez do construtor padrão, que geraria um id e
+ * leria o relógio só para o JSON sobrescrever.
  */
-public class JacksonProductMessageCodec implements JsonCodec<ProductMessage> {
-    private static final ObjectMapper MAPPER = new ObjectMapper(); // Mapper padrão é suficiente para nosso DTO simples
+public class JacksonProductMessageCodec implements JsonCodec<ProductMessage>, ByteCodec<ProductMessage> {
+    public static final String CONTENT_TYPE = "application/json"; // Content type AMQP do formato JSON
+
+    private static final ObjectMapper MAPPER = new ObjectMapper() // Mapper padrão é suficiente para nosso DTO simples
+            .registerModule(new SimpleModule().addValueInstantiator(ProductMessage.class,
+                    new ValueInstantiator.Base(ProductMessage.class) {
+                        @Override
+                        public boolean canCreateUsingDefault() {
+                            return true;
+                        }
+
+                        @Override
+                        public Object createUsingDefault(DeserializationContext ctxt) {
+                            return ProductMessage.blank();
+                        }
+                    }));
 
     @Override
     public String toJson(ProductMessage value) throws Exception { // Converte DTO -> JSON string
@@ -19,4 +41,24 @@ public class JacksonProductMessageCodec implements JsonCodec<ProductMessage> {
     public ProductMessage fromJson(String json) throws Exception { // Converte JSON string -> DTO
         return MAPPER.readValue(json, ProductMessage.class); // Decisão: contrato simples, sem validadores extras
     }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(ProductMessage value) throws Exception { // DTO -> JSON UTF-8 (sem String)
+        return MAPPER.writeValueAsBytes(value);
+    }
+
+    @Override
+    public ProductMessage decode(ByteBuffer buffer) throws Exception { // JSON UTF-8 -> DTO (sem String)
+        if (buffer.hasArray()) {
+            return MAPPER.readValue(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), ProductMessage.class);
+        }
+        byte[] copy = new byte[buffer.remaining()]; // Buffers diretos não expõem array
+        buffer.duplicate().get(copy);
+        return MAPPER.readValue(copy, ProductMessage.class);
+    }
 }
@@ -0,0 +1,40 @@
+package com.trabalho.finalpc.common.serialization; // Pacote de (de)serialização
+
+import com.trabalho.finalpc.common.ProductMessage;
+import com.trabalho.finalpc.common.config.AppConfig; // MESSAGE_CODEC escolhe o formato de publicação
+
+/**
+ * Registro dos codecs de ProductMessage conhecidos pelo projeto.
+ * Minhas decisões:
+ * - O produtor publica no formato configurado (MESSAGE_CODEC=json|binary) e grava o contentType.
+ * - O consumidor escolhe o codec pelo contentType de cada entrega, então produtores JSON e binários
+ *   podem publicar nas mesmas filas durante uma migração. Sem contentType (ou desconhecido) assumo JSON,
+ *   que é o formato das mensagens antigas.
+ * Os codecs são thread-safe e compartilhados (instâncias únicas).
+ */
+public final class ProductMessageCodecs { // Classe utilitária (somente métodos estáticos)
+    private static final JacksonProductMessageCodec JSON = new JacksonProductMessageCodec();
+    private static final BinaryProductMessageCodec BINARY = new BinaryProductMessageCodec();
+
+    private ProductMessageCodecs() { /* Impede instanciação */ }
+
+    /** Codec JSON (Jackson). */
+    public static ByteCodec<ProductMessage> json() {
+        return JSON;
+    }
+
+    /** Codec binário compacto. */
+    public static ByteCodec<ProductMessage> binary() {
+        return BINARY;
+    }
+
+    /** Codec usado para publicar, conforme MESSAGE_CODEC. Default: JSON */
+    public static ByteCodec<ProductMessage> configured() {
+        return "binary".equals(AppConfig.getMessageCodec()) ? BINARY : JSON;
+    }
+
+    /** Codec correspondente ao contentType de uma entrega (JSON quando ausente ou desconhecido). */
+    public static ByteCodec<ProductMessage> forContentType(String contentType) {
+        return BinaryProductMessageCodec.CONTENT_TYPE.equals(contentType) ? BINARY : JSON;
+    }
+}
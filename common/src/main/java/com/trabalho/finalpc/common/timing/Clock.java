@@ -0,0 +1,18 @@
+package com.trabalho.finalpc.common.timing; // Modelos de tempo e relógios da simulação
+
+/**
+ * Relógio usado pelas esperas de produção/consumo e pelos timestamps das mensagens (via Timing).
+ * SystemClock é o tempo real; VirtualClock avança sem dormir.
+ */
+public interface Clock {
+    /** Tempo atual em ms (epoch) segundo este relógio. */
+    long currentTimeMillis();
+
+    /** Espera (ou simula esperar) a duração informada. */
+    void sleep(long millis) throws InterruptedException;
+
+    /** Informa um timestamp vindo de outro processo/thread (ex.: de uma mensagem recebida). */
+    default void observe(long timestampMillis) {
+        // Relógio real: nada a fazer
+    }
+}
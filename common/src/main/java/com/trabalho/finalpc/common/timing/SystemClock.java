@@ -0,0 +1,18 @@
+package com.trabalho.finalpc.common.timing; // Modelos de tempo e relógios da simulação
+
+/** Relógio real: Thread.sleep e System.currentTimeMillis (padrão). */
+public final class SystemClock implements Clock {
+    public static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock() { /* Use INSTANCE */ }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+}
@@ -0,0 +1,16 @@
+package com.trabalho.finalpc.common.timing; // Modelos de tempo e relógios da simulação
+
+import java.util.random.RandomGenerator; // Fonte de aleatoriedade (ThreadLocalRandom ou semeada)
+
+/**
+ * Distribuição de um tempo de produção/consumo em torno de uma média.
+ * Implementações prontas em TimingModels (fixed, exponential, lognormal, zero).
+ */
+@FunctionalInterface
+public interface TimingModel {
+    /**
+     * Sorteia uma duração em ms cuja média é meanMillis (já escalada).
+     * @param random fonte de aleatoriedade de quem chama (modelos determinísticos a ignoram)
+     */
+    long sampleMillis(double meanMillis, RandomGenerator random);
+}
@@ -0,0 +1,56 @@
+package com.trabalho.finalpc.common.timing; // Modelos de tempo e relógios da simulação
+
+import com.trabalho.finalpc.common.ProductType;
+import com.trabalho.finalpc.common.config.AppConfig; // TIMING_MODEL / TIMING_LOGNORMAL_SIGMA
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Fábrica dos modelos de tempo (mesma ideia de ProductMessageCodecs).
+ * Minhas decisões:
+ * - fixed: sempre a média (comportamento original do enunciado).
+ * - exponential: tempos sem memória (chegadas de Poisson), úteis para ver filas se formando.
+ * - lognormal: cauda longa com sigma configurável; mu = ln(média) - sigma²/2 mantém a média pedida.
+ * - zero: nenhuma espera, para medir só o custo da mensageria.
+ * Todos devolvem ms inteiros e nunca negativos.
+ */
+public final class TimingModels { // Classe utilitária (somente métodos estáticos)
+    private static final TimingModel FIXED = (mean, random) -> Math.round(mean);
+    private static final TimingModel EXPONENTIAL = (mean, random) -> Math.round(-mean * Math.log(1.0 - random.nextDouble()));
+    private static final TimingModel ZERO = (mean, random) -> 0L;
+
+    private TimingModels() { /* Impede instanciação */ }
+
+    public static TimingModel fixed() {
+        return FIXED;
+    }
+
+    public static TimingModel exponential() {
+        return EXPONENTIAL;
+    }
+
+    /** Lognormal com a média pedida e desvio sigma na escala logarítmica (0 = fixo). */
+    public static TimingModel logNormal(double sigma) {
+        double shift = -sigma * sigma / 2;
+        return (mean, random) -> mean <= 0 ? 0L : Math.round(Math.exp(Math.log(mean) + shift + sigma * random.nextGaussian()));
+    }
+
+    public static TimingModel zero() {
+        return ZERO;
+    }
+
+    /** Modelo pelo nome ("fixed", "exponential", "lognormal" ou "zero"); nomes desconhecidos viram fixed. */
+    public static TimingModel named(String name, double logNormalSigma) {
+        switch (name) {
+            case "exponential": return exponential();
+            case "lognormal": return logNormal(logNormalSigma);
+            case "zero": return zero();
+            default: return fixed();
+        }
+    }
+
+    /** Modelo configurado para o tipo (TIMING_MODEL / TIMING_MODEL_&lt;TIPO&gt;). */
+    public static TimingModel configured(ProductType type) {
+        return named(AppConfig.getTimingModel(type), AppConfig.getTimingLognormalSigma());
+    }
+}
@@ -0,0 +1,63 @@
+package com.trabalho.finalpc.common.timing; // Modelos de tempo e relógios da simulação
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relógio virtual no estilo dos relógios lógicos de Lamport: cada thread tem o seu tempo, que começa no
+ * instante de criação do relógio.
+ * Minhas decisões:
+ * - sleep(ms) não dorme: só avança o tempo da thread. Horas de produção/consumo viram o custo da
+ *   mensageria e do processamento de verdade, que é o que se quer medir.
+ * - observe(ts) leva a thread para max(tempo local, ts): quem recebe uma mensagem nunca está “antes” de
+ *   quem a produziu, então esperas na fila e latência fim a fim continuam coerentes (e não negativas).
+ * - Sem sincronização global entre threads: não há barreira nem agendador, então não existe o risco de
+ *   travar uma thread bloqueada no broker. Para simular a competição por tempo use o simulador.
+ * - horizon() é o maior tempo já visto por qualquer thread (útil para relatórios).
+ */
+public final class VirtualClock implements Clock {
+    private final long origin;
+    private final ThreadLocal<long[]> local;
+    private final AtomicLong horizon;
+
+    public VirtualClock() {
+        this(System.currentTimeMillis());
+    }
+
+    /** @param originMillis instante (epoch ms) em que toda thread começa */
+    public VirtualClock(long originMillis) {
+        this.origin = originMillis;
+        this.local = ThreadLocal.withInitial(() -> new long[] {origin});
+        this.horizon = new AtomicLong(originMillis);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return local.get()[0];
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (Thread.interrupted()) throw new InterruptedException(); // Mantém o contrato de Thread.sleep
+        if (millis > 0) advanceTo(local.get()[0] + millis);
+    }
+
+    @Override
+    public void observe(long timestampMillis) {
+        if (timestampMillis > local.get()[0]) advanceTo(timestampMillis);
+    }
+
+    /** Maior tempo virtual alcançado por qualquer thread. */
+    public long horizon() {
+        return horizon.get();
+    }
+
+    /** Tempo virtual decorrido (ms) desde a origem, pelo horizonte. */
+    public long elapsedMillis() {
+        return horizon.get() - origin;
+    }
+
+    private void advanceTo(long time) {
+        local.get()[0] = time;
+        if (time > horizon.get()) horizon.accumulateAndGet(time, Math::max);
+    }
+}
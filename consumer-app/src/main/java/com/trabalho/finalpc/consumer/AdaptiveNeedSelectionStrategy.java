@@ -0,0 +1,117 @@
+package com.trabalho.finalpc.consumer; // Pacote do consumidor
+
+import com.trabalho.finalpc.common.ProductType;           // Tipos candidatos
+import com.trabalho.finalpc.common.messaging.QueueStats;  // Profundidade das filas (broker/buffer local)
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier; // Fonte de tempo (real ou simulado)
+
+/**
+ * Escolha do tipo “necessário” guiada pela demanda real, em vez da moeda de RandomNeedSelectionStrategy.
+ * Minhas decisões:
+ * - Peso de cada tipo = profundidade atual da fila + taxa recente de chegada x LOOKAHEAD_SECONDS
+ *   (o que deve estar na fila em breve). Uma fila vazia e sem chegadas tem peso 0 e não é escolhida,
+ *   então o consumidor não fica preso no receiveOne enquanto a outra fila acumula.
+ * - A taxa de chegada é uma média móvel exponencial (EWMA), amostrada a cada segundo, de (variação da
+ *   profundidade + itens que este consumidor pediu daquele tipo) por segundo. Não enxerga o consumo de
+ *   outros processos, então é uma estimativa por baixo — suficiente para antecipar a fila que cresce.
+ * - Sorteio proporcional ao peso (não “sempre a maior”): vários consumidores com a mesma visão
+ *   não migram todos juntos para a mesma fila.
+ * - Piso de justiça (fairnessFloor): todo tipo com peso > 0 recebe pelo menos essa fração das escolhas,
+ *   mesmo com a outra fila muito maior.
+ * - Sem medição (-1) ou sem sinal nenhum (tudo 0), volto à escolha uniforme, como a estratégia aleatória.
+ * - O tempo das amostras vem de um relógio injetável em ns (System.nanoTime por padrão; o simulador passa
+ *   o tempo simulado).
+ */
+public class AdaptiveNeedSelectionStrategy implements NeedSelectionStrategy {
+    private static final double LOOKAHEAD_SECONDS = 1.0; // Horizonte da previsão de chegadas
+    private static final double EWMA_ALPHA = 0.3;        // Peso da amostra nova na média de chegadas
+    private static final double SAMPLE_SECONDS = 1.0;    // Janela mínima entre amostras da taxa de chegada
+
+    private final QueueStats stats;
+    private final double fairnessFloor;
+    private final ProductType[] types = ProductType.values();
+    private final long[] lastDepth;          // Profundidade na amostra anterior (-1 = ainda sem amostra)
+    private final long[] picksSinceSample;   // Escolhas deste consumidor desde a amostra anterior
+    private final double[] arrivalRate;      // Chegadas/s estimadas (EWMA)
+    private final LongSupplier nanoClock;    // Relógio das amostras (ns)
+    private long lastSampleAt;               // nanoClock da amostra anterior
+
+    /**
+     * @param stats         profundidade das filas (use CachedQueueStats para adaptadores com round trip)
+     * @param fairnessFloor fração mínima de escolhas por tipo com mensagens (0 a 1/número de tipos)
+     */
+    public AdaptiveNeedSelectionStrategy(QueueStats stats, double fairnessFloor) {
+        this(stats, fairnessFloor, System::nanoTime);
+    }
+
+    /** Como o construtor padrão, com o relógio das amostras da taxa de chegada informado (em ns). */
+    public AdaptiveNeedSelectionStrategy(QueueStats stats, double fairnessFloor, LongSupplier nanoClock) {
+        this.stats = stats;
+        this.nanoClock = nanoClock;
+        this.fairnessFloor = Math.max(0, Math.min(fairnessFloor, 1.0 / types.length));
+        this.lastDepth = new long[types.length];
+        this.picksSinceSample = new long[types.length];
+        this.arrivalRate = new double[types.length];
+        Arrays.fill(lastDepth, -1);
+        this.lastSampleAt = nanoClock.getAsLong();
+    }
+
+    @Override
+    public synchronized ProductType nextNeededType() { // Chamado uma vez por mensagem: o lock não pesa
+        long[] depths = new long[types.length];
+        for (ProductType type : types) {
+            depths[type.ordinal()] = stats.depth(type);
+            if (depths[type.ordinal()] < 0) return uniform(); // Sem medição confiável: comportamento padrão
+        }
+        long now = nanoClock.getAsLong();
+        double elapsed = (now - lastSampleAt) / 1e9;
+        if (elapsed >= SAMPLE_SECONDS || lastDepth[0] < 0) {
+            for (int i = 0; i < types.length; i++) {
+                if (lastDepth[i] >= 0) {
+                    // Chegadas na janela = variação da fila + o que este consumidor retirou dela
+                    double arrivals = Math.max(0, depths[i] - lastDepth[i] + picksSinceSample[i]);
+                    arrivalRate[i] = EWMA_ALPHA * (arrivals / elapsed) + (1 - EWMA_ALPHA) * arrivalRate[i];
+                }
+                lastDepth[i] = depths[i];
+                picksSinceSample[i] = 0;
+            }
+            lastSampleAt = now;
+        }
+
+        double[] weights = new double[types.length];
+        double total = 0;
+        int active = 0;
+        ProductType lastActive = null;
+        for (ProductType type : types) {
+            int i = type.ordinal();
+            weights[i] = depths[i] + arrivalRate[i] * LOOKAHEAD_SECONDS;
+            total += weights[i];
+            if (weights[i] > 0) {
+                active++;
+                lastActive = type;
+            }
+        }
+        if (active == 0) return uniform(); // Nada na fila nem chegando: qualquer tipo serve
+
+        double share = 1 - fairnessFloor * active; // Parte distribuída proporcionalmente ao peso
+        double r = ThreadLocalRandom.current().nextDouble();
+        ProductType chosen = lastActive;           // Sobra de arredondamento cai no último tipo ativo
+        for (ProductType type : types) {
+            double w = weights[type.ordinal()];
+            if (w <= 0) continue;
+            r -= fairnessFloor + share * (w / total);
+            if (r < 0) {
+                chosen = type;
+                break;
+            }
+        }
+        picksSinceSample[chosen.ordinal()]++;
+        return chosen;
+    }
+
+    private ProductType uniform() {
+        return types[ThreadLocalRandom.current().nextInt(types.length)];
+    }
+}
@@ -1,6 +1,14 @@
 package com.trabalho.finalpc.consumer; // Pacote da aplicação consumidora
 
+import com.trabalho.finalpc.common.ProductType;      // Tipos com faixa própria no modo pool
+import com.trabalho.finalpc.common.concurrent.LaneExecutors; // Executor dos workers do pool
 import com.trabalho.finalpc.common.config.AppConfig; // Lê CONSUMER_ID e dados do broker via ENV
+import com.trabalho.finalpc.common.messaging.CachedQueueStats;  // Limita medições de fila (política adaptive)
+import com.trabalho.finalpc.common.messaging.MessageSubscriber;
+import com.trabalho.finalpc.common.messaging.QueueStats;
+import com.trabalho.finalpc.common.messaging.inmemory.InMemoryTransport; // Transporte em processo (IN_MEMORY=true)
+import com.trabalho.finalpc.common.metrics.MetricsServer; // Endpoint /metrics (METRICS_PORT)
+import com.trabalho.finalpc.consumer.dedup.Deduplicator;  // Descarte de reentregas (DEDUP_MODE)
 import com.trabalho.finalpc.consumer.messaging.NoOpSubscriber; // Adaptador que simula recebimento
 import com.trabalho.finalpc.consumer.messaging.RabbitSubscriber; // Adaptador que consome do RabbitMQ
 import org.slf4j.Logger;        // Interface de logging (SLF4J)
@@ -9,9 +17,17 @@ import org.slf4j.LoggerFactory; // Fábrica de loggers (um por classe)
 /**
  * Esta é a classe main do CONSUMIDOR. Aqui eu:
  * - Leio CONSUMER_ID (via AppConfig/ENV) para diferenciar processos.
- * - Escolho o adaptador de mensageria (Rabbit/NoOp) conforme USE_RABBIT.
- * - Monto o serviço com a estratégia aleatória de “necessidade de tipo”.
+ * - Escolho o adaptador de mensageria (Rabbit/memória/NoOp) conforme USE_RABBIT e IN_MEMORY.
+ * - Monto o serviço com a estratégia de “necessidade de tipo”: aleatória (padrão) ou, com
+ *   NEED_STRATEGY=adaptive, guiada pela profundidade das filas (se o adaptador souber medi-la).
  * - Rodo N iterações (ITERATIONS) para facilitar a demonstração.
+ * - Com CONSUMER_WORKERS (ou CONSUMER_WORKERS_<TIPO>) > 0, rodo um ConsumerPool: workers por tipo em
+ *   virtual threads (CONSUMER_MODE), todos compartilhando o mesmo assinante/conexão.
+ * - Com METRICS_PORT > 0, exponho as métricas em /metrics enquanto o consumo roda.
+ * - Com CONSUMER_BATCH_SIZE (ou CONSUMER_BATCH_SIZE_<TIPO>) > 1, cada ciclo recebe, consome e confirma um
+ *   lote do tipo (útil para tipos de alta vazão e consumo barato).
+ * - Com DEDUP_MODE=lru ou bloom, reentregas de itemIds já consumidos são descartadas antes do consumo; o
+ *   conjunto é fechado no fim (e no shutdown hook) para gravar o último retrato (DEDUP_SNAPSHOT_FILE).
  */
 public class ConsumerApp { // Classe principal do módulo consumidor
     private static final Logger log = LoggerFactory.getLogger(ConsumerApp.class); // Logger da aplicação
@@ -24,25 +40,98 @@ public class ConsumerApp { // Classe principal do módulo consumidor
         String consumerId = AppConfig.getConsumerId();
         log.info("Consumer ID resolvido: {}", consumerId);
 
+        try (MetricsServer metrics = MetricsServer.startIfConfigured()) { // null (desligado) é aceito pelo try
+            run(consumerId);
+        } // Fecha o endpoint ao terminar (o servidor HTTP seguraria a JVM)
+    }
+
+    private static void run(String consumerId) {
         // Decide adaptador (Rabbit/NoOp), cria o serviço e seleciona a estratégia
         var subscriber = tryCreateRabbitOrNoOp();
-        var strategy = new RandomNeedSelectionStrategy();
-        var service = new ConsumerService(consumerId, subscriber, strategy);
+        var strategy = needStrategyFor(subscriber);
+        var dedup = Deduplicator.fromConfig(); // null com DEDUP_MODE=off
+        var service = new ConsumerService(consumerId, subscriber, strategy, batchSizes(), AppConfig.getConsumerBatchWaitMillis(), dedup);
+        try {
+            runConsumer(consumerId, service, subscriber, dedup);
+        } finally {
+            if (dedup != null) dedup.close();
+        }
+    }
 
+    // Laço único ou pool, conforme CONSUMER_WORKERS
+    private static void runConsumer(String consumerId, ConsumerService service, MessageSubscriber subscriber, Deduplicator dedup) {
         int iterations = 5; // padrão para testes curtos (configurável por ENV)
         String iterEnv = System.getenv("ITERATIONS");
         if (iterEnv != null) {
             try { iterations = Math.max(1, Integer.parseInt(iterEnv.trim())); } catch (NumberFormatException ignored) {}
         }
 
+        int[] workers = new int[ProductType.values().length]; // Workers por tipo (índice = ordinal)
+        int totalWorkers = 0;
+        for (ProductType type : ProductType.values()) {
+            workers[type.ordinal()] = AppConfig.getConsumerWorkers(type);
+            totalWorkers += workers[type.ordinal()];
+        }
+        if (totalWorkers > 0) {
+            runPool(consumerId, service, subscriber, dedup, workers, totalWorkers, iterations);
+            return;
+        }
+
         Runtime.getRuntime().addShutdownHook(new Thread(() -> { // Fecha recursos no encerramento
             try { subscriber.close(); } catch (Exception ignored) {}
+            if (dedup != null) dedup.close();
         }));
 
         service.runLoop(iterations);
     }
 
-    private static com.trabalho.finalpc.common.messaging.MessageSubscriber tryCreateRabbitOrNoOp() {
+    // Modo pool: workers por tipo sobre o mesmo assinante; o hook interrompe os workers antes de fechar a conexão
+    private static void runPool(String consumerId, ConsumerService service,
+                                MessageSubscriber subscriber, Deduplicator dedup,
+                                int[] workers, int totalWorkers, int iterations) {
+        String mode = AppConfig.getConsumerMode();
+        var pool = new ConsumerPool(consumerId, service, workers,
+                LaneExecutors.newLaneExecutor(mode, totalWorkers, "consumer-worker"));
+        log.info("Modo pool: {} workers ({} threads)", totalWorkers, mode);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            pool.shutdown();
+            try { subscriber.close(); } catch (Exception ignored) {}
+            if (dedup != null) dedup.close();
+        }));
+
+        try {
+            pool.run(iterations);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdown(); // Encerra o executor (threads de plataforma não são daemon)
+        }
+    }
+
+    // CONSUMER_BATCH_SIZE(_<TIPO>): itens por ciclo de cada tipo (1 = um por vez)
+    private static int[] batchSizes() {
+        int[] sizes = new int[ProductType.values().length];
+        for (ProductType type : ProductType.values()) {
+            sizes[type.ordinal()] = AppConfig.getConsumerBatchSize(type);
+            if (sizes[type.ordinal()] > 1) log.info("Consumo em lote de {}: até {} itens por ciclo", type, sizes[type.ordinal()]);
+        }
+        return sizes;
+    }
+
+    // NEED_STRATEGY=adaptive só funciona com adaptadores que medem as filas (Rabbit, memória)
+    private static NeedSelectionStrategy needStrategyFor(MessageSubscriber subscriber) {
+        if ("adaptive".equals(AppConfig.getNeedStrategy())) {
+            if (subscriber instanceof QueueStats) {
+                log.info("Estratégia de necessidade adaptativa (piso de justiça {})", AppConfig.getNeedFairnessFloor());
+                QueueStats stats = new CachedQueueStats((QueueStats) subscriber, AppConfig.getQueueStatsRefreshMillis());
+                return new AdaptiveNeedSelectionStrategy(stats, AppConfig.getNeedFairnessFloor());
+            }
+            log.warn("NEED_STRATEGY=adaptive ignorado: {} não informa a profundidade das filas.", subscriber.getClass().getSimpleName());
+        }
+        return new RandomNeedSelectionStrategy();
+    }
+
+    private static MessageSubscriber tryCreateRabbitOrNoOp() {
         String useRabbit = System.getenv("USE_RABBIT"); // Se TRUE, tentamos usar o adaptador Rabbit
         if (useRabbit != null && useRabbit.equalsIgnoreCase("true")) {
             try {
@@ -52,6 +141,10 @@ public class ConsumerApp { // Classe principal do módulo consumidor
                         .warn("Falha ao iniciar RabbitMQ ({}). Usando NoOpSubscriber.", e.toString()); // Fallback seguro
             }
         }
+        if (AppConfig.isInMemoryTransport()) { // Produtor precisa estar na mesma JVM
+            log.warn("IN_MEMORY=true neste main só vê o próprio processo; para produzir e consumir juntos use o local-app (LocalApp).");
+            return InMemoryTransport.shared();
+        }
         return new NoOpSubscriber(); // Caminho padrão: simular recebimento
     }
 }
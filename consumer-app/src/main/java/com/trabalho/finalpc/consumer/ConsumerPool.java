@@ -0,0 +1,129 @@
+package com.trabalho.finalpc.consumer; // Pacote da aplicação consumidora
+
+import com.trabalho.finalpc.common.ProductType; // Cada tipo tem sua própria faixa de workers
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;          // Executor dos workers (virtual ou plataforma)
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService; // Relatório periódico de vazão por faixa
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;         // Contador sem contenção entre workers
+
+/**
+ * Este pool roda vários workers de consumo por tipo dentro de um único ConsumerApp.
+ * Minhas decisões:
+ * - Uma faixa (lane) por ProductType com N workers fixos (CONSUMER_WORKERS / CONSUMER_WORKERS_<TIPO>):
+ *   cada worker sempre pede o mesmo tipo, então products.typeA e products.typeB são drenadas em paralelo.
+ * - Todos os workers usam o mesmo ConsumerService e, portanto, o mesmo MessageSubscriber (uma conexão).
+ * - Contadores por faixa (LongAdder) e um relatório periódico mostram a vazão de cada tipo.
+ * - Encerramento idempotente: interrompe os workers (sleep de consumo) e aguarda o término.
+ * - Um worker também sai quando o assinante é fechado (IllegalStateException do transporte em memória
+ *   depois de esvaziado): é assim que o LocalApp encerra o consumo quando a produção acaba.
+ */
+public class ConsumerPool {
+    private static final Logger log = LoggerFactory.getLogger(ConsumerPool.class);
+    private static final long REPORT_INTERVAL_SECONDS = 10; // Intervalo do relatório de vazão
+
+    private final String consumerId;
+    private final ConsumerService service;
+    private final int[] workersPerType;   // Índice = ordinal do ProductType
+    private final LongAdder[] consumed;   // Itens consumidos por faixa
+    private final ExecutorService executor;
+    private final ScheduledExecutorService reporter;
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+    private volatile long startedAt;
+
+    public ConsumerPool(String consumerId, ConsumerService service, int[] workersPerType, ExecutorService executor) {
+        this.consumerId = consumerId;
+        this.service = service;
+        this.workersPerType = workersPerType;
+        this.executor = executor;
+        this.consumed = new LongAdder[workersPerType.length];
+        for (int i = 0; i < consumed.length; i++) consumed[i] = new LongAdder();
+        this.reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "consumer-pool-report");
+            t.setDaemon(true); // Não impede o encerramento da JVM
+            return t;
+        });
+    }
+
+    /** Roda N iterações em cada worker e bloqueia até todos terminarem (ou serem interrompidos). */
+    public void run(int iterationsPerWorker) throws InterruptedException {
+        startedAt = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (ProductType type : ProductType.values()) {
+            for (int w = 0; w < workersPerType[type.ordinal()]; w++) {
+                workers.add(executor.submit(() -> work(type, iterationsPerWorker)));
+            }
+        }
+        reporter.scheduleAtFixedRate(this::report, REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        log.info("[Consumer {}] Pool iniciado com {} workers ({} iterações cada)", consumerId, workers.size(), iterationsPerWorker);
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                log.error("[Consumer {}] Worker terminou com erro: {}", consumerId, e.getCause().toString());
+            } catch (CancellationException ignored) {
+                // Cancelado pelo shutdown
+            }
+        }
+        report(); // Resumo final
+    }
+
+    // Loop de um worker: sempre o mesmo tipo (a “faixa” dele); no modo em lote, iterations conta itens
+    private void work(ProductType type, int iterations) {
+        for (int i = 1; i <= iterations && !Thread.currentThread().isInterrupted(); ) {
+            try {
+                int n = service.consume(type, iterations - i + 1);
+                consumed[type.ordinal()].add(n);
+                i += n;
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                log.warn("[Consumer {}] Worker de {} interrompido.", consumerId, type);
+                return;
+            } catch (IllegalStateException closed) { // Assinante fechado e sem mensagens: nada mais a receber
+                log.info("[Consumer {}] Worker de {} encerrado: {}", consumerId, type, closed.getMessage());
+                return;
+            } catch (Exception e) {
+                log.error("[Consumer {}] Falha ao receber/consumir {}: {}", consumerId, type, e.getMessage(), e);
+                i++;
+            }
+        }
+    }
+
+    // Vazão acumulada por faixa desde o início do pool
+    private void report() {
+        double seconds = Math.max(1e-9, (System.nanoTime() - startedAt) / 1e9);
+        StringBuilder sb = new StringBuilder();
+        for (ProductType type : ProductType.values()) {
+            long n = consumed[type.ordinal()].sum();
+            if (sb.length() > 0) sb.append(" | ");
+            sb.append(type).append(": ").append(n).append(" itens (")
+                    .append(String.format(Locale.US, "%.2f/s", n / seconds)).append(", ")
+                    .append(workersPerType[type.ordinal()]).append(" workers)");
+        }
+        log.info("[Consumer {}] Vazão por faixa => {}", consumerId, sb);
+    }
+
+    /** Encerramento coordenado (chamado pelo shutdown hook e ao fim do run). */
+    public void shutdown() {
+        if (!shutdown.compareAndSet(false, true)) return;
+        reporter.shutdownNow();
+        executor.shutdownNow(); // Interrompe receives bloqueados e sleeps de consumo
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("[Consumer {}] Workers não terminaram em 10 s", consumerId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
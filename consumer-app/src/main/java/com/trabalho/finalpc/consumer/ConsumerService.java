@@ -3,9 +3,16 @@ package com.trabalho.finalpc.consumer; // Pacote da aplicação consumidora
 import com.trabalho.finalpc.common.ProductMessage;               // DTO recebido do broker (payload)
 import com.trabalho.finalpc.common.ProductType;                  // Tipo de produto que o consumidor deseja
 import com.trabalho.finalpc.common.Timing;                       // Tempos de consumo (dobro da produção)
+import com.trabalho.finalpc.common.logging.HotPathLog;           // Logs por mensagem (LOG_MODE)
 import com.trabalho.finalpc.common.messaging.MessageSubscriber;  // Porta/contrato para obter mensagens do broker
+import com.trabalho.finalpc.common.metrics.Metrics;              // Contadores, em andamento e latências do consumo
+import com.trabalho.finalpc.consumer.dedup.Deduplicator;         // Descarta reentregas (DEDUP_MODE)
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;                                        // Para formatar segundos com ponto decimal
 
 /**
@@ -13,51 +20,226 @@ import java.util.Locale;                                        // Para formatar
  * 1) Eu escolho um tipo “necessário” (estratégia aleatória)
  * 2) Eu recebo 1 mensagem da fila correspondente (MessageSubscriber)
  * 3) Eu simulo o consumo com o tempo correto (Timing)
+ * 4) Eu aviso o assinante que terminei (acknowledge), o que confirma a entrega no modo de ack manual
  * Observação: eu uso basicGet (pull) para consumir exatamente 1 do tipo escolhido por iteração.
+ * Modo em lote (batchSizes[tipo] > 1, CONSUMER_BATCH_SIZE): cada ciclo recebe até N itens do tipo de uma
+ * vez (receiveBatch), consome o grupo (soma dos tempos de consumo, um log por lote) e confirma tudo junto
+ * (acknowledgeAll). Se nada chegar em batchWaitMillis, o ciclo termina sem item e o tipo é reescolhido.
+ * Deduplicação (DEDUP_MODE, opcional): logo depois do recebimento, um itemId já consumido é confirmado e
+ * descartado sem consumo; o ciclo não conta como item consumido.
+ * Prazo: uma mensagem com deadline já vencido quando chega não é consumida; vai para a fila de mensagens
+ * mortas (deadLetter, motivo "expired") e conta em messages_expired_total. Consumir depois do prazo só
+ * gastaria o tempo de consumo e atrasaria os itens seguintes, que ainda estão no prazo.
+ * Falha no consumo: a mensagem vai para subscriber.fail (nova tentativa mais tarde, pelos níveis de espera do
+ * broker, ou estacionamento) e o erro segue para o runLoop, que passa ao próximo item sem esperar. Uma
+ * interrupção (encerramento) não conta como falha: a mensagem sem ack volta à fila sozinha.
+ * O ack fica fora desse caminho: depois que o consumo terminou, uma falha ao confirmar não é falha de
+ * consumo (senão uma cópia iria para nova tentativa e o item seria processado duas vezes). O item já conta
+ * como consumido (e entra no dedup, que descarta a reentrega do broker) e o erro do ack segue para o runLoop.
  */
-public class ConsumerService { // Classe de serviço (stateless)
+public class ConsumerService { // Classe de serviço (stateless, pode ser usada por vários workers)
 
     private static final Logger log = LoggerFactory.getLogger(ConsumerService.class);
+    private static final HotPathLog WAITING = HotPathLog.event(log, "aguardando");
+    private static final HotPathLog RECEIVED = HotPathLog.event(log, "recebido");
+    private static final HotPathLog CONSUMED = HotPathLog.event(log, "consumido");
+    private static final HotPathLog DUPLICATE = HotPathLog.event(log, "duplicado");
+    private static final HotPathLog EXPIRED = HotPathLog.event(log, "vencido");
 
     private final String consumerId;                // Quem somos (para logs e auditoria)
     private final MessageSubscriber subscriber;     // Adaptador para receber mensagens (Rabbit/NoOp)
     private final NeedSelectionStrategy needStrategy; // Política para escolher o tipo necessário
+    private final int[] batchSizes;                 // Itens por ciclo (índice = ordinal do tipo; 1 = um por vez)
+    private final long batchWaitMillis;             // Espera pelo primeiro item de um lote
+    private final Deduplicator dedup;               // null = sem deduplicação
 
     /** Construtor com dependências injetadas. */
     public ConsumerService(String consumerId,
                            MessageSubscriber subscriber,
                            NeedSelectionStrategy needStrategy) {
+        this(consumerId, subscriber, needStrategy, null, 0);
+    }
+
+    /** Construtor com consumo em lote por tipo (batchSizes null ou 1 = um item por ciclo). */
+    public ConsumerService(String consumerId,
+                           MessageSubscriber subscriber,
+                           NeedSelectionStrategy needStrategy,
+                           int[] batchSizes,
+                           long batchWaitMillis) {
+        this(consumerId, subscriber, needStrategy, batchSizes, batchWaitMillis, null);
+    }
+
+    /** Construtor completo: lotes por tipo e deduplicação por itemId (dedup null = desligada). */
+    public ConsumerService(String consumerId,
+                           MessageSubscriber subscriber,
+                           NeedSelectionStrategy needStrategy,
+                           int[] batchSizes,
+                           long batchWaitMillis,
+                           Deduplicator dedup) {
         this.consumerId = consumerId;          // Armazena ID do consumidor
         this.subscriber = subscriber;          // Armazena o assinante de mensageria
         this.needStrategy = needStrategy;      // Armazena a estratégia de necessidade
+        this.batchSizes = batchSizes != null ? batchSizes.clone() : ones();
+        this.batchWaitMillis = batchWaitMillis;
+        this.dedup = dedup;
     }
 
-    /** Executa N iterações do ciclo de consumo. */
+    /** Executa N iterações do ciclo de consumo (no modo em lote, N itens). */
     public void runLoop(int iterations) {
-        for (int i = 1; i <= iterations; i++) {
+        for (int i = 1; i <= iterations; ) {
             ProductType need = needStrategy.nextNeededType(); // 1) Escolhe tipo necessário (A/B)
-            long consMs = Timing.consumptionMillis(need);     // 2) Calcula tempo de consumo (dobro de produção)
             try {
-                log.info("[Consumer {}] Iteração {} => precisa tipo={}, aguardando mensagem...", consumerId, i, need);
-                ProductMessage msg = subscriber.receiveOne(need); // 2) Recebe 1 mensagem da fila do tipo escolhido
-                log.info("[Consumer {}] Recebido itemId={} tipo={}. Consumindo por {} ({} ms)...",
-                        consumerId, msg.getItemId(), msg.getType(), fmtSeconds(consMs), consMs);
-                Thread.sleep(consMs); // 3) Simula processamento do item
-                log.info("[Consumer {}] Consumo concluído itemId={} tipo={}", consumerId, msg.getItemId(), msg.getType());
+                WAITING.info("[Consumer {}] Iteração {} => precisa tipo={}, aguardando mensagem...", consumerId, i, need);
+                i += consume(need, iterations - i + 1); // 2-4) Recebe, consome e confirma 1 mensagem (ou um lote) do tipo
             } catch (InterruptedException ie) {
                 Thread.currentThread().interrupt();
                 log.warn("[Consumer {}] Interrompido durante consumo.", consumerId);
                 break;
             } catch (Exception e) {
                 log.error("[Consumer {}] Falha ao receber/consumir: {}", consumerId, e.getMessage(), e);
+                i++; // A falha conta como uma iteração (não fica repetindo para sempre)
+            }
+        }
+    }
+
+    /**
+     * Um ciclo de consumo do tipo: um item (consumeOne) ou, no modo em lote, até min(lote, maxItems).
+     * Retorna quantos itens foram consumidos (0 se o lote esperou e nada chegou, ou se só vieram duplicados).
+     */
+    int consume(ProductType neededType, int maxItems) throws Exception {
+        int batch = Math.min(batchSizes[neededType.ordinal()], maxItems);
+        if (batch <= 1) {
+            return consumeOne(neededType) != null ? 1 : 0;
+        }
+        return consumeBatch(neededType, batch);
+    }
+
+    /**
+     * Processa uma única mensagem (unidade de trabalho), dado um tipo desejado: recebe, simula o consumo
+     * e sinaliza a conclusão. Usado pelo runLoop e pelos workers do ConsumerPool (pode rodar em várias threads).
+     * Retorna null se a mensagem era uma reentrega já consumida (confirmada e descartada) ou se chegou
+     * depois do prazo (desviada para a fila de mensagens mortas).
+     */
+    ProductMessage consumeOne(ProductType neededType) throws Exception {
+        long consMs = Timing.consumptionMillis(neededType); // Calcula tempo de consumo (dobro de produção)
+        ProductMessage msg = subscriber.receiveOne(neededType); // Recebe 1 mensagem da fila do tipo escolhido
+        Timing.observe(msg.getTimestamp()); // Relógio virtual: quem recebe não fica antes de quem produziu
+        if (dedup != null && dedup.isDuplicate(msg)) {
+            subscriber.acknowledge(msg); // Tira a reentrega da fila sem consumir de novo
+            DUPLICATE.info("[Consumer {}] Duplicado descartado itemId={} tipo={}", consumerId, msg.getItemId(), msg.getType());
+            return null;
+        }
+        if (expire(msg)) return null;
+        Metrics.received(neededType, msg);
+        long consumeStart = System.nanoTime();
+        try {
+            RECEIVED.info("[Consumer {}] Recebido itemId={} tipo={}. Consumindo por {} ({} ms)...",
+                    consumerId, msg.getItemId(), msg.getType(), fmtSeconds(consMs), consMs);
+            Timing.sleep(consMs); // Simula processamento do item (relógio configurado)
+        } catch (Exception e) {
+            Metrics.consumeFailed(neededType);
+            fail(msg, e);
+            throw e;
+        }
+        if (dedup != null) dedup.consumed(msg);
+        Metrics.consumed(neededType, msg, System.nanoTime() - consumeStart);
+        subscriber.acknowledge(msg); // Só agora a mensagem pode sair da fila (ack manual); falha aqui não é falha de consumo
+        CONSUMED.info("[Consumer {}] Consumo concluído itemId={} tipo={}", consumerId, msg.getItemId(), msg.getType());
+        return msg;
+    }
+
+    /**
+     * Processa um lote de até maxItems mensagens do tipo: recebe de uma vez, consome o grupo e confirma
+     * todas juntas. Retorna quantos itens foram consumidos (0 se nada chegou em batchWaitMillis).
+     * Duplicados e vencidos saem do lote antes do consumo.
+     */
+    int consumeBatch(ProductType neededType, int maxItems) throws Exception {
+        List<ProductMessage> received = subscriber.receiveBatch(neededType, maxItems, batchWaitMillis);
+        if (received.isEmpty()) return 0;
+        List<ProductMessage> batch = admit(received);
+        if (batch.size() < received.size()) {
+            subscriber.acknowledgeAll(dropped(received, batch)); // Reentregas/vencidos: confirmados já, dê certo ou não o consumo
+        }
+        if (batch.isEmpty()) return 0;
+        long consMs = 0;
+        for (ProductMessage msg : batch) {
+            Timing.observe(msg.getTimestamp());
+            Metrics.received(neededType, msg);
+            consMs += Timing.consumptionMillis(neededType); // Cada item mantém seu tempo de consumo
+        }
+        long consumeStart = System.nanoTime();
+        try {
+            RECEIVED.info("[Consumer {}] Recebido lote de {} itens tipo={}. Consumindo por {} ({} ms)...",
+                    consumerId, batch.size(), neededType, fmtSeconds(consMs), consMs);
+            Timing.sleep(consMs); // Simula o processamento do grupo
+        } catch (Exception e) {
+            for (ProductMessage msg : batch) {
+                Metrics.consumeFailed(neededType);
+                fail(msg, e);
+            }
+            throw e;
+        }
+        long perItemNanos = (System.nanoTime() - consumeStart) / batch.size();
+        for (ProductMessage msg : batch) {
+            if (dedup != null) dedup.consumed(msg);
+            Metrics.consumed(neededType, msg, perItemNanos);
+        }
+        subscriber.acknowledgeAll(batch); // Confirma o lote consumido de uma vez
+        CONSUMED.info("[Consumer {}] Consumo do lote concluído: {} itens tipo={}", consumerId, batch.size(), neededType);
+        return batch.size();
+    }
+
+    // Tira do lote os itemIds já consumidos, as cópias repetidas dentro do próprio lote e os vencidos
+    private List<ProductMessage> admit(List<ProductMessage> received) throws Exception {
+        List<ProductMessage> fresh = new ArrayList<>(received.size());
+        HashSet<String> inBatch = dedup != null ? new HashSet<>() : null;
+        for (ProductMessage msg : received) {
+            String itemId = msg.getItemId();
+            if (dedup != null && (dedup.isDuplicate(msg) || (itemId != null && !inBatch.add(itemId)))) {
+                DUPLICATE.info("[Consumer {}] Duplicado descartado itemId={} tipo={}", consumerId, itemId, msg.getType());
+                continue;
             }
+            if (!expire(msg)) fresh.add(msg);
         }
+        return fresh;
+    }
+
+    // O que admit tirou do lote (batch é subsequência de received, na mesma ordem)
+    private static List<ProductMessage> dropped(List<ProductMessage> received, List<ProductMessage> batch) {
+        List<ProductMessage> dropped = new ArrayList<>(received.size() - batch.size());
+        int next = 0;
+        for (ProductMessage msg : received) {
+            if (next < batch.size() && batch.get(next) == msg) next++;
+            else dropped.add(msg);
+        }
+        return dropped;
+    }
+
+    // Entrega a mensagem falha ao assinante (nova tentativa/estacionamento); um erro aqui acompanha o original
+    private void fail(ProductMessage msg, Exception cause) {
+        if (cause instanceof InterruptedException) return;
+        try {
+            subscriber.fail(msg, cause);
+        } catch (Exception e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    // Desvia para a fila de mensagens mortas uma mensagem cujo prazo já passou; false se ainda está no prazo
+    private boolean expire(ProductMessage msg) throws Exception {
+        long now = Timing.currentTimeMillis();
+        if (!msg.isExpired(now)) return false;
+        subscriber.deadLetter(msg, "expired");
+        Metrics.expired(msg.getType());
+        EXPIRED.info("[Consumer {}] Vencido há {} ms, desviado sem consumo itemId={} tipo={}",
+                consumerId, now - msg.getDeadline(), msg.getItemId(), msg.getType());
+        return true;
     }
 
-    /** Processa uma única mensagem (unidade de trabalho), dado um tipo desejado. */
-    ProductMessage consumeOne(ProductType neededType) {
-        // Método auxiliar se quisermos isolar a unidade de trabalho (não usado neste loop mínimo).
-        throw new UnsupportedOperationException("Receber 1 mensagem do tipo, simular consumo e ack");
+    private static int[] ones() {
+        int[] sizes = new int[ProductType.values().length];
+        Arrays.fill(sizes, 1);
+        return sizes;
     }
 
     // Helper: 7000 ms -> "7.0 s" (formato amigável para o vídeo)
@@ -1,6 +1,6 @@
 package com.trabalho.finalpc.consumer; // Pacote do consumidor
 
-import com.trabalho.finalpc.common.ProductType; // Enum dos tipos de produto (TIPO_A/TIPO_B)
+import com.trabalho.finalpc.common.ProductType; // Tipos de produto registrados (TIPO_A, TIPO_B, ...)
 
 /**
  * Esta interface define como o consumidor decide “o que precisa”.
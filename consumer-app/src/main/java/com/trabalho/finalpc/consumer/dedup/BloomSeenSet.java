@@ -0,0 +1,171 @@
+package com.trabalho.finalpc.consumer.dedup; // Deduplicação do consumidor (DEDUP_MODE)
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray; // Bits do filtro, marcados sem lock
+
+/**
+ * Conjunto aproximado de itemIds para cardinalidade muito alta: dois filtros de Bloom que se revezam por janela.
+ * Minhas decisões:
+ * - Memória fixa, independente do tamanho dos ids: cada geração tem m bits para `capacity` itens com a taxa
+ *   de falso positivo pedida (m = -n ln p / ln²2, k = m/n ln 2 funções de hash).
+ * - Janela de tempo: a geração atual recebe os registros; quando passa do TTL (ou enche), vira a anterior e
+ *   uma nova começa vazia. A consulta olha as duas, então um item é lembrado entre TTL e 2x TTL.
+ * - Custo do falso positivo: um item novo pode ser tomado por duplicado e descartado (à taxa DEDUP_FPP).
+ *   Use lru quando isso não for aceitável e a cardinalidade couber na memória.
+ * - Bits em AtomicLongArray marcados com CAS (sem lock no caminho quente); só a troca de geração é sincronizada.
+ * - Hash: FNV-1a de 64 bits sobre os caracteres, misturado, e k posições por hash duplo (h1 + i*h2).
+ */
+public final class BloomSeenSet implements SeenSet {
+    private final int capacity;      // Itens esperados por janela
+    private final long windowMillis; // 0 = troca só quando enche
+    private final long bits;         // Bits por geração (múltiplo de 64)
+    private final int hashes;        // k
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    /**
+     * @param capacity          itens esperados por janela (a taxa de falso positivo vale até esse número)
+     * @param windowMillis      duração de cada geração (0 = só troca quando atinge a capacidade)
+     * @param falsePositiveRate taxa de falso positivo alvo (ex.: 0.001)
+     */
+    public BloomSeenSet(int capacity, long windowMillis, double falsePositiveRate) {
+        this.capacity = Math.max(1, capacity);
+        this.windowMillis = windowMillis;
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-this.capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bits = Math.max(64, (m + 63) / 64 * 64);
+        this.hashes = (int) Math.max(1, Math.min(16, Math.round((double) bits / this.capacity * ln2)));
+        long now = System.currentTimeMillis();
+        this.current = new Generation(now);
+        this.previous = new Generation(now);
+    }
+
+    @Override
+    public boolean contains(String itemId, long nowMillis) {
+        long h1 = hash(itemId);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1; // Ímpar: as k posições não se repetem em ciclo curto
+        Generation cur = current;
+        Generation prev = previous;
+        return cur.mightContain(h1, h2) || (live(prev, nowMillis) && prev.mightContain(h1, h2));
+    }
+
+    @Override
+    public void add(String itemId, long nowMillis) {
+        Generation cur = current;
+        if ((windowMillis > 0 && nowMillis - cur.startMillis >= windowMillis) || cur.count.get() >= capacity) {
+            cur = rotate(cur, nowMillis);
+        }
+        long h1 = hash(itemId);
+        cur.put(h1, mix(h1 ^ 0x9E3779B97F4A7C15L) | 1);
+    }
+
+    @Override
+    public long size() {
+        long now = System.currentTimeMillis();
+        Generation prev = previous;
+        return current.count.get() + (live(prev, now) ? prev.count.get() : 0);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return 2 * bits / 8;
+    }
+
+    // Formato: long bits, int k, e por geração (atual, anterior): long início, long contagem, longs dos bits
+    @Override
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(bits);
+        out.writeInt(hashes);
+        for (Generation g : new Generation[] {current, previous}) {
+            out.writeLong(g.startMillis);
+            out.writeLong(g.count.get());
+            for (int i = 0; i < g.words.length(); i++) out.writeLong(g.words.get(i));
+        }
+    }
+
+    @Override
+    public void readFrom(DataInputStream in, long nowMillis) throws IOException {
+        long savedBits = in.readLong();
+        int savedHashes = in.readInt();
+        if (savedBits != bits || savedHashes != hashes) {
+            throw new IOException("retrato de outro dimensionamento (DEDUP_CAPACITY/DEDUP_FPP mudaram)");
+        }
+        Generation[] loaded = new Generation[2];
+        for (int g = 0; g < 2; g++) {
+            loaded[g] = new Generation(in.readLong());
+            loaded[g].count.set(in.readLong());
+            for (int i = 0; i < loaded[g].words.length(); i++) loaded[g].words.set(i, in.readLong());
+        }
+        synchronized (this) {
+            previous = loaded[1];
+            current = loaded[0];
+        }
+    }
+
+    // Troca de geração (uma thread só; as outras usam a geração nova que ela criou)
+    private synchronized Generation rotate(Generation seen, long nowMillis) {
+        if (current != seen) return current;
+        previous = seen;
+        current = new Generation(nowMillis);
+        return current;
+    }
+
+    // A anterior só vale até o fim da janela seguinte (sem registros por mais de uma janela, ela já venceu)
+    private boolean live(Generation g, long nowMillis) {
+        return windowMillis <= 0 || nowMillis - g.startMillis < 2 * windowMillis;
+    }
+
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L; // FNV-1a 64
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) { // Finalizador do SplitMix64
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Uma geração: bits do filtro, início da janela e quantos itens novos recebeu. */
+    private final class Generation {
+        final long startMillis;
+        final AtomicLongArray words = new AtomicLongArray((int) (bits / 64));
+        final AtomicLong count = new AtomicLong(); // Itens que marcaram ao menos um bit novo (≈ distintos)
+
+        Generation(long startMillis) {
+            this.startMillis = startMillis;
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        void put(long h1, long h2) {
+            boolean changed = false;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word;
+                while (((word = words.get(index)) & mask) == 0) {
+                    if (words.compareAndSet(index, word, word | mask)) {
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+            if (changed) count.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.trabalho.finalpc.consumer.dedup; // Deduplicação do consumidor (DEDUP_MODE)
+
+import com.trabalho.finalpc.common.ProductMessage;
+import com.trabalho.finalpc.common.config.AppConfig;   // DEDUP_* (modo, capacidade, TTL, retrato)
+import com.trabalho.finalpc.common.metrics.Metrics;    // Taxa de acerto e memória no /metrics
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Etapa de deduplicação do consumidor: com entrega at-least-once, uma reentrega do mesmo itemId é
+ * confirmada e descartada antes de qualquer consumo (sem pagar o tempo de consumo de novo).
+ * Minhas decisões:
+ * - Consulta no recebimento (isDuplicate) e registro só depois do acknowledge (consumed): se o consumo
+ *   falhar, a reentrega ainda é processada. O custo é que duas cópias em andamento ao mesmo tempo (em
+ *   workers diferentes) passam as duas; reentregas chegam depois do ack perdido, que é o caso comum.
+ * - Mensagens sem itemId nunca são tratadas como duplicadas.
+ * - Retrato opcional em disco (DEDUP_SNAPSHOT_FILE) a cada DEDUP_SNAPSHOT_MS e no close(): grava num
+ *   arquivo temporário e troca com ATOMIC_MOVE, então uma queda no meio deixa o retrato anterior inteiro.
+ *   Na partida eu carrego o retrato do mesmo modo; um retrato ilegível é ignorado com aviso.
+ * - Métricas (gauges, rótulo mode): consultas, duplicados, taxa de acerto, itens lembrados e memória.
+ */
+public final class Deduplicator implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(Deduplicator.class);
+    private static final int SNAPSHOT_MAGIC = 0x44445550; // "DDUP"
+
+    private final SeenSet seen;
+    private final String mode;
+    private final Path snapshotFile;                 // null = sem retrato
+    private final ScheduledExecutorService snapshots; // null = sem retrato
+    private final LongAdder checked = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final String labels;
+    private final DoubleSupplier checkedGauge = () -> checked.sum();
+    private final DoubleSupplier duplicatesGauge = () -> duplicates.sum();
+    private final DoubleSupplier hitRatioGauge = this::hitRatio;
+    private final DoubleSupplier entriesGauge;
+    private final DoubleSupplier memoryGauge;
+
+    /**
+     * @param seen           conjunto dos itemIds consumidos
+     * @param mode           nome do modo (rótulo das métricas e cabeçalho do retrato)
+     * @param snapshotFile   arquivo do retrato (null = sem retrato)
+     * @param snapshotMillis intervalo entre retratos
+     */
+    public Deduplicator(SeenSet seen, String mode, Path snapshotFile, long snapshotMillis) {
+        this.seen = seen;
+        this.mode = mode;
+        this.snapshotFile = snapshotFile;
+        this.labels = "mode=\"" + mode + "\"";
+        this.entriesGauge = seen::size;
+        this.memoryGauge = seen::memoryBytes;
+        if (snapshotFile != null) {
+            load();
+            snapshots = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "dedup-snapshot");
+                t.setDaemon(true);
+                return t;
+            });
+            snapshots.scheduleWithFixedDelay(this::snapshotQuietly, snapshotMillis, snapshotMillis, TimeUnit.MILLISECONDS);
+        } else {
+            snapshots = null;
+        }
+        Metrics.registerGauge("dedup_checked", labels, "Mensagens verificadas pela deduplicação", checkedGauge);
+        Metrics.registerGauge("dedup_duplicates", labels, "Reentregas descartadas antes do consumo", duplicatesGauge);
+        Metrics.registerGauge("dedup_hit_ratio", labels, "Fração das mensagens verificadas que eram duplicadas", hitRatioGauge);
+        Metrics.registerGauge("dedup_entries", labels, "itemIds lembrados pela deduplicação", entriesGauge);
+        Metrics.registerGauge("dedup_memory_bytes", labels, "Memória aproximada da deduplicação", memoryGauge);
+    }
+
+    /** Monta a deduplicação a partir de DEDUP_*; null com DEDUP_MODE=off (padrão). */
+    public static Deduplicator fromConfig() {
+        String mode = AppConfig.getDedupMode();
+        if ("off".equals(mode)) return null;
+        int capacity = AppConfig.getDedupCapacity();
+        long ttl = AppConfig.getDedupTtlMillis();
+        SeenSet seen = "bloom".equals(mode)
+                ? new BloomSeenSet(capacity, ttl, AppConfig.getDedupFalsePositiveRate())
+                : new LruSeenSet(capacity, ttl, AppConfig.getDedupShards());
+        String file = AppConfig.getDedupSnapshotFile();
+        log.info("[Dedup] Modo {}: capacidade {}, TTL {} ms{}{}", mode, capacity, ttl,
+                "bloom".equals(mode) ? ", " + seen.memoryBytes() / 1024 + " KiB de filtros" : "",
+                file != null ? ", retrato em " + file : "");
+        return new Deduplicator(seen, mode, file != null ? Paths.get(file) : null, AppConfig.getDedupSnapshotMillis());
+    }
+
+    /** true se o itemId da mensagem já foi consumido (a mensagem deve ser confirmada e descartada). */
+    public boolean isDuplicate(ProductMessage message) {
+        String itemId = message.getItemId();
+        if (itemId == null) return false;
+        checked.increment();
+        if (!seen.contains(itemId, System.currentTimeMillis())) return false;
+        duplicates.increment();
+        return true;
+    }
+
+    /** Registra o itemId de uma mensagem consumida e confirmada. */
+    public void consumed(ProductMessage message) {
+        String itemId = message.getItemId();
+        if (itemId != null) seen.add(itemId, System.currentTimeMillis());
+    }
+
+    /** Fração das mensagens verificadas que eram duplicadas. */
+    public double hitRatio() {
+        long total = checked.sum();
+        return total > 0 ? (double) duplicates.sum() / total : 0;
+    }
+
+    /** Grava o retrato agora (temporário + troca atômica). */
+    public synchronized void snapshot() throws IOException {
+        if (snapshotFile == null) return;
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeUTF(mode);
+            seen.writeTo(out);
+        }
+        Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException e) {
+            log.warn("[Dedup] Falha ao gravar o retrato {}: {}", snapshotFile, e.toString());
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(snapshotFile)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile), 64 * 1024))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("não é um retrato de deduplicação");
+            String saved = in.readUTF();
+            if (!mode.equals(saved)) throw new IOException("retrato do modo " + saved);
+            seen.readFrom(in, System.currentTimeMillis());
+            log.info("[Dedup] Retrato {} carregado: {} itemIds lembrados", snapshotFile, seen.size());
+        } catch (IOException e) {
+            log.warn("[Dedup] Retrato {} ignorado: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    /** Para os retratos periódicos, grava o último e remove os gauges (chamadas repetidas são ignoradas). */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        if (snapshots != null) {
+            snapshots.shutdownNow();
+            snapshotQuietly(); // Último retrato com tudo o que foi consumido
+        }
+        Metrics.unregisterGauge("dedup_checked", labels, checkedGauge);
+        Metrics.unregisterGauge("dedup_duplicates", labels, duplicatesGauge);
+        Metrics.unregisterGauge("dedup_hit_ratio", labels, hitRatioGauge);
+        Metrics.unregisterGauge("dedup_entries", labels, entriesGauge);
+        Metrics.unregisterGauge("dedup_memory_bytes", labels, memoryGauge);
+        log.info("[Dedup] {} duplicados descartados ({} % das verificadas)", duplicates.sum(),
+                String.format(Locale.US, "%.2f", hitRatio() * 100));
+    }
+}
@@ -0,0 +1,159 @@
+package com.trabalho.finalpc.consumer.dedup; // Deduplicação do consumidor (DEDUP_MODE)
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Conjunto exato de itemIds com capacidade e TTL, particionado para reduzir a disputa entre workers.
+ * Minhas decisões:
+ * - Partições (potência de 2, escolhidas pelo hash do itemId), cada uma um LinkedHashMap sincronizado
+ *   na própria partição: dois workers só disputam o lock se caírem na mesma partição.
+ * - Ordem de inserção = ordem de tempo: add remove e reinsere a chave, então o mais antigo fica sempre na
+ *   cabeça. Isso dá as duas evicções de graça: por capacidade (removeEldestEntry) e por TTL (varro a
+ *   cabeça enquanto estiver vencida, a cada add).
+ * - contains não renova a entrada: o que importa é há quanto tempo o item foi consumido, não consultado.
+ * - Memória estimada por entrada (nó do mapa + Long + String compacta) mais os bytes das chaves.
+ */
+public final class LruSeenSet implements SeenSet {
+    private static final int ENTRY_BYTES = 104; // Nó do LinkedHashMap (~48) + slot da tabela + Long (16) + String (~40)
+
+    private final Shard[] shards;
+    private final int mask;
+    private final long ttlMillis; // 0 = sem expiração (só capacidade)
+
+    /**
+     * @param capacity  itemIds lembrados no total (dividido entre as partições)
+     * @param ttlMillis por quanto tempo um item conta como visto (0 = até ser removido por capacidade)
+     * @param shards    partições (arredondado para cima até potência de 2)
+     */
+    public LruSeenSet(int capacity, long ttlMillis, int shards) {
+        int n = shards <= 1 ? 1 : Integer.highestOneBit(shards - 1) << 1;
+        this.shards = new Shard[n];
+        this.mask = n - 1;
+        this.ttlMillis = ttlMillis;
+        int perShard = Math.max(1, (capacity + n - 1) / n);
+        for (int i = 0; i < n; i++) this.shards[i] = new Shard(perShard);
+    }
+
+    @Override
+    public boolean contains(String itemId, long nowMillis) {
+        Shard shard = shardOf(itemId);
+        synchronized (shard) {
+            Long at = shard.get(itemId);
+            if (at == null) return false;
+            if (expired(at, nowMillis)) {
+                shard.removeKey(itemId);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void add(String itemId, long nowMillis) {
+        Shard shard = shardOf(itemId);
+        synchronized (shard) {
+            shard.removeKey(itemId);              // Reinsere no fim (mais recente)
+            shard.keyBytes += itemId.length();
+            shard.put(itemId, nowMillis);
+            shard.expire(nowMillis);
+        }
+    }
+
+    @Override
+    public long size() {
+        long n = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) { n += shard.size(); }
+        }
+        return n;
+    }
+
+    @Override
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) { bytes += (long) shard.size() * ENTRY_BYTES + shard.keyBytes; }
+        }
+        return bytes;
+    }
+
+    // Formato: por partição, int quantidade + (UTF itemId, long instante) do mais antigo ao mais novo
+    @Override
+    public void writeTo(DataOutputStream out) throws IOException {
+        long now = System.currentTimeMillis();
+        out.writeInt(shards.length);
+        for (Shard shard : shards) {
+            Map.Entry<?, ?>[] entries;
+            synchronized (shard) { // Copio sob o lock e escrevo fora dele (não seguro os workers no disco)
+                shard.expire(now);
+                entries = shard.entrySet().toArray(new Map.Entry<?, ?>[0]);
+            }
+            out.writeInt(entries.length);
+            for (Map.Entry<?, ?> e : entries) {
+                out.writeUTF((String) e.getKey());
+                out.writeLong((Long) e.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void readFrom(DataInputStream in, long nowMillis) throws IOException {
+        int n = in.readInt();
+        for (int s = 0; s < n; s++) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String itemId = in.readUTF();
+                long at = in.readLong();
+                if (!expired(at, nowMillis)) add(itemId, at); // Reparticiona pelo hash (DEDUP_SHARDS pode ter mudado)
+            }
+        }
+    }
+
+    private boolean expired(long at, long nowMillis) {
+        return ttlMillis > 0 && nowMillis - at >= ttlMillis;
+    }
+
+    private Shard shardOf(String itemId) {
+        int h = itemId.hashCode();
+        return shards[(h ^ (h >>> 16)) & mask];
+    }
+
+    /** Uma partição: mapa em ordem de inserção com limite de tamanho. Acesso sempre sob o lock da partição. */
+    private final class Shard extends LinkedHashMap<String, Long> {
+        private final int capacity;
+        long keyBytes; // Soma do tamanho das chaves (estimativa de memória)
+
+        Shard(int capacity) {
+            super(Math.min(capacity, 1 << 16) * 4 / 3 + 1);
+            this.capacity = capacity;
+        }
+
+        void removeKey(String itemId) {
+            if (remove(itemId) != null) keyBytes -= itemId.length();
+        }
+
+        // Remove da cabeça tudo o que já venceu (a cabeça é sempre o registro mais antigo)
+        void expire(long nowMillis) {
+            if (ttlMillis <= 0) return;
+            Iterator<Map.Entry<String, Long>> it = entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                if (!expired(eldest.getValue(), nowMillis)) break;
+                keyBytes -= eldest.getKey().length();
+                it.remove();
+            }
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            if (size() <= capacity) return false;
+            keyBytes -= eldest.getKey().length();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.trabalho.finalpc.consumer.dedup; // Deduplicação do consumidor (DEDUP_MODE)
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Conjunto limitado dos itemIds já consumidos, usado para descartar reentregas antes do consumo.
+ * Implementações: LruSeenSet (exato, com TTL e capacidade) e BloomSeenSet (aproximado, por janela de tempo).
+ * Os tempos são epoch ms (relógio de parede), para que um retrato lido depois de reiniciar continue valendo.
+ * Todas as implementações são thread-safe (vários workers do ConsumerPool consultam o mesmo conjunto).
+ */
+public interface SeenSet {
+
+    /** true se o itemId foi registrado e ainda não expirou (no bloom, “talvez”: há falsos positivos). */
+    boolean contains(String itemId, long nowMillis);
+
+    /** Registra o itemId como consumido no instante informado. */
+    void add(String itemId, long nowMillis);
+
+    /** Quantos itemIds estão lembrados agora (no bloom, uma estimativa). */
+    long size();
+
+    /** Memória aproximada ocupada pelo conjunto, em bytes. */
+    long memoryBytes();
+
+    /** Grava o conteúdo atual (sem os expirados) no retrato. */
+    void writeTo(DataOutputStream out) throws IOException;
+
+    /** Carrega um retrato gravado por writeTo na mesma implementação, ignorando o que já expirou. */
+    void readFrom(DataInputStream in, long nowMillis) throws IOException;
+}
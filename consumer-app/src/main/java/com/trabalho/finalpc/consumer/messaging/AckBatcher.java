@@ -0,0 +1,77 @@
+package com.trabalho.finalpc.consumer.messaging; // Adaptadores de mensageria do consumidor
+
+import com.rabbitmq.client.Channel; // Canal onde as entregas chegaram (delivery tags são por canal)
+
+import java.io.IOException;
+import java.util.TreeSet; // Conjuntos ordenados de delivery tags
+
+/**
+ * Agrupa acks de um canal em um único basicAck(multiple=true).
+ * Minhas decisões:
+ * - Eu registro toda entrega recebida (track) e cada consumo concluído (complete).
+ * - O ack múltiplo só pode cobrir tags já concluídas, então eu confirmo até a menor tag ainda pendente - 1
+ *   (consumos fora de ordem ou entregas ainda no buffer nunca são confirmados por engano).
+ * - O envio acontece ao juntar ACK_BATCH_SIZE conclusões ou quando a mais antiga passa de ACK_BATCH_MILLIS.
+ * - Toda tag registrada precisa sair de unsettled (complete ou reject): uma tag esquecida ali segura o ack
+ *   múltiplo do canal para sempre. Por isso quem não consegue decodificar uma entrega a rejeita aqui.
+ * Todos os métodos são sincronizados: o canal é usado pela thread do serviço e pelo timer de flush.
+ */
+final class AckBatcher {
+    private final Channel channel;
+    private final int batchSize;
+    private final long windowMillis;
+
+    private final TreeSet<Long> unsettled = new TreeSet<>(); // Entregues e ainda não concluídas
+    private final TreeSet<Long> completed = new TreeSet<>(); // Concluídas e ainda não confirmadas no broker
+    private long oldestCompletedAt;                          // Quando a conclusão mais antiga pendente ocorreu
+
+    AckBatcher(Channel channel, int batchSize, long windowMillis) {
+        this.channel = channel;
+        this.batchSize = batchSize;
+        this.windowMillis = windowMillis;
+    }
+
+    Channel channel() {
+        return channel;
+    }
+
+    /** Registra uma entrega recebida (ainda não consumida). */
+    synchronized void track(long deliveryTag) {
+        unsettled.add(deliveryTag);
+    }
+
+    /** Marca o consumo de uma entrega como concluído e envia o lote se ele estiver cheio. */
+    synchronized void complete(long deliveryTag) throws IOException {
+        if (!unsettled.remove(deliveryTag)) return; // Tag desconhecida ou já confirmada
+        if (completed.isEmpty()) oldestCompletedAt = System.currentTimeMillis();
+        completed.add(deliveryTag);
+        if (completed.size() >= batchSize) flush();
+    }
+
+    /**
+     * Rejeita uma entrega que não será confirmada e a tira das pendentes: sem reenfileirar (corpo ilegível)
+     * ou de volta à fila (requeue, quando a cópia para nova tentativa não pôde ser publicada).
+     */
+    synchronized void reject(long deliveryTag, boolean requeue) throws IOException {
+        if (!unsettled.remove(deliveryTag)) return; // Tag desconhecida ou já liquidada
+        channel.basicReject(deliveryTag, requeue);
+        if (completed.size() >= batchSize) flush(); // Ela podia ser o que segurava o lote
+    }
+
+    /** Envia os acks pendentes se a janela de tempo já expirou (chamado pelo timer). */
+    synchronized void flushIfDue() throws IOException {
+        if (!completed.isEmpty() && System.currentTimeMillis() - oldestCompletedAt >= windowMillis) flush();
+    }
+
+    /** Confirma no broker o maior prefixo contíguo de tags concluídas. */
+    synchronized void flush() throws IOException {
+        if (completed.isEmpty() || !channel.isOpen()) return;
+        long upTo = completed.last();
+        if (!unsettled.isEmpty()) upTo = Math.min(upTo, unsettled.first() - 1); // Não confirma o que ainda está pendente
+        if (upTo < completed.first()) return; // Nada contíguo para confirmar ainda
+        upTo = completed.floor(upTo); // Termina numa tag concluída (não numa rejeitada, que o broker já esqueceu)
+        channel.basicAck(upTo, true);
+        completed.headSet(upTo, true).clear();
+        if (!completed.isEmpty()) oldestCompletedAt = System.currentTimeMillis();
+    }
+}
@@ -2,26 +2,44 @@ package com.trabalho.finalpc.consumer.messaging; // Adaptadores de mensageria do
 
 import com.trabalho.finalpc.common.ProductMessage;              // DTO que retornamos
 import com.trabalho.finalpc.common.ProductType;                 // Tipo solicitado nesta iteração
+import com.trabalho.finalpc.common.logging.HotPathLog;          // Logs por mensagem (LOG_MODE)
 import com.trabalho.finalpc.common.messaging.MessageSubscriber; // Porta que implementamos (simulada)
 import org.slf4j.Logger;                                        // Logger de acompanhamento
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Este adaptador NÃO busca no broker. Eu simulo o recebimento criando um ProductMessage.
  * É útil para testar o ConsumerService sem depender da infraestrutura do Rabbit.
  */
 public class NoOpSubscriber implements MessageSubscriber {
     private static final Logger log = LoggerFactory.getLogger(NoOpSubscriber.class);
+    private static final HotPathLog RECEIVED = HotPathLog.event(log, "recebido");
 
     @Override
     public ProductMessage receiveOne(ProductType type) { // Simulamos “1 mensagem” do tipo solicitado
-        ProductMessage msg = new ProductMessage();       // Gera itemId e timestamp automaticamente
+        ProductMessage msg = new ProductMessage();       // Gera itemId (gerador do processo) e timestamp
         msg.setType(type);                               // Define o tipo conforme necessidade
         msg.setProducerId("no-broker");                 // Indica que veio da simulação
-        log.info("[NoOpSubscriber] Simulando recebimento => itemId={} tipo={}", msg.getItemId(), msg.getType());
+        RECEIVED.info("[NoOpSubscriber] Simulando recebimento => itemId={} tipo={}", msg.getItemId(), msg.getType());
         return msg;                                      // Entregamos a “mensagem” ao serviço
     }
 
+    @Override
+    public List<ProductMessage> receiveBatch(ProductType type, int maxItems, long maxWaitMillis) { // Lote sempre cheio
+        List<ProductMessage> batch = new ArrayList<>(maxItems);
+        for (int i = 0; i < maxItems; i++) {
+            ProductMessage msg = new ProductMessage();
+            msg.setType(type);
+            msg.setProducerId("no-broker");
+            batch.add(msg);
+        }
+        RECEIVED.info("[NoOpSubscriber] Simulando recebimento de lote => {} itens tipo={}", batch.size(), type);
+        return batch;
+    }
+
     @Override
     public void close() { // Nenhum recurso externo
     }
@@ -1,85 +1,610 @@
 package com.trabalho.finalpc.consumer.messaging; // Adaptador de consumo real (RabbitMQ)
 
+import com.rabbitmq.client.AMQP;                // Propriedades da entrega (contentType)
 import com.rabbitmq.client.Channel;             // Canal AMQP (operações de get/declaração)
-import com.rabbitmq.client.Connection;          // Conexão AMQP
-import com.rabbitmq.client.ConnectionFactory;   // Fábrica de conexão
+import com.rabbitmq.client.Delivery;            // Entrega recebida via basicConsume (modo push)
 import com.rabbitmq.client.GetResponse;         // Resposta do basicGet
-import com.trabalho.finalpc.common.MessagingConstants; // Nomes de exchange/filas/rk
+import com.trabalho.finalpc.common.MessagingConstants; // Exchange de mensagens mortas
 import com.trabalho.finalpc.common.ProductMessage;
 import com.trabalho.finalpc.common.ProductType;
 import com.trabalho.finalpc.common.config.AppConfig;    // Host/porta/user/pass do broker
+import com.trabalho.finalpc.common.logging.HotPathLog;  // Logs por mensagem (LOG_MODE/LOG_PAYLOADS)
 import com.trabalho.finalpc.common.messaging.MessageSubscriber;               // Porta que implementamos
-import com.trabalho.finalpc.common.serialization.JacksonProductMessageCodec;  // JSON com Jackson
-import com.trabalho.finalpc.common.serialization.JsonCodec;                   // Abstração de JSON
+import com.trabalho.finalpc.common.messaging.QueueStats;                      // Profundidade das filas (política adaptive)
+import com.trabalho.finalpc.common.messaging.rabbit.RabbitConnectionPool;     // Conexões compartilhadas do processo
+import com.trabalho.finalpc.common.messaging.rabbit.Retries;                  // Níveis de espera e x-retry-count
+import com.trabalho.finalpc.common.messaging.rabbit.Shards;                   // Filas (shards) de cada tipo
+import com.trabalho.finalpc.common.messaging.rabbit.Topology;                 // Exchange/filas declarados uma vez por processo
+import com.trabalho.finalpc.common.metrics.Metrics;                           // Gauges de buffer local e acks pendentes
+import com.trabalho.finalpc.common.serialization.ByteCodec;                   // Abstração de codec em bytes
+import com.trabalho.finalpc.common.serialization.ProductMessageCodecs;        // Codec escolhido por contentType
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.StandardCharsets; // Decodificação do corpo
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;                 // Mensagem entregue -> delivery tag (por identidade)
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;        // Buffer local de entregas (modo push)
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;  // Implementação FIFO thread-safe
+import java.util.concurrent.PriorityBlockingQueue; // Buffer EDF (CONSUMER_ORDER=edf)
+import java.util.concurrent.ScheduledExecutorService; // Timer que envia acks pendentes por tempo
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger; // Rodízio entre shards no modo pull
+import java.util.concurrent.atomic.AtomicLong;    // Ordem de chegada (desempate do buffer EDF)
+import java.util.function.DoubleSupplier;
 
 /**
- * Este adaptador consome 1 mensagem do tipo desejado usando basicGet (pull).
- * Minha decisão: autoAck=true para simplicidade (a mensagem sai da fila ao receber). Para robustez extra,
- * eu poderia usar autoAck=false e chamar basicAck após o “sleep”, mas não é exigência do enunciado.
+ * Este adaptador consome 1 mensagem do tipo desejado. Ele tem dois modos (ENV SUBSCRIBER_MODE):
+ * - pull (padrão): basicGet com autoAck=true em polling, como na versão original da demonstração. Cada
+ *   worker faz o basicGet no seu canal do pool (threadChannel), sem disputar um canal único.
+ * - push: basicConsume em um canal por tipo, com basicQos (RABBITMQ_PREFETCH) limitando quantas
+ *   entregas ficam no buffer local. O receiveOne só espera no buffer do tipo pedido e retorna assim
+ *   que a entrega chega (sem o atraso de até 300 ms do polling e sem um round trip por mensagem).
+ * No modo push o ack é manual e enviado quando a mensagem é entregue ao serviço, preservando a
+ * semântica do autoAck (sai da fila ao receber) e fazendo o prefetch ser respeitado pelo broker.
+ * Com ACK_MODE=manual (em qualquer modo) o ack só acontece em acknowledge(), depois do consumo: se o
+ * processo cair, o broker reentrega o que estava em mãos (at-least-once). Os acks são agrupados pelo
+ * AckBatcher em basicAck(multiple=true) por tamanho/tempo, evitando um round trip extra por mensagem.
+ * O codec é escolhido pelo contentType de cada entrega (JSON ou binário), direto dos bytes do corpo.
+ * Como QueueStats, a profundidade de um tipo é o messageCount da fila (queueDeclarePassive, num canal
+ * só para isso) somado ao buffer local do modo push.
+ * Os canais vêm do RabbitConnectionPool compartilhado "consumer-app" (espalhados entre as conexões) e a
+ * topologia é declarada pela Topology uma vez por processo.
+ * Com SHARDS_PER_TYPE > 1 cada tipo tem K filas e este assinante consome de todas: no pull, o basicGet
+ * percorre os shards em rodízio; no push, há um consumidor por shard no canal do tipo, todos alimentando
+ * o mesmo buffer (prefetch dividido entre eles). Como todo assinante está em todos os shards, o broker
+ * reparte as entregas entre quem estiver conectado: a carga se redistribui sozinha quando assinantes
+ * entram ou saem, sem atribuição de shards.
+ * receiveBatch: no push, espera a primeira entrega e drena as já pré-buscadas (prefetch) do buffer; no
+ * pull, repete o basicGet até encher o lote ou os shards esvaziarem. Com ack manual, acknowledgeAll
+ * conclui o lote inteiro e envia um único basicAck(multiple) na hora; com ack automático cada entrega
+ * continua confirmada ao ser entregue (um ack múltiplo poderia cobrir tags em mãos de outros workers).
+ * Com CONSUMER_ORDER=edf, o buffer do modo push deixa de ser FIFO: as entregas são decodificadas já na
+ * thread do client e saem por prazo mais cedo (sem prazo = por último), depois maior prioridade, depois
+ * chegada. Com filas fundas, o prefetch traz um punhado de itens e os urgentes passam na frente dentro
+ * dele; a ordem no broker fica com x-max-priority (QUEUE_MAX_PRIORITY). O pull só tem a ordem do broker.
+ * deadLetter republica a mensagem no exchange de mensagens mortas (cabeçalho x-dead-reason) e só então
+ * a confirma. Uma entrega do modo push que o codec não lê (corpo corrompido, contentType desconhecido) vai
+ * crua para o mesmo exchange (x-dead-reason=undecodable) e é confirmada ali mesmo: ela nunca chega ao
+ * serviço, não volta ao buffer e não segura uma vaga do prefetch. No pull vale o mesmo, e com ack manual a
+ * tag é liquidada no AckBatcher (se o desvio falhar, rejeitada sem reenfileirar), senão o ack múltiplo do
+ * canal pararia nela.
+ * fail (consumo falhou) republica a mensagem no nível de espera seguinte (Retries) com x-retry-count + 1
+ * e a confirma: o worker segue na hora e o broker a devolve à fila do tipo quando o TTL do nível vencer.
+ * Esgotados os níveis, ela vai para o estacionamento. O x-retry-count de cada entrega vira getRetryCount.
+ * Essas cópias (nova tentativa, estacionamento, mensagens mortas) saem pelo canal da thread em modo
+ * confirm e o original só é confirmado depois que o broker confirmou a cópia (waitForConfirmsOrDie, até
+ * CONFIRM_TIMEOUT_MS): é o caminho de falha, então um round trip por mensagem não pesa. Se a cópia não for
+ * confirmada, o original volta à fila (ack manual) em vez de sumir ou de travar o ack múltiplo.
  */
-public class RabbitSubscriber implements MessageSubscriber {
+public class RabbitSubscriber implements MessageSubscriber, QueueStats {
     private static final Logger log = LoggerFactory.getLogger(RabbitSubscriber.class);
+    private static final HotPathLog RECEIVED = HotPathLog.event(log, "recebido");
+    private static final Comparator<Buffered> EDF = Comparator
+            .comparingLong((Buffered b) -> b.deadline)
+            .thenComparing(Comparator.comparingInt((Buffered b) -> b.priority).reversed())
+            .thenComparingLong(b -> b.seq);
 
-    private final Connection connection;
-    private final Channel channel;
-    private final JsonCodec<ProductMessage> codec;
+    private final RabbitConnectionPool pool; // Referência ao pool compartilhado, liberada no close
+    private final Channel channel;           // Canal de topologia e de basicGet com ack manual (modo pull)
+    private final ByteCodec<ProductMessage> defaultCodec; // Usado quando a entrega não traz contentType
+    private final boolean push;              // true = basicConsume + buffer local
+    private final boolean manualAck;         // true = ack só em acknowledge(), agrupado
+    private final boolean edf;               // true = buffer push ordenado por prazo/prioridade
+    private final AtomicLong arrivals = new AtomicLong(); // Sequência de chegada (modo edf)
+    private final ByteCodec<ProductMessage> republishCodec = ProductMessageCodecs.configured(); // deadLetter/fail
+    private final long confirmTimeoutMillis = AppConfig.getConfirmTimeoutMillis(); // Espera pela confirmação das cópias
+    private final Lane[] lanes;              // Uma “faixa” por ProductType (indexada por ordinal)
+    private final Map<ProductMessage, PendingAck> pending =   // Mensagens entregues aguardando acknowledge()
+            Collections.synchronizedMap(new IdentityHashMap<>());
+    private final ScheduledExecutorService ackFlusher;       // null quando o ack é automático
+    private final DoubleSupplier unackedGauge = pending::size;
+    private final DoubleSupplier[] bufferedGauges;           // Profundidade do buffer local por tipo (modo push)
+    private Channel statsChannel;                            // Canal das consultas de profundidade (protegido por lanes)
 
     public RabbitSubscriber() throws Exception {
-        this(new JacksonProductMessageCodec());
+        this(ProductMessageCodecs.json());
     }
 
-    public RabbitSubscriber(JsonCodec<ProductMessage> codec) throws Exception { // Permite testar com outro codec
-        this.codec = codec;
+    public RabbitSubscriber(ByteCodec<ProductMessage> defaultCodec) throws Exception { // Permite testar com outro codec
+        this.defaultCodec = defaultCodec;
+        this.push = "push".equals(AppConfig.getSubscriberMode());
+        this.manualAck = AppConfig.isManualAck();
+        this.edf = push && "edf".equals(AppConfig.getConsumerOrder());
 
-        ConnectionFactory factory = new ConnectionFactory();           // Config de conexão AMQP
-        factory.setHost(AppConfig.getRabbitHost());
-        factory.setPort(AppConfig.getRabbitPort());
-        factory.setUsername(AppConfig.getRabbitUser());
-        factory.setPassword(AppConfig.getRabbitPass());
+        this.pool = RabbitConnectionPool.shared("consumer-app");
+        ProductType[] types = ProductType.values();
+        this.lanes = new Lane[types.length];
+        try {
+            this.channel = pool.openChannel();
+            Topology.ensureDeclared(channel); // Só o primeiro publicador/assinante do processo declara
+            AckBatcher pullAcks = newAckBatcher(channel, 0); // Ack manual em pull: tipos compartilham o canal (e as tags)
+            for (ProductType type : types) {
+                lanes[type.ordinal()] = push ? openPushLane(type) : new Lane(Shards.queues(type), channel, null, pullAcks);
+            }
+        } catch (Exception e) {
+            pool.close(); // Sem assinante, a referência ao pool não seria liberada
+            throw e;
+        }
 
-        this.connection = factory.newConnection("consumer-app");      // Abre conexão
-        this.channel = connection.createChannel();                     // Cria canal
+        if (manualAck) {
+            long window = AppConfig.getAckBatchMillis();
+            this.ackFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "ack-flusher");
+                t.setDaemon(true); // Não impede o encerramento da JVM
+                return t;
+            });
+            ackFlusher.scheduleWithFixedDelay(this::flushDueAcks, window, window, TimeUnit.MILLISECONDS);
+        } else {
+            this.ackFlusher = null;
+        }
 
-        // Garante topologia (idempotente)
-        channel.exchangeDeclare(MessagingConstants.EXCHANGE_PRODUCTS, "direct", true); // exchange durável
-        channel.queueDeclare(MessagingConstants.QUEUE_TYPE_A, true, false, false, null); // filas duráveis
-        channel.queueDeclare(MessagingConstants.QUEUE_TYPE_B, true, false, false, null);
-        channel.queueBind(MessagingConstants.QUEUE_TYPE_A, MessagingConstants.EXCHANGE_PRODUCTS, MessagingConstants.ROUTING_KEY_TYPE_A);
-        channel.queueBind(MessagingConstants.QUEUE_TYPE_B, MessagingConstants.EXCHANGE_PRODUCTS, MessagingConstants.ROUTING_KEY_TYPE_B);
+        this.bufferedGauges = new DoubleSupplier[types.length];
+        if (push) {
+            for (ProductType type : types) {
+                BlockingQueue<Buffered> buffer = lanes[type.ordinal()].buffer;
+                bufferedGauges[type.ordinal()] = buffer::size;
+                Metrics.registerGauge("subscriber_buffered", Metrics.typeLabel(type),
+                        "Entregas no buffer local do modo push", bufferedGauges[type.ordinal()]);
+            }
+        }
+        if (manualAck) {
+            Metrics.registerGauge("subscriber_unacked", "", "Mensagens entregues aguardando acknowledge", unackedGauge);
+        }
 
-        log.info("[RabbitSubscriber] Conectado a {}:{} como {}. Filas prontas.",
-                AppConfig.getRabbitHost(), AppConfig.getRabbitPort(), AppConfig.getRabbitUser());
+        log.info("[RabbitSubscriber] Conectado a {}:{} como {}. Filas prontas (modo={}{}, ack={}).",
+                AppConfig.getRabbitHost(), AppConfig.getRabbitPort(), AppConfig.getRabbitUser(),
+                push ? "push" : "pull", push ? ", prefetch=" + AppConfig.getRabbitPrefetch() + (edf ? ", edf" : "") : "",
+                manualAck ? "manual" : "auto");
+    }
+
+    // prefetch > 0: o lote não passa de metade do que o basicQos deixa em aberto (senão só a janela o enviaria)
+    private AckBatcher newAckBatcher(Channel ch, int prefetch) {
+        if (!manualAck) return null;
+        int batchSize = AppConfig.getAckBatchSize();
+        if (prefetch > 0 && batchSize > Math.max(1, prefetch / 2)) {
+            log.info("[RabbitSubscriber] ACK_BATCH_SIZE={} reduzido para {} (prefetch {} por consumidor)",
+                    batchSize, Math.max(1, prefetch / 2), prefetch);
+            batchSize = Math.max(1, prefetch / 2);
+        }
+        return new AckBatcher(ch, batchSize, AppConfig.getAckBatchMillis());
+    }
+
+    // Modo push: canal próprio por tipo (prefetch independente por fila) e consumidores que só enfileiram localmente.
+    private Lane openPushLane(ProductType type) throws Exception {
+        String[] queues = Shards.queues(type);
+        Channel laneChannel = pool.openChannel();                          // Canais dos tipos espalhados pelas conexões
+        int prefetch = (AppConfig.getRabbitPrefetch() + queues.length - 1) / queues.length; // Dividido entre os shards
+        laneChannel.basicQos(prefetch);                                    // Limita entregas não confirmadas por consumidor
+        BlockingQueue<Buffered> buffer = edf                                // Limitado na prática pelo prefetch
+                ? new PriorityBlockingQueue<>(Math.max(11, AppConfig.getRabbitPrefetch()), EDF)
+                : new LinkedBlockingQueue<>();
+        AckBatcher acks = newAckBatcher(laneChannel, prefetch);
+        for (String queue : queues) {
+            laneChannel.basicConsume(queue, false,                          // autoAck=false para o basicQos valer
+                    (tag, delivery) -> {                                    // Thread do client apenas repassa
+                        if (acks != null) acks.track(delivery.getEnvelope().getDeliveryTag());
+                        buffer.add(edf ? ordered(queue, delivery) : new Buffered(delivery, null));
+                    },
+                    tag -> log.warn("[RabbitSubscriber] Consumo cancelado pelo broker em queue='{}'", queue));
+        }
+        return new Lane(queues, laneChannel, buffer, acks);
     }
 
     @Override
     public ProductMessage receiveOne(ProductType type) throws Exception {
-        final String queue = (type == ProductType.TIPO_A) // Tipo solicitado -> fila correspondente
-                ? MessagingConstants.QUEUE_TYPE_A
-                : MessagingConstants.QUEUE_TYPE_B;
+        Lane lane = lanes[type.ordinal()]; // Tipo solicitado -> fila/canal correspondente
+
+        if (push) {
+            while (true) {
+                ProductMessage msg = accept(lane, lane.buffer.take());     // Bloqueia só até a próxima entrega
+                if (msg != null) return msg;                               // null = ilegível, já desviada
+            }
+        }
 
         // Polling até encontrar uma mensagem desse tipo
         while (true) {
-            GetResponse resp = channel.basicGet(queue, true); // autoAck=true (remove ao receber)
-            if (resp != null) {
-                String json = new String(resp.getBody(), StandardCharsets.UTF_8); // Decodifica corpo
-                ProductMessage msg = codec.fromJson(json);                         // JSON -> DTO
-                log.info("[RabbitSubscriber] Recebido de queue='{}' => {}", queue, json); // Log útil na demo
-                return msg; // Entregamos a mensagem ao serviço para “consumo” (sleep)
+            if (manualAck) {
+                ProductMessage msg = pollManual(lane);
+                if (msg != null) return msg;
+            } else {
+                Channel pullChannel = pool.threadChannel();
+                for (int i = 0, start = lane.nextShard(); i < lane.queues.length; i++) { // Uma volta pelos shards
+                    String queue = lane.queues[(start + i) % lane.queues.length];
+                    GetResponse resp = pullChannel.basicGet(queue, true); // autoAck=true (remove ao receber)
+                    ProductMessage msg = resp != null ? decodeOrDeadLetter(queue, resp) : null;
+                    if (msg != null) {
+                        return msg; // Entregamos a mensagem ao serviço para “consumo” (sleep)
+                    }
+                }
             }
             Thread.sleep(300); // Backoff pequeno para evitar busy-wait quando a fila está vazia
         }
     }
 
     @Override
-    public void close() throws Exception { // Fecha canal e conexão com segurança
+    public List<ProductMessage> receiveBatch(ProductType type, int maxItems, long maxWaitMillis) throws Exception {
+        Lane lane = lanes[type.ordinal()];
+        List<ProductMessage> batch = new ArrayList<>(Math.min(maxItems, 64));
+
+        if (push) {
+            Buffered first = lane.buffer.poll(maxWaitMillis, TimeUnit.MILLISECONDS);
+            if (first == null) return batch;                               // Nada chegou no prazo
+            List<Buffered> deliveries = new ArrayList<>(Math.min(maxItems, 64));
+            deliveries.add(first);
+            if (maxItems > 1) lane.buffer.drainTo(deliveries, maxItems - 1); // Só o que já está no buffer local
+            for (Buffered delivery : deliveries) {
+                ProductMessage msg = accept(lane, delivery);
+                if (msg != null) batch.add(msg);                           // Ilegíveis saem do lote (já desviadas)
+            }
+            return batch;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        while (true) {
+            pullInto(lane, batch, maxItems);
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (!batch.isEmpty() || remainingMillis <= 0) return batch;
+            Thread.sleep(Math.min(300, remainingMillis));                  // Mesmo backoff do receiveOne
+        }
+    }
+
+    // Modo edf: decodifica na chegada para ordenar pelo prazo/prioridade (corpo ilegível guarda o erro e sai primeiro)
+    private Buffered ordered(String queue, Delivery delivery) {
+        try {
+            return new Buffered(delivery, decode(queue, delivery.getProperties(), delivery.getBody()), arrivals.getAndIncrement());
+        } catch (Exception e) {
+            return new Buffered(delivery, e, arrivals.getAndIncrement());
+        }
+    }
+
+    // Modo push: decodifica a entrega (se ainda não foi) e confirma (ack automático) ou registra para acknowledge() (manual).
+    // null = corpo ilegível: desviado para as mensagens mortas e confirmado aqui, sem chegar ao serviço.
+    private ProductMessage accept(Lane lane, Buffered buffered) throws Exception {
+        Delivery delivery = buffered.delivery;
+        long tag = delivery.getEnvelope().getDeliveryTag();
+        ProductMessage msg = buffered.message;
+        Exception error = buffered.error;
+        if (msg == null && error == null) {
+            try {
+                msg = decode(lane.name, delivery.getProperties(), delivery.getBody());
+            } catch (Exception e) {
+                error = e;
+            }
+        }
+        if (error != null) {
+            boolean kept = deadLetterUndecodable(lane.name, delivery.getProperties(), delivery.getBody(), error);
+            if (lane.acks != null) {                                       // Liquidada: não trava o ack múltiplo
+                if (kept) lane.acks.complete(tag); else lane.acks.reject(tag, false);
+            } else if (kept) {
+                lane.channel.basicAck(tag, false);
+            } else {
+                lane.channel.basicReject(tag, false);                      // Sem cópia: descarta (não volta à fila)
+            }
+            return null;
+        }
+        if (manualAck) {
+            pending.put(msg, new PendingAck(lane.acks, tag));               // Confirmado em acknowledge()
+        } else {
+            lane.channel.basicAck(tag, false);                             // Sai da fila ao entregar ao serviço
+        }
+        return msg;
+    }
+
+    // Modo pull: basicGet em rodízio pelos shards até encher o lote ou não haver mais mensagens
+    private void pullInto(Lane lane, List<ProductMessage> batch, int maxItems) throws Exception {
+        if (manualAck) {
+            ProductMessage msg;
+            while (batch.size() < maxItems && (msg = pollManual(lane)) != null) batch.add(msg);
+            return;
+        }
+        Channel pullChannel = pool.threadChannel();
+        for (int i = 0, start = lane.nextShard(); i < lane.queues.length && batch.size() < maxItems; i++) {
+            String queue = lane.queues[(start + i) % lane.queues.length];
+            GetResponse resp;
+            while (batch.size() < maxItems && (resp = pullChannel.basicGet(queue, true)) != null) {
+                ProductMessage msg = decodeOrDeadLetter(queue, resp);
+                if (msg != null) batch.add(msg);
+            }
+        }
+    }
+
+    // Pull com autoAck: a entrega já saiu da fila; se for ilegível, só resta guardar a cópia crua (null)
+    private ProductMessage decodeOrDeadLetter(String queue, GetResponse resp) {
+        try {
+            return decode(queue, resp.getProps(), resp.getBody());
+        } catch (Exception e) {
+            deadLetterUndecodable(queue, resp.getProps(), resp.getBody(), e);
+            return null;
+        }
+    }
+
+    // basicGet sem autoAck; sincronizado no batcher porque o timer de flush usa o mesmo canal.
+    // Entrega ilegível: desviada para as mensagens mortas e liquidada (complete/reject), e segue para a próxima.
+    private ProductMessage pollManual(Lane lane) throws Exception {
+        while (true) {
+            GetResponse resp = null;
+            String queue = null;
+            synchronized (lane.acks) {
+                for (int i = 0, start = lane.nextShard(); i < lane.queues.length && resp == null; i++) { // Uma volta pelos shards
+                    queue = lane.queues[(start + i) % lane.queues.length];
+                    resp = channel.basicGet(queue, false);
+                }
+                if (resp == null) return null;
+                lane.acks.track(resp.getEnvelope().getDeliveryTag());
+            }
+            long tag = resp.getEnvelope().getDeliveryTag();
+            ProductMessage msg;
+            try {
+                msg = decode(queue, resp.getProps(), resp.getBody());
+            } catch (Exception e) {
+                if (deadLetterUndecodable(queue, resp.getProps(), resp.getBody(), e)) lane.acks.complete(tag);
+                else lane.acks.reject(tag, false);
+                continue;
+            }
+            pending.put(msg, new PendingAck(lane.acks, tag));
+            return msg;
+        }
+    }
+
+    @Override
+    public void acknowledge(ProductMessage message) throws Exception {
+        if (!manualAck) return;                         // Modo auto: já saiu da fila ao receber
+        PendingAck ack = pending.remove(message);
+        if (ack != null) ack.acks.complete(ack.deliveryTag); // Pode disparar o basicAck(multiple) do lote
+    }
+
+    @Override
+    public void acknowledgeAll(List<ProductMessage> messages) throws Exception {
+        if (!manualAck) return;
+        List<AckBatcher> touched = new ArrayList<>(2);
+        for (ProductMessage message : messages) {
+            PendingAck ack = pending.remove(message);
+            if (ack == null) continue;
+            ack.acks.complete(ack.deliveryTag);
+            if (!touched.contains(ack.acks)) touched.add(ack.acks);
+        }
+        for (AckBatcher acks : touched) acks.flush(); // Lote concluído: um basicAck(multiple) por canal, já
+    }
+
+    @Override
+    public void deadLetter(ProductMessage message, String reason) throws Exception {
+        Map<String, Object> headers = new HashMap<>();
+        headers.put("x-dead-reason", reason);
         try {
+            republish(MessagingConstants.EXCHANGE_DEAD_LETTER, "", message, headers);
+        } catch (Exception e) {
+            requeue(message);
+            throw e;
+        }
+        acknowledge(message); // Só sai da fila de trabalho depois de confirmada na de mensagens mortas
+    }
+
+    @Override
+    public void fail(ProductMessage message, Exception cause) throws Exception {
+        int attempt = message.getRetryCount();
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(Retries.HEADER_RETRY_COUNT, attempt + 1);
+        headers.put(Retries.HEADER_LAST_ERROR, Retries.describe(cause));
+        try {
+            if (attempt < Retries.tiers()) {
+                String routingKey = Shards.routingKey(message.getType(), Shards.shardFor(message)); // Volta ao mesmo shard
+                republish(Retries.exchange(attempt), routingKey, message, headers);
+                Metrics.consumeRetried(message.getType());
+            } else {
+                headers.put("x-dead-reason", "retries-exhausted");
+                republish(MessagingConstants.EXCHANGE_PARKING, "", message, headers);
+                Metrics.consumeParked(message.getType());
+                log.warn("[RabbitSubscriber] itemId={} tipo={} estacionado após {} tentativas: {}",
+                        message.getItemId(), message.getType(), attempt + 1, cause.toString());
+            }
+        } catch (Exception e) {
+            requeue(message);
+            throw e;
+        }
+        acknowledge(message); // Só sai da fila de trabalho depois que o broker confirmou a cópia
+    }
+
+    // A cópia não foi confirmada: o original volta à fila (ack manual); no automático ele já saiu e só resta o erro
+    private void requeue(ProductMessage message) {
+        if (!manualAck) return;
+        PendingAck ack = pending.remove(message);
+        if (ack == null) return;
+        try {
+            ack.acks.reject(ack.deliveryTag, true);
+        } catch (Exception e) {
+            log.warn("[RabbitSubscriber] Falha ao devolver itemId={} à fila: {}", message.getItemId(), e.toString());
+        }
+    }
+
+    // Publica uma cópia da mensagem (prioridade preservada) no canal do pool da thread atual
+    private void republish(String exchange, String routingKey, ProductMessage message, Map<String, Object> headers) throws Exception {
+        headers.put("x-product-type", message.getType().name());
+        AMQP.BasicProperties props = new AMQP.BasicProperties.Builder()
+                .contentType(republishCodec.contentType())
+                .deliveryMode(2)
+                .timestamp(new Date(message.getTimestamp()))
+                .priority(message.getPriority() > 0 ? message.getPriority() : null)
+                .headers(headers)
+                .build();
+        send(exchange, routingKey, props, republishCodec.encode(message));
+    }
+
+    // Corpo que o codec não lê: publica os bytes como chegaram no exchange de mensagens mortas; false se nem isso deu
+    private boolean deadLetterUndecodable(String queue, AMQP.BasicProperties props, byte[] body, Exception cause) {
+        Map<String, Object> headers = props != null && props.getHeaders() != null ? new HashMap<>(props.getHeaders()) : new HashMap<>();
+        headers.put("x-dead-reason", "undecodable");
+        headers.put(Retries.HEADER_LAST_ERROR, Retries.describe(cause));
+        headers.put("x-original-queue", queue);
+        AMQP.BasicProperties raw = (props != null ? props.builder() : new AMQP.BasicProperties.Builder().deliveryMode(2))
+                .headers(headers)
+                .build();
+        try {
+            send(MessagingConstants.EXCHANGE_DEAD_LETTER, "", raw, body);
+            log.warn("[RabbitSubscriber] Entrega ilegível de queue='{}' desviada para {}: {}",
+                    queue, MessagingConstants.QUEUE_DEAD_LETTER, cause.toString());
+            return true;
+        } catch (Exception e) {
+            log.error("[RabbitSubscriber] Entrega ilegível de queue='{}' descartada ({}); falha ao desviar: {}",
+                    queue, cause.toString(), e.toString());
+            return false;
+        }
+    }
+
+    // Publicação de cópias (mensagens mortas, novas tentativas, estacionamento) no canal do pool da thread atual,
+    // em modo confirm: só retorna depois que o broker confirmou (nack ou prazo vencido lançam e fecham o canal)
+    private void send(String exchange, String routingKey, AMQP.BasicProperties props, byte[] body) throws Exception {
+        Channel ch = pool.threadChannel();                   // Reaberto pelo pool se um nack/timeout o fechou
+        if (ch.getNextPublishSeqNo() == 0) ch.confirmSelect(); // 0 = ainda fora do modo confirm (uma vez por canal)
+        ch.basicPublish(exchange, routingKey, props, body);
+        ch.waitForConfirmsOrDie(confirmTimeoutMillis);
+    }
+
+    // Executado pelo timer: envia lotes cuja janela de tempo expirou
+    private void flushDueAcks() {
+        for (AckBatcher acks : distinctBatchers()) {
+            try { acks.flushIfDue(); } catch (Exception e) {
+                log.warn("[RabbitSubscriber] Falha ao enviar acks pendentes: {}", e.toString());
+            }
+        }
+    }
+
+    private AckBatcher[] distinctBatchers() {
+        return push
+                ? Arrays.stream(lanes).map(l -> l.acks).toArray(AckBatcher[]::new)
+                : new AckBatcher[] { lanes[0].acks }; // Modo pull: um único batcher compartilhado
+    }
+
+    private ProductMessage decode(String queue, AMQP.BasicProperties props, byte[] body) throws Exception {
+        String contentType = props != null ? props.getContentType() : null;
+        ByteCodec<ProductMessage> codec = contentType != null ? ProductMessageCodecs.forContentType(contentType) : defaultCodec;
+        ProductMessage msg = codec.decode(body);                 // bytes -> DTO (sem String intermediária)
+        if (props != null) msg.setRetryCount(Retries.retryCount(props.getHeaders())); // Tentativas anteriores (cabeçalho)
+        if (HotPathLog.payloads()) {
+            RECEIVED.info("[RabbitSubscriber] Recebido de queue='{}' => itemId={} ({} bytes, {}) corpo={}",
+                    queue, msg.getItemId(), body.length, codec.contentType(), HotPathLog.payload(body, codec.contentType()));
+        } else {
+            RECEIVED.info("[RabbitSubscriber] Recebido de queue='{}' => itemId={} ({} bytes, {})", // Log útil na demo
+                    queue, msg.getItemId(), body.length, codec.contentType());
+        }
+        return msg;
+    }
+
+    @Override
+    public long depth(ProductType type) {
+        Lane lane = lanes[type.ordinal()];
+        long total = lane.buffer != null ? lane.buffer.size() : 0;
+        synchronized (lanes) {
+            for (String queue : lane.queues) { // Soma dos shards do tipo
+                try {
+                    if (statsChannel == null || !statsChannel.isOpen()) statsChannel = pool.openChannel(); // Um erro fecha o canal
+                    total += statsChannel.queueDeclarePassive(queue).getMessageCount();
+                } catch (Exception e) {
+                    log.warn("[RabbitSubscriber] Falha ao medir queue='{}': {}", queue, e.toString());
+                    return -1;
+                }
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public void close() throws Exception { // Fecha canais e conexão com segurança
+        for (ProductType type : ProductType.values()) {
+            if (bufferedGauges[type.ordinal()] != null) {
+                Metrics.unregisterGauge("subscriber_buffered", Metrics.typeLabel(type), bufferedGauges[type.ordinal()]);
+            }
+        }
+        Metrics.unregisterGauge("subscriber_unacked", "", unackedGauge);
+        if (ackFlusher != null) {
+            ackFlusher.shutdownNow();
+            for (AckBatcher acks : distinctBatchers()) {
+                try { acks.flush(); } catch (Exception ignored) {} // Confirma o que já foi consumido; o resto volta à fila
+            }
+        }
+        try {
+            for (Lane lane : lanes) {
+                if (lane != null && lane.channel != channel && lane.channel.isOpen()) lane.channel.close(); // Entregas pendentes voltam à fila
+            }
+            synchronized (lanes) {
+                if (statsChannel != null && statsChannel.isOpen()) statsChannel.close();
+            }
             if (channel != null && channel.isOpen()) channel.close();
         } finally {
-            if (connection != null && connection.isOpen()) connection.close();
+            pool.close(); // Conexões fecham quando o último usuário do pool fechar
+        }
+    }
+
+    /** Filas (shards) + canal (+ buffer local no modo push) de um tipo de produto. */
+    private static final class Lane {
+        final String name;                    // Para logs: a fila, ou "fila.*" com vários shards
+        final String[] queues;
+        final Channel channel;
+        final BlockingQueue<Buffered> buffer; // null no modo pull
+        final AckBatcher acks;                // null quando o ack é automático
+        final AtomicInteger shardCursor = new AtomicInteger(); // Shard inicial de cada volta no pull
+
+        Lane(String[] queues, Channel channel, BlockingQueue<Buffered> buffer, AckBatcher acks) {
+            this.name = queues.length == 1 ? queues[0] : queues[0].substring(0, queues[0].lastIndexOf('.')) + ".*";
+            this.queues = queues;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.acks = acks;
+        }
+
+        // Cada chamada começa num shard diferente, para não esvaziar sempre o primeiro
+        int nextShard() {
+            return Math.floorMod(shardCursor.getAndIncrement(), queues.length);
+        }
+    }
+
+    /** Entrega no buffer do modo push; no modo edf, já decodificada e com as chaves de ordenação. */
+    private static final class Buffered {
+        final Delivery delivery;
+        final ProductMessage message; // null = decodifica no accept (fifo) ou corpo ilegível (error)
+        final Exception error;        // Falha do decode na chegada (edf); o accept desvia sem decodificar de novo
+        final long deadline;          // Long.MAX_VALUE = sem prazo (vai depois de todos com prazo)
+        final int priority;
+        final long seq;
+
+        Buffered(Delivery delivery, ProductMessage message) {
+            this(delivery, message, 0);
+        }
+
+        Buffered(Delivery delivery, ProductMessage message, long seq) {
+            this.delivery = delivery;
+            this.message = message;
+            this.error = null;
+            this.deadline = message != null && message.getDeadline() > 0 ? message.getDeadline() : Long.MAX_VALUE;
+            this.priority = message != null ? message.getPriority() : 0;
+            this.seq = seq;
+        }
+
+        Buffered(Delivery delivery, Exception error, long seq) {
+            this.delivery = delivery;
+            this.message = null;
+            this.error = error;
+            this.deadline = Long.MIN_VALUE; // Sai antes de todas: libera a vaga do prefetch logo
+            this.priority = 0;
+            this.seq = seq;
+        }
+    }
+
+    /** Onde (batcher/canal) e com qual tag uma mensagem entregue deve ser confirmada. */
+    private static final class PendingAck {
+        final AckBatcher acks;
+        final long deliveryTag;
+
+        PendingAck(AckBatcher acks, long deliveryTag) {
+            this.acks = acks;
+            this.deliveryTag = deliveryTag;
         }
     }
 }
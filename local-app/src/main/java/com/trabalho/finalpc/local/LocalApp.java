@@ -0,0 +1,134 @@
+package com.trabalho.finalpc.local; // App co-localizado (produtor + consumidor na mesma JVM)
+
+import com.trabalho.finalpc.common.ProductType;                  // Workers e lotes por tipo
+import com.trabalho.finalpc.common.concurrent.LaneExecutors;     // Executores das faixas e dos workers
+import com.trabalho.finalpc.common.config.AppConfig;             // Mesmas variáveis dos dois apps
+import com.trabalho.finalpc.common.messaging.BatchingPublisher;  // PUBLISH_BATCH_SIZE > 1
+import com.trabalho.finalpc.common.messaging.CachedQueueStats;   // NEED_STRATEGY=adaptive
+import com.trabalho.finalpc.common.messaging.MessagePublisher;
+import com.trabalho.finalpc.common.messaging.PolledQueueStats;   // TYPE_STRATEGY=backpressure
+import com.trabalho.finalpc.common.messaging.inmemory.InMemoryTransport; // O "broker" deste processo
+import com.trabalho.finalpc.common.metrics.MetricsServer;        // Endpoint /metrics (METRICS_PORT)
+import com.trabalho.finalpc.consumer.AdaptiveNeedSelectionStrategy;
+import com.trabalho.finalpc.consumer.ConsumerPool;
+import com.trabalho.finalpc.consumer.ConsumerService;
+import com.trabalho.finalpc.consumer.NeedSelectionStrategy;
+import com.trabalho.finalpc.consumer.RandomNeedSelectionStrategy;
+import com.trabalho.finalpc.consumer.dedup.Deduplicator;        // DEDUP_MODE
+import com.trabalho.finalpc.producer.BackpressureTypeSelectionStrategy;
+import com.trabalho.finalpc.producer.ProducerEngine;
+import com.trabalho.finalpc.producer.RandomTypeSelectionStrategy;
+import com.trabalho.finalpc.producer.TypeSelectionStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Esta é a classe main do modo CO-LOCALIZADO: produtor e consumidor no mesmo processo, ligados pelo
+ * transporte em memória (o IN_MEMORY=true dos apps separados não entrega nada, pois cada main tem seu anel).
+ * Aqui eu:
+ * - Abro o InMemoryTransport do processo e uso a mesma instância como publicador de cada faixa de produção
+ *   (PRODUCER_THREADS, mínimo 1) e como assinante do ConsumerPool.
+ * - Rodo o ConsumerPool numa thread própria com CONSUMER_WORKERS(_<TIPO>) workers por tipo, no mínimo 1:
+ *   um tipo sem consumidor encheria o anel e travaria o produtor no offer.
+ * - Rodo o ProducerEngine por ITERATIONS iterações por faixa; ao fim, solto a referência do consumidor ao
+ *   transporte, que fecha: os workers esvaziam o que sobrou nos anéis e saem, e então encerro o pool.
+ * - Uso as mesmas variáveis dos apps (PRODUCER_ID, CONSUMER_ID, TYPE_STRATEGY, NEED_STRATEGY,
+ *   CONSUMER_BATCH_SIZE, DEDUP_MODE, PUBLISH_BATCH_SIZE, METRICS_PORT...); USE_RABBIT, SPILL_DIR e
+ *   PRODUCER_REUSE_MESSAGES não se aplicam (o anel guarda as referências das mensagens).
+ */
+public class LocalApp {
+    private static final Logger log = LoggerFactory.getLogger(LocalApp.class);
+
+    public static void main(String[] args) {
+        log.info("LocalApp inicializado (produtor e consumidor na mesma JVM, transporte em memória)");
+
+        int iterations = 5; // Mesmo padrão dos apps
+        String iterEnv = System.getenv("ITERATIONS");
+        if (iterEnv != null) {
+            try { iterations = Math.max(1, Integer.parseInt(iterEnv.trim())); } catch (NumberFormatException ignored) {}
+        }
+
+        try (MetricsServer metrics = MetricsServer.startIfConfigured()) { // null (desligado) é aceito pelo try
+            run(AppConfig.getProducerId(), AppConfig.getConsumerId(), iterations);
+        }
+    }
+
+    private static void run(String producerId, String consumerId, int iterations) {
+        InMemoryTransport transport = InMemoryTransport.shared(); // Referência do consumidor
+        PolledQueueStats stats = "backpressure".equals(AppConfig.getTypeStrategy())
+                ? new PolledQueueStats(transport, AppConfig.getQueueStatsRefreshMillis()) : null;
+        var dedup = Deduplicator.fromConfig(); // null com DEDUP_MODE=off
+
+        int[] workers = new int[ProductType.values().length];
+        int[] batchSizes = new int[ProductType.values().length];
+        int totalWorkers = 0;
+        for (ProductType type : ProductType.values()) {
+            workers[type.ordinal()] = Math.max(1, AppConfig.getConsumerWorkers(type)); // Todo anel precisa de quem o esvazie
+            batchSizes[type.ordinal()] = AppConfig.getConsumerBatchSize(type);
+            totalWorkers += workers[type.ordinal()];
+        }
+        var service = new ConsumerService(consumerId, transport, needStrategy(transport), batchSizes,
+                AppConfig.getConsumerBatchWaitMillis(), dedup);
+        var pool = new ConsumerPool(consumerId, service, workers,
+                LaneExecutors.newLaneExecutor(AppConfig.getConsumerMode(), totalWorkers, "consumer-worker"));
+
+        int lanes = Math.max(1, AppConfig.getProducerThreads());
+        List<MessagePublisher> publishers = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) publishers.add(withBatching(InMemoryTransport.shared())); // Uma referência por faixa
+        var engine = new ProducerEngine(producerId, publishers, typeStrategy(stats),
+                LaneExecutors.newLaneExecutor(AppConfig.getProducerMode(), lanes, "producer-lane"), null, false);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> { // Ctrl+C: interrompe as duas pontas
+            engine.shutdown();
+            pool.shutdown();
+            if (dedup != null) dedup.close();
+        }));
+
+        Thread consumers = new Thread(() -> {
+            try {
+                pool.run(Integer.MAX_VALUE); // Até o transporte fechar e esvaziar
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "local-consumers");
+        consumers.start();
+        log.info("Modo co-localizado: {} faixas de produção, {} workers de consumo", lanes, totalWorkers);
+
+        try {
+            engine.run(iterations);
+            engine.shutdown();  // Fecha as referências das faixas (e esvazia os lotes pendentes)
+            if (stats != null) stats.close();
+            transport.close();  // Última referência: os workers drenam o resto e saem
+            consumers.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            engine.shutdown();
+            pool.shutdown();
+            if (dedup != null) dedup.close();
+        }
+    }
+
+    private static TypeSelectionStrategy typeStrategy(PolledQueueStats stats) {
+        if (stats == null) return new RandomTypeSelectionStrategy();
+        log.info("Estratégia de tipos com backpressure (limite de {} mensagens por fila)", AppConfig.getQueueHighWater());
+        return new BackpressureTypeSelectionStrategy(stats, AppConfig.getQueueHighWater(), AppConfig.getQueueStatsRefreshMillis());
+    }
+
+    private static NeedSelectionStrategy needStrategy(InMemoryTransport transport) {
+        if (!"adaptive".equals(AppConfig.getNeedStrategy())) return new RandomNeedSelectionStrategy();
+        log.info("Estratégia de necessidade adaptativa (piso de justiça {})", AppConfig.getNeedFairnessFloor());
+        return new AdaptiveNeedSelectionStrategy(new CachedQueueStats(transport, AppConfig.getQueueStatsRefreshMillis()),
+                AppConfig.getNeedFairnessFloor());
+    }
+
+    // PUBLISH_BATCH_SIZE > 1: lotes também no transporte em memória (um sinal por tipo por lote)
+    private static MessagePublisher withBatching(MessagePublisher publisher) {
+        int batchSize = AppConfig.getPublishBatchSize();
+        if (batchSize <= 1) return publisher;
+        return new BatchingPublisher(publisher, batchSize, AppConfig.getPublishLingerMillis());
+    }
+}
@@ -0,0 +1,106 @@
+package com.trabalho.finalpc.producer; // Pacote do produtor
+
+import com.trabalho.finalpc.common.ProductType;           // Tipos candidatos
+import com.trabalho.finalpc.common.messaging.QueueStats;  // Profundidade/consumidores das filas (use PolledQueueStats)
+import com.trabalho.finalpc.common.metrics.Metrics;       // Gauge de produção pausada
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Escolha do tipo que respeita o estado das filas, em vez da moeda de RandomTypeSelectionStrategy.
+ * Minhas decisões:
+ * - Peso de cada tipo = folga até o limite (1 - profundidade/highWater) x consumidores registrados na fila
+ *   (1 quando o broker não informa, ex.: consumidores em pull). Assim a produção pende para o tipo com a
+ *   fila mais vazia e mais consumidores, e um tipo se aproximando do limite é escolhido cada vez menos.
+ * - Tipo com profundidade >= highWater não é produzido. Se todos estiverem no limite, a produção pausa:
+ *   nextType() espera pollMillis e tenta de novo até alguma fila baixar. Com isso a memória do broker e a
+ *   latência fim a fim ficam limitadas (até highWater + itens em produção por tipo).
+ * - As leituras vêm de um QueueStats em cache (PolledQueueStats): nunca um round trip por item.
+ * - Sem medição (-1), volto à escolha uniforme: broker indisponível não deve parar a produção.
+ * - Sem estado mutável além do aviso de pausa: uma instância pode ser compartilhada pelas faixas.
+ */
+public class BackpressureTypeSelectionStrategy implements TypeSelectionStrategy {
+    private static final Logger log = LoggerFactory.getLogger(BackpressureTypeSelectionStrategy.class);
+
+    private final QueueStats stats;
+    private final long highWater;
+    private final long pollMillis;
+    private final ProductType[] types = ProductType.values();
+    private final AtomicBoolean paused = new AtomicBoolean(); // Só para logar início/fim da pausa uma vez
+
+    /**
+     * @param stats      profundidade/consumidores por tipo (deve ser barato: use PolledQueueStats)
+     * @param highWater  profundidade a partir da qual o tipo não é mais produzido
+     * @param pollMillis espera entre tentativas enquanto todas as filas estão no limite
+     */
+    public BackpressureTypeSelectionStrategy(QueueStats stats, long highWater, long pollMillis) {
+        this.stats = stats;
+        this.highWater = Math.max(1, highWater);
+        this.pollMillis = Math.max(1, pollMillis);
+        Metrics.registerGauge("producer_backpressure_paused", "",
+                "1 enquanto a produção está pausada por filas no limite (QUEUE_HIGH_WATER)", () -> paused.get() ? 1 : 0);
+    }
+
+    /** Bloqueia enquanto todas as filas estiverem no limite; depois escolhe o tipo pelos pesos. */
+    @Override
+    public ProductType nextType() {
+        ProductType type;
+        while ((type = tryNextType()) == null) {
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // O loop do produtor percebe a interrupção no próprio sleep
+                return uniform();
+            }
+        }
+        return type;
+    }
+
+    /** Versão sem bloqueio: null se todas as filas estão no limite (produção deve pausar). */
+    public ProductType tryNextType() {
+        double[] weights = new double[types.length];
+        double total = 0;
+        ProductType lastOpen = null;
+        for (ProductType type : types) {
+            long depth = stats.depth(type);
+            if (depth < 0) return resumed(uniform()); // Sem medição confiável: comportamento padrão
+            double headroom = Math.max(0, 1 - (double) depth / highWater);
+            weights[type.ordinal()] = headroom * Math.max(1, stats.consumers(type));
+            total += weights[type.ordinal()];
+            if (headroom > 0) lastOpen = type;
+        }
+        if (lastOpen == null) {
+            if (paused.compareAndSet(false, true)) {
+                log.warn("[Backpressure] Todas as filas com >= {} mensagens. Produção pausada.", highWater);
+            }
+            return null;
+        }
+
+        double r = ThreadLocalRandom.current().nextDouble(total);
+        ProductType chosen = lastOpen; // Sobra de arredondamento cai no último tipo com folga
+        for (ProductType type : types) {
+            double w = weights[type.ordinal()];
+            if (w <= 0) continue;
+            r -= w;
+            if (r < 0) {
+                chosen = type;
+                break;
+            }
+        }
+        return resumed(chosen);
+    }
+
+    private ProductType resumed(ProductType type) {
+        if (paused.compareAndSet(true, false)) {
+            log.info("[Backpressure] Filas abaixo de {} mensagens. Produção retomada.", highWater);
+        }
+        return type;
+    }
+
+    private ProductType uniform() {
+        return types[ThreadLocalRandom.current().nextInt(types.length)];
+    }
+}
@@ -1,17 +1,48 @@
 package com.trabalho.finalpc.producer; // Pacote da aplicação produtora (organiza as classes do produtor)
 
 import com.trabalho.finalpc.common.config.AppConfig; // Para resolver IDs e configs via variáveis de ambiente
+import com.trabalho.finalpc.common.concurrent.LaneExecutors; // Executor das faixas (PRODUCER_THREADS > 1)
+import com.trabalho.finalpc.common.messaging.BatchingPublisher; // Agrupa publicações (PUBLISH_BATCH_SIZE > 1)
+import com.trabalho.finalpc.common.messaging.MessagePublisher;  // Porta de publicação
+import com.trabalho.finalpc.common.messaging.PolledQueueStats;  // Medição periódica das filas (TYPE_STRATEGY=backpressure)
+import com.trabalho.finalpc.common.messaging.QueueStats;
+import com.trabalho.finalpc.common.messaging.RetryingPublisher; // Novas tentativas sem travar a produção
+import com.trabalho.finalpc.common.messaging.inmemory.InMemoryTransport; // Transporte em processo (IN_MEMORY=true)
+import com.trabalho.finalpc.common.messaging.rabbit.RabbitConnectionPool; // Conexões compartilhadas pelas faixas
+import com.trabalho.finalpc.common.messaging.spill.SpillLog;              // Log em disco (SPILL_DIR)
+import com.trabalho.finalpc.common.messaging.spill.SpillingPublisher;     // Publica direto ou via spill quando o broker falha
+import com.trabalho.finalpc.common.metrics.MetricsServer; // Endpoint /metrics (METRICS_PORT)
+import com.trabalho.finalpc.common.serialization.ProductMessageCodecs; // Codec das faixas (MESSAGE_CODEC)
+import com.trabalho.finalpc.producer.loadgen.LoadGenerator;   // Modo gerador de carga (LOADGEN_FILE)
+import com.trabalho.finalpc.producer.loadgen.WorkloadReader;
 import com.trabalho.finalpc.producer.messaging.NoOpPublisher; // Adaptador que apenas loga (sem broker)
 import com.trabalho.finalpc.producer.messaging.RabbitPublisher; // Adaptador real de RabbitMQ
 import org.slf4j.Logger;        // Interface de logging (SLF4J)
 import org.slf4j.LoggerFactory; // Fábrica para obter um logger por classe
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
 /**
  * Esta é a classe main do PRODUTOR. Aqui eu:
  * - Leio PRODUCER_ID via AppConfig (ou derivo do hostname).
- * - Escolho qual adaptador de mensageria usar (RabbitMQ real ou NoOp para simulação).
- * - Monto o serviço (ProducerService) com a estratégia aleatória de tipos.
+ * - Escolho qual adaptador de mensageria usar (RabbitMQ real, transporte em memória ou NoOp para simulação).
+ * - Monto o serviço (ProducerService) com a estratégia de tipos: aleatória (padrão) ou, com
+ *   TYPE_STRATEGY=backpressure, guiada pela profundidade das filas e limitada por QUEUE_HIGH_WATER.
  * - Rodo o loop por N iterações (ITERATIONS), útil para a demonstração no vídeo.
+ * - Com PRODUCER_THREADS > 1, rodo N faixas de produção neste mesmo processo (ProducerEngine), cada uma
+ *   com seu canal no pool de conexões do processo, em threads de plataforma ou virtuais (PRODUCER_MODE).
+ * - Com METRICS_PORT > 0, exponho as métricas em /metrics enquanto a produção roda.
+ * - Com SPILL_DIR definido (e USE_RABBIT=true), o broker fora do ar não vira NoOp: as mensagens vão para
+ *   um log em disco e são reenviadas quando a conexão volta (um subdiretório por faixa no multi-faixa).
+ * - Com LOADGEN_FILE definido, viro gerador de carga: reproduzo o arquivo JSONL na taxa LOADGEN_RATE
+ *   (laço aberto ou fechado, LOADGEN_MODE) com LOADGEN_CONCURRENCY workers, ignorando ITERATIONS e o Timing.
+ * - Publicações que falham no RabbitPublisher (sem spill) são agendadas para novas tentativas com backoff
+ *   (RETRY_DELAYS_MS) e, esgotadas, estacionadas em products.parking, em vez de perdidas.
  */
 public class ProducerApp {
     private static final Logger log = LoggerFactory.getLogger(ProducerApp.class); // Logger da aplicação
@@ -22,27 +53,207 @@ public class ProducerApp {
         String producerId = AppConfig.getProducerId(); // Resolve o ID do produtor
         log.info("Producer ID resolvido: {}", producerId); // Exibe quem somos nos logs
 
-        var publisher = tryCreateRabbitOrNoOp(); // Rabbit se USE_RABBIT=true e conexão ok; senão NoOp
-        var strategy = new RandomTypeSelectionStrategy(); // Seleciona TIPO_A/TIPO_B aleatoriamente
-        var service = new ProducerService(producerId, publisher, strategy); // Serviço com dependências injetadas
-
         int iterations = 5; // Valor padrão para apresentações curtas
         String iterEnv = System.getenv("ITERATIONS"); // Permite configurar via ENV
         if (iterEnv != null) { // Se definido, tentamos converter
             try { iterations = Math.max(1, Integer.parseInt(iterEnv.trim())); } catch (NumberFormatException ignored) {}
         }
 
+        try (MetricsServer metrics = MetricsServer.startIfConfigured()) { // null (desligado) é aceito pelo try
+            run(producerId, iterations);
+        } // Fecha o endpoint ao terminar (o servidor HTTP seguraria a JVM)
+    }
+
+    private static void run(String producerId, int iterations) {
+        String workload = AppConfig.getLoadgenFile();
+        if (workload != null) {
+            runLoadGenerator(producerId, Paths.get(workload));
+            return;
+        }
+        int threads = AppConfig.getProducerThreads();
+        if (threads > 1) {
+            runEngine(producerId, threads, iterations);
+            return;
+        }
+
+        MessagePublisher adapter = tryCreateRabbitOrNoOp(); // Rabbit se USE_RABBIT=true e conexão ok; senão NoOp
+        PolledQueueStats stats = backpressureStats(adapter); // null = estratégia aleatória
+        var strategy = typeStrategy(stats);
+        var publisher = withBatching(withRetry(adapter));
+        var service = new ProducerService(producerId, publisher, strategy, reuseMessages(adapter)); // Serviço com dependências injetadas
+
         Runtime.getRuntime().addShutdownHook(new Thread(() -> { // Hook para fechamento limpo
+            if (stats != null) stats.close(); // Para de medir antes de fechar o canal de medição
             try { publisher.close(); } catch (Exception ignored) {}
         }));
 
         service.runLoop(iterations); // Inicia o ciclo de produção
     }
 
-    // Decide qual adaptador de publicação usar (Rabbit ou NoOp), com fallback seguro.
-    private static com.trabalho.finalpc.common.messaging.MessagePublisher tryCreateRabbitOrNoOp() {
+    // Modo multi-faixa: um pool de conexões, um publicador (canal) por faixa, encerramento pelo shutdown hook
+    private static void runEngine(String producerId, int threads, int iterations) {
+        RabbitConnectionPool pool = tryOpenRabbitPool();
+        List<MessagePublisher> publishers = new ArrayList<>(threads);
+        PolledQueueStats stats = null; // Medido pelo adaptador da primeira faixa (mesmas filas para todas)
+        MessagePublisher first = null;
+        for (int i = 0; i < threads; i++) {
+            MessagePublisher lanePublisher = lanePublisher(pool, i);
+            if (i == 0) {
+                first = lanePublisher;
+                stats = backpressureStats(lanePublisher);
+            }
+            publishers.add(withBatching(withRetry(lanePublisher)));
+        }
+        var strategy = typeStrategy(stats); // Uma instância compartilhada pelas faixas
+
+        String mode = AppConfig.getProducerMode();
+        log.info("Modo multi-faixa: {} faixas ({} threads)", threads, mode);
+        var engine = new ProducerEngine(producerId, publishers, strategy,
+                LaneExecutors.newLaneExecutor(mode, threads, "producer-lane"), pool, reuseMessages(first));
+        Runtime.getRuntime().addShutdownHook(new Thread(engine::shutdown)); // Ctrl+C interrompe as faixas e fecha tudo
+
+        try {
+            engine.run(iterations);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (stats != null) stats.close();
+            engine.shutdown(); // Encerra o pool (threads de plataforma não são daemon)
+        }
+    }
+
+    // LOADGEN_FILE: mesmos publicadores das faixas (um por worker), sem estratégia de tipos nem Timing
+    private static void runLoadGenerator(String producerId, Path workload) {
+        WorkloadReader reader;
+        try {
+            reader = new WorkloadReader(workload, AppConfig.getLoadgenLoops(), producerId);
+        } catch (IOException e) {
+            log.error("Não foi possível abrir LOADGEN_FILE {}: {}", workload, e.toString());
+            return;
+        }
+        int workers = AppConfig.getLoadgenConcurrency();
+        RabbitConnectionPool pool = tryOpenRabbitPool();
+        List<MessagePublisher> publishers = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) publishers.add(withBatching(withRetry(lanePublisher(pool, i))));
+
+        log.info("Gerador de carga: {} ({} repetição(ões))", workload, AppConfig.getLoadgenLoops());
+        var generator = new LoadGenerator(reader, publishers, AppConfig.getLoadgenRate(),
+                !"closed".equals(AppConfig.getLoadgenMode()),
+                LaneExecutors.newLaneExecutor(AppConfig.getProducerMode(), workers, "loadgen"), pool);
+        Runtime.getRuntime().addShutdownHook(new Thread(generator::shutdown)); // Ctrl+C interrompe e fecha tudo
+
+        try {
+            generator.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            generator.shutdown();
+        }
+    }
+
+    // Publicador de uma faixa: Rabbit (com spill se SPILL_DIR), transporte em memória ou NoOp
+    private static MessagePublisher lanePublisher(RabbitConnectionPool pool, int lane) {
+        MessagePublisher publisher = null;
+        if (useRabbit() && AppConfig.getSpillDir() != null) {
+            Callable<MessagePublisher> factory = pool != null
+                    ? () -> new RabbitPublisher(pool, ProductMessageCodecs.configured())
+                    : () -> new RabbitPublisher(ProductMessageCodecs.configured()); // Pool criado na reconexão
+            publisher = withSpill(Paths.get(AppConfig.getSpillDir(), "lane-" + (lane + 1)), factory);
+        }
+        if (publisher == null && pool != null) {
+            try {
+                publisher = new RabbitPublisher(pool, ProductMessageCodecs.configured());
+            } catch (Exception e) {
+                log.warn("Falha ao abrir canal da faixa {} ({}). Usando NoOpPublisher.", lane + 1, e.toString());
+            }
+        } else if (publisher == null && AppConfig.isInMemoryTransport()) {
+            publisher = InMemoryTransport.shared(); // Mesma instância; cada faixa fecha a sua referência
+        }
+        return publisher != null ? publisher : new NoOpPublisher();
+    }
+
+    // TYPE_STRATEGY=backpressure: mede as filas em segundo plano, se o adaptador souber medi-las
+    private static PolledQueueStats backpressureStats(MessagePublisher adapter) {
+        if (!"backpressure".equals(AppConfig.getTypeStrategy())) return null;
+        if (!(adapter instanceof QueueStats)) {
+            log.warn("TYPE_STRATEGY=backpressure ignorado: {} não informa a profundidade das filas.", adapter.getClass().getSimpleName());
+            return null;
+        }
+        return new PolledQueueStats((QueueStats) adapter, AppConfig.getQueueStatsRefreshMillis());
+    }
+
+    private static TypeSelectionStrategy typeStrategy(PolledQueueStats stats) {
+        if (stats == null) return new RandomTypeSelectionStrategy(); // Seleciona TIPO_A/TIPO_B aleatoriamente
+        log.info("Estratégia de tipos com backpressure (limite de {} mensagens por fila)", AppConfig.getQueueHighWater());
+        return new BackpressureTypeSelectionStrategy(stats, AppConfig.getQueueHighWater(), AppConfig.getQueueStatsRefreshMillis());
+    }
+
+    // Pool compartilhado pelas faixas (null = USE_RABBIT desligado ou broker indisponível)
+    private static RabbitConnectionPool tryOpenRabbitPool() {
+        if (useRabbit()) {
+            try {
+                return RabbitConnectionPool.shared("producer-app");
+            } catch (Exception e) {
+                log.warn("Falha ao iniciar RabbitMQ ({}). Usando NoOpPublisher.", e.toString());
+            }
+        }
+        return null;
+    }
+
+    // Reaproveitar mensagens só é seguro se o publicador não guarda referências (o lote e o anel em memória guardam)
+    private static boolean reuseMessages(MessagePublisher adapter) {
+        if (!AppConfig.isProducerReuseMessages()) return false;
+        if (AppConfig.getPublishBatchSize() > 1) {
+            log.warn("PRODUCER_REUSE_MESSAGES ignorado: incompatível com PUBLISH_BATCH_SIZE > 1");
+            return false;
+        }
+        if (adapter instanceof InMemoryTransport) { // O consumidor lê a mesma instância que seria reescrita
+            log.warn("PRODUCER_REUSE_MESSAGES ignorado: incompatível com o transporte em memória (IN_MEMORY=true)");
+            return false;
+        }
+        return true;
+    }
+
+    // Envolve o adaptador em lotes quando PUBLISH_BATCH_SIZE > 1 (flush por tamanho ou PUBLISH_LINGER_MS)
+    private static MessagePublisher withBatching(MessagePublisher publisher) {
+        int batchSize = AppConfig.getPublishBatchSize();
+        if (batchSize <= 1) return publisher;
+        log.info("Publicação em lotes: até {} mensagens ou {} ms", batchSize, AppConfig.getPublishLingerMillis());
+        return new BatchingPublisher(publisher, batchSize, AppConfig.getPublishLingerMillis());
+    }
+
+    // Novas tentativas só para o broker direto: com spill as falhas já vão para o disco, e NoOp/memória não falham
+    private static MessagePublisher withRetry(MessagePublisher publisher) {
+        if (!(publisher instanceof RabbitPublisher)) return publisher;
+        return new RetryingPublisher(publisher, AppConfig.getRetryDelaysMillis(), AppConfig.getRetryMaxPending());
+    }
+
+    private static boolean useRabbit() {
         String useRabbit = System.getenv("USE_RABBIT"); // Flag de comutação
-        if (useRabbit != null && useRabbit.equalsIgnoreCase("true")) { // Caso queira RabbitMQ
+        return useRabbit != null && useRabbit.equalsIgnoreCase("true");
+    }
+
+    // SPILL_DIR: tenta o broker pela fábrica agora e a cada reconexão; null se o log em disco não abrir
+    private static MessagePublisher withSpill(Path dir, Callable<MessagePublisher> factory) {
+        try {
+            SpillLog spill = SpillLog.open(dir, AppConfig.getSpillSegmentMegabytes() * 1024 * 1024);
+            log.info("Spill em disco habilitado em {}", dir);
+            return new SpillingPublisher(spill, factory, AppConfig.getSpillRetryMillis(),
+                    AppConfig.getSpillSlowMillis(), AppConfig.getSpillFsyncMillis(),
+                    2 * AppConfig.getConfirmTimeoutMillis()); // Um timeout e uma republicação antes de desistir do trecho
+        } catch (Exception e) {
+            log.warn("Falha ao abrir o spill em {} ({}). Seguindo sem spill.", dir, e.toString());
+            return null;
+        }
+    }
+
+    // Decide qual adaptador de publicação usar (Rabbit com spill, Rabbit, memória ou NoOp), com fallback seguro.
+    private static MessagePublisher tryCreateRabbitOrNoOp() {
+        if (useRabbit()) { // Caso queira RabbitMQ
+            if (AppConfig.getSpillDir() != null) { // Broker fora do ar não descarta: acumula em disco
+                MessagePublisher spilling = withSpill(Paths.get(AppConfig.getSpillDir()), RabbitPublisher::new);
+                if (spilling != null) return spilling;
+            }
             try {
                 return new RabbitPublisher(); // Tenta abrir conexão e declarar topologia
             } catch (Exception e) { // Se der erro (ex.: broker offline)
@@ -50,6 +261,10 @@ public class ProducerApp {
                         .warn("Falha ao iniciar RabbitMQ ({}). Usando NoOpPublisher.", e.toString());
             }
         }
+        if (AppConfig.isInMemoryTransport()) { // Consumidor precisa estar na mesma JVM
+            log.warn("IN_MEMORY=true neste main só vê o próprio processo; para produzir e consumir juntos use o local-app (LocalApp).");
+            return InMemoryTransport.shared();
+        }
         return new NoOpPublisher(); // Caminho seguro: apenas loga
     }
 }
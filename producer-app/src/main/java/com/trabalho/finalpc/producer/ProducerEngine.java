@@ -0,0 +1,87 @@
+package com.trabalho.finalpc.producer; // Pacote da aplicação produtora
+
+import com.trabalho.finalpc.common.messaging.MessagePublisher; // Um publicador (canal) por faixa
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService; // Executor das faixas (virtual ou plataforma)
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Este motor roda várias faixas (lanes) de produção dentro de um único ProducerApp.
+ * Minhas decisões:
+ * - Cada faixa é um ProducerService com seu próprio MessagePublisher (canal AMQP próprio, pois canais
+ *   não são thread-safe) e um ID derivado do produtor (ex.: producer-1-t2) para rastrear nos logs.
+ * - A estratégia de tipo é compartilhada (as implementações usam ThreadLocalRandom).
+ * - O encerramento é único e idempotente: interrompe as faixas (o runLoop sai no InterruptedException),
+ *   aguarda o término, fecha os publicadores e por fim os recursos compartilhados (ex.: pool de conexões).
+ */
+public class ProducerEngine {
+    private static final Logger log = LoggerFactory.getLogger(ProducerEngine.class);
+
+    private final String producerId;
+    private final List<MessagePublisher> lanePublishers; // Um por faixa
+    private final TypeSelectionStrategy typeStrategy;
+    private final ExecutorService executor;
+    private final AutoCloseable sharedResources;         // Fechado depois dos publicadores (pode ser null)
+    private final boolean reuseMessages;                 // Uma ProductMessage reaproveitada por faixa
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+
+    public ProducerEngine(String producerId,
+                          List<MessagePublisher> lanePublishers,
+                          TypeSelectionStrategy typeStrategy,
+                          ExecutorService executor,
+                          AutoCloseable sharedResources,
+                          boolean reuseMessages) {
+        this.producerId = producerId;
+        this.lanePublishers = lanePublishers;
+        this.typeStrategy = typeStrategy;
+        this.executor = executor;
+        this.sharedResources = sharedResources;
+        this.reuseMessages = reuseMessages;
+    }
+
+    /** Roda N iterações em cada faixa e bloqueia até todas terminarem (ou serem interrompidas). */
+    public void run(int iterationsPerLane) throws InterruptedException {
+        List<Future<?>> lanes = new ArrayList<>(lanePublishers.size());
+        for (int i = 0; i < lanePublishers.size(); i++) {
+            ProducerService service = new ProducerService(producerId + "-t" + (i + 1), lanePublishers.get(i), typeStrategy, reuseMessages);
+            lanes.add(executor.submit(() -> service.runLoop(iterationsPerLane)));
+        }
+        log.info("[Producer {}] {} faixas de produção iniciadas ({} iterações cada)", producerId, lanes.size(), iterationsPerLane);
+        for (Future<?> lane : lanes) {
+            try {
+                lane.get();
+            } catch (ExecutionException e) {
+                log.error("[Producer {}] Faixa terminou com erro: {}", producerId, e.getCause().toString());
+            } catch (CancellationException ignored) {
+                // Cancelada pelo shutdown
+            }
+        }
+    }
+
+    /** Encerramento coordenado (chamado pelo shutdown hook e ao fim do run). */
+    public void shutdown() {
+        if (!shutdown.compareAndSet(false, true)) return;
+        executor.shutdownNow(); // Interrompe os sleeps de produção
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("[Producer {}] Faixas não terminaram em 10 s", producerId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (MessagePublisher publisher : lanePublishers) {
+            try { publisher.close(); } catch (Exception ignored) {}
+        }
+        if (sharedResources != null) {
+            try { sharedResources.close(); } catch (Exception ignored) {}
+        }
+    }
+}
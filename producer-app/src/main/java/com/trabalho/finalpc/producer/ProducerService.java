@@ -3,7 +3,10 @@ package com.trabalho.finalpc.producer; // Pacote da aplicação produtora
 import com.trabalho.finalpc.common.ProductMessage;              // DTO da mensagem a ser publicada
 import com.trabalho.finalpc.common.ProductType;                 // Tipo do produto (A/B)
 import com.trabalho.finalpc.common.Timing;                      // Tempos de produção/consumo
+import com.trabalho.finalpc.common.config.AppConfig;            // Prioridade e prazo por tipo
+import com.trabalho.finalpc.common.logging.HotPathLog;          // Logs por mensagem (LOG_MODE)
 import com.trabalho.finalpc.common.messaging.MessagePublisher;  // Porta/contrato de publicação (broker)
+import com.trabalho.finalpc.common.metrics.Metrics;             // Contadores e latência de publicação
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.time.Instant;                                       // Para exibir timestamp ISO nos logs
@@ -16,22 +19,47 @@ import java.util.Locale;                                        // Para formatar
  * 3) Eu construo a mensagem (ProductMessage)
  * 4) Eu publico via porta MessagePublisher (Rabbit/NoOp)
  * Observação: esta separação me permite testar o loop com NoOp e trocar para Rabbit sem tocar nas regras.
+ * Com reuseMessages=true eu reaproveito uma única ProductMessage (regenerate a cada item), o que só é seguro
+ * quando o publicador serializa a mensagem dentro de publish e não guarda a referência.
+ * Prioridade e prazo de cada tipo (MESSAGE_PRIORITY / MESSAGE_DEADLINE_MS) são lidos uma vez em tabelas por
+ * ordinal; o prazo é relativo ao timestamp de criação.
  */
-public class ProducerService { // Classe de serviço (stateless)
+public class ProducerService { // Classe de serviço (sem estado compartilhado; uma instância por faixa)
 
     private static final Logger log = LoggerFactory.getLogger(ProducerService.class);
+    private static final HotPathLog PRODUCING = HotPathLog.event(log, "produzindo");
+    private static final HotPathLog PUBLISHED = HotPathLog.event(log, "publicado");
+    private static final int[] PRIORITY = new int[ProductType.count()];      // Índice = ordinal do tipo
+    private static final long[] DEADLINE_MS = new long[ProductType.count()]; // 0 = sem prazo
+
+    static {
+        for (ProductType type : ProductType.values()) {
+            PRIORITY[type.ordinal()] = AppConfig.getMessagePriority(type);
+            DEADLINE_MS[type.ordinal()] = AppConfig.getMessageDeadlineMillis(type);
+        }
+    }
 
     private final String producerId;        // Quem somos (para logs e auditoria)
     private final MessagePublisher publisher; // Adaptador de publicação (Rabbit/NoOp)
     private final TypeSelectionStrategy typeStrategy; // Política de escolha do tipo (aleatória 50/50)
+    private final ProductMessage reusable;  // Mensagem reaproveitada (null = uma nova por item)
 
     /** Construtor com injeção de dependências (contratos). */
     public ProducerService(String producerId,
                            MessagePublisher publisher,
                            TypeSelectionStrategy typeStrategy) {
+        this(producerId, publisher, typeStrategy, false);
+    }
+
+    /** Construtor que permite reaproveitar a mesma ProductMessage a cada item (caminho sem alocação). */
+    public ProducerService(String producerId,
+                           MessagePublisher publisher,
+                           TypeSelectionStrategy typeStrategy,
+                           boolean reuseMessages) {
         this.producerId = producerId;       // Armazena o ID do produtor
         this.publisher = publisher;         // Armazena o publicador (broker)
         this.typeStrategy = typeStrategy;   // Armazena a estratégia de seleção de tipos
+        this.reusable = reuseMessages ? new ProductMessage() : null;
     }
 
     /**
@@ -49,19 +77,22 @@ public class ProducerService { // Classe de serviço (stateless)
             ProductType type = typeStrategy.nextType(); // 1) Decide A/B nesta rodada
             long prodMs = Timing.productionMillis(type); // 2) Calcula tempo de produção conforme tipo
             try {
-                log.info("[Producer {}] Iteração {} => tipo={}, produzindo por {} ({} ms)",
+                PRODUCING.info("[Producer {}] Iteração {} => tipo={}, produzindo por {} ({} ms)",
                         producerId, i, type, fmtSeconds(prodMs), prodMs);
-                Thread.sleep(prodMs); // 2) Simula o trabalho de produzir
+                Timing.sleep(prodMs); // 2) Simula o trabalho de produzir (relógio configurado)
                 ProductMessage msg = buildMessage(type); // 3) Cria mensagem com ID/ts/type/producerId
+                long publishStart = System.nanoTime();
                 publisher.publish(type, msg); // 4) Publica pela porta (Rabbit/NoOp)
+                Metrics.published(type, System.nanoTime() - publishStart);
                 Instant tsIso = Instant.ofEpochMilli(msg.getTimestamp()); // Converte ts para ISO para legibilidade
-                log.info("[Producer {}] Publicado itemId={} tipo={} ts={} ({} ISO)",
+                PUBLISHED.info("[Producer {}] Publicado itemId={} tipo={} ts={} ({} ISO)",
                         producerId, msg.getItemId(), msg.getType(), msg.getTimestamp(), tsIso);
             } catch (InterruptedException ie) {
                 Thread.currentThread().interrupt(); // Respeitamos a interrupção (boa prática em Java)
                 log.warn("[Producer {}] Interrompido durante produção.", producerId);
                 break;
             } catch (Exception e) {
+                Metrics.publishFailed(type);
                 log.error("[Producer {}] Falha ao publicar: {}", producerId, e.getMessage(), e);
             }
         }
@@ -71,9 +102,17 @@ public class ProducerService { // Classe de serviço (stateless)
      * Constrói a mensagem para publicação. Isolado para facilitar testes.
      */
     ProductMessage buildMessage(ProductType type) { // Método isolado para facilitar teste unitário
-        ProductMessage msg = new ProductMessage();  // itemId e timestamp gerados no construtor
+        ProductMessage msg = reusable;
+        if (msg != null) {
+            msg.regenerate();                       // Novo id/timestamp na mesma instância
+        } else {
+            msg = new ProductMessage();             // itemId e timestamp gerados no construtor
+        }
         msg.setType(type);                          // definimos o tipo (A/B)
         msg.setProducerId(producerId);              // gravamos quem produziu (útil nos logs e UI)
+        msg.setPriority(PRIORITY[type.ordinal()]);  // 0 = normal
+        long deadline = DEADLINE_MS[type.ordinal()];
+        msg.setDeadline(deadline > 0 ? msg.getTimestamp() + deadline : 0); // Prazo conta da criação
         return msg;                                 // mensagem pronta para (de)serialização JSON
     }
 
@@ -1,6 +1,6 @@
 package com.trabalho.finalpc.producer; // Pacote do produtor
 
-import com.trabalho.finalpc.common.ProductType; // Enum dos tipos de produto (TIPO_A/TIPO_B)
+import com.trabalho.finalpc.common.ProductType; // Tipos de produto registrados (TIPO_A, TIPO_B, ...)
 
 /**
  * Esta interface permite variar a política de escolha do tipo.
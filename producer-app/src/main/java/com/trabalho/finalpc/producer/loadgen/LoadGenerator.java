@@ -0,0 +1,180 @@
+package com.trabalho.finalpc.producer.loadgen; // Gerador de carga do produtor (LOADGEN_FILE)
+
+import com.trabalho.finalpc.common.ProductMessage;
+import com.trabalho.finalpc.common.Timing;                     // Timestamp pelo relógio configurado
+import com.trabalho.finalpc.common.messaging.MessagePublisher; // Um publicador (canal) por worker
+import com.trabalho.finalpc.common.metrics.LatencyHistogram;   // Percentis do relatório
+import com.trabalho.finalpc.common.metrics.Metrics;            // Mesmas métricas do produtor normal
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;   // Executor dos workers (virtual ou plataforma)
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport; // Espera até o horário previsto de cada envio
+
+/**
+ * Reproduz um arquivo de carga (WorkloadReader) publicando no ritmo pedido, sem os sleeps de produção do
+ * Timing, e relata a vazão alcançada e os percentis de latência de publicação.
+ * Minhas decisões:
+ * - Ritmo por agenda: a mensagem n (na ordem do arquivo) tem horário previsto início + n/taxa, e o worker
+ *   que a retirou espera até lá com parkNanos. Taxa 0 = sem agenda (o mais rápido possível).
+ * - Laço aberto (open, padrão): a latência é medida a partir do horário previsto, não do envio real.
+ *   Se o broker atrasa, os envios seguintes saem atrasados e esse atraso entra na medida (sem a “omissão
+ *   coordenada” de medir só quem conseguiu sair).
+ * - Laço fechado (closed): cada worker só envia a próxima depois da resposta da anterior (concorrência
+ *   fixa) e a latência é só o tempo da publicação; a taxa, se definida, vira um teto.
+ * - Um publicador por worker (canais não são thread-safe), fechados no shutdown junto com os recursos
+ *   compartilhados, como no ProducerEngine.
+ * - Progresso a cada 5 s e relatório final no log; as publicações também contam no /metrics.
+ */
+public class LoadGenerator {
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+    private static final long PROGRESS_SECONDS = 5;
+
+    private final WorkloadReader reader;
+    private final List<MessagePublisher> publishers; // Um por worker
+    private final long intervalNanos;                // 0 = sem agenda
+    private final boolean openLoop;
+    private final ExecutorService executor;
+    private final AutoCloseable sharedResources;     // Fechado depois dos publicadores (pode ser null)
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+    private final Object sequenceLock = new Object();
+    private long sequence;                           // Próxima posição na agenda (protegido por sequenceLock)
+    private long startNanos;
+
+    /**
+     * @param reader          carga a reproduzir (compartilhada pelos workers)
+     * @param publishers      um publicador por worker
+     * @param rate            mensagens/s alvo no total (0 = o mais rápido possível)
+     * @param openLoop        true = laço aberto; false = laço fechado
+     * @param executor        executor com ao menos publishers.size() threads
+     * @param sharedResources fechado no shutdown depois dos publicadores (ex.: pool de conexões); pode ser null
+     */
+    public LoadGenerator(WorkloadReader reader, List<MessagePublisher> publishers, int rate, boolean openLoop,
+                         ExecutorService executor, AutoCloseable sharedResources) {
+        this.reader = reader;
+        this.publishers = publishers;
+        this.intervalNanos = rate > 0 ? Math.max(1, 1_000_000_000L / rate) : 0;
+        this.openLoop = openLoop;
+        this.executor = executor;
+        this.sharedResources = sharedResources;
+    }
+
+    /** Reproduz a carga inteira (ou até o shutdown) e registra o relatório no log. */
+    public void run() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(publishers.size());
+        startNanos = System.nanoTime();
+        for (MessagePublisher publisher : publishers) {
+            executor.execute(() -> {
+                try {
+                    work(publisher);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        log.info("[LoadGenerator] {} worker(s), laço {}, taxa alvo {}", publishers.size(),
+                openLoop ? "aberto" : "fechado", intervalNanos > 0 ? 1_000_000_000L / intervalNanos + " msg/s" : "máxima");
+        long lastSent = 0;
+        long lastNanos = startNanos;
+        while (!done.await(PROGRESS_SECONDS, TimeUnit.SECONDS)) {
+            long now = System.nanoTime();
+            long total = sent.sum();
+            log.info("[LoadGenerator] {} enviadas ({} msg/s nos últimos {} s), p99 {} ms", total,
+                    rate(total - lastSent, now - lastNanos), PROGRESS_SECONDS, millis(latency.percentile(0.99)));
+            lastSent = total;
+            lastNanos = now;
+        }
+        report(System.nanoTime() - startNanos);
+    }
+
+    private void work(MessagePublisher publisher) {
+        while (!Thread.currentThread().isInterrupted()) {
+            ProductMessage message;
+            long intended;
+            try {
+                synchronized (sequenceLock) { // Posição na agenda segue a ordem do arquivo
+                    message = reader.next();
+                    if (message == null) return;
+                    intended = startNanos + sequence++ * intervalNanos;
+                }
+            } catch (Exception e) {
+                log.error("[LoadGenerator] Falha ao ler a carga: {}", e.toString());
+                return;
+            }
+            if (intervalNanos > 0 && !awaitUntil(intended)) return;
+
+            long now = Timing.currentTimeMillis();
+            if (message.getDeadline() > 0) message.setDeadline(message.getDeadline() + now - message.getTimestamp()); // Prazo acompanha o envio
+            message.setTimestamp(now); // Latência fim a fim conta a partir do envio
+            long begin = System.nanoTime();
+            try {
+                publisher.publish(message.getType(), message);
+                long end = System.nanoTime();
+                Metrics.published(message.getType(), end - begin);
+                latency.recordNanos(end - (openLoop && intervalNanos > 0 ? intended : begin));
+                sent.increment();
+            } catch (Exception e) {
+                Metrics.publishFailed(message.getType());
+                failed.increment();
+            }
+        }
+    }
+
+    // Espera até o horário previsto; false se interrompido
+    private static boolean awaitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) return false;
+        }
+        return true;
+    }
+
+    private void report(long elapsedNanos) {
+        long total = sent.sum();
+        log.info(String.format(Locale.US,
+                "[LoadGenerator] Fim: %d enviadas, %d falhas, %d linhas lidas (%d inválidas) em %.2f s => %s msg/s%n"
+                        + "  latência de publicação (%s): p50 %s ms | p90 %s ms | p99 %s ms | p99.9 %s ms | máx %s ms",
+                total, failed.sum(), reader.lines(), reader.invalid(), elapsedNanos / 1e9, rate(total, elapsedNanos),
+                openLoop && intervalNanos > 0 ? "desde o horário previsto" : "tempo de publish",
+                millis(latency.percentile(0.50)), millis(latency.percentile(0.90)), millis(latency.percentile(0.99)),
+                millis(latency.percentile(0.999)), millis(latency.max())));
+    }
+
+    private static String rate(long count, long nanos) {
+        return nanos > 0 ? String.format(Locale.US, "%.0f", count * 1e9 / nanos) : "0";
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.US, "%.3f", micros / 1000.0);
+    }
+
+    /** Encerramento coordenado (chamado pelo shutdown hook e ao fim do run). */
+    public void shutdown() {
+        if (!shutdown.compareAndSet(false, true)) return;
+        executor.shutdownNow(); // Interrompe as esperas da agenda
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("[LoadGenerator] Workers não terminaram em 10 s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (MessagePublisher publisher : publishers) {
+            try { publisher.close(); } catch (Exception ignored) {}
+        }
+        try { reader.close(); } catch (Exception ignored) {}
+        if (sharedResources != null) {
+            try { sharedResources.close(); } catch (Exception ignored) {}
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.trabalho.finalpc.producer.loadgen; // Gerador de carga do produtor (LOADGEN_FILE)
+
+import com.fasterxml.jackson.core.JsonFactory;   // Parser de streaming (sem árvore nem databind)
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.trabalho.finalpc.common.ProductMessage;
+import com.trabalho.finalpc.common.ProductType;
+import com.trabalho.finalpc.common.config.AppConfig; // Prioridade e prazo padrão por tipo
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;            // Leitura em blocos, sem carregar o arquivo inteiro
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lê um arquivo JSONL de carga (um objeto por linha) e devolve uma ProductMessage por linha, sob demanda.
+ * Campos reconhecidos (todos opcionais):
+ * - type: nome de um tipo registrado (TIPO_A...; também aceito A e typeA). Sem type, o tipo sai do hash da linha, então o
+ *   mesmo arquivo gera sempre a mesma sequência de tipos (ex.: o requests.jsonl da raiz).
+ * - itemId, id ou request_id: id do item (sem ele, gero um novo). Nas repetições (loops > 1) recebe o
+ *   sufixo #n para continuar único.
+ * - producerId: produtor registrado na mensagem (sem ele, o do processo).
+ * - priority e deadlineMs: prioridade e prazo (ms após o envio) do item; sem eles, os do tipo
+ *   (MESSAGE_PRIORITY / MESSAGE_DEADLINE_MS). O prazo sai daqui relativo ao timestamp da mensagem, e o
+ *   LoadGenerator o desloca junto quando reescreve o timestamp no envio.
+ * Minhas decisões:
+ * - FileChannel com buffer de 64 KiB e acumulador de linha reaproveitado: a memória não depende do tamanho
+ *   do arquivo, e a linha é decodificada direto dos bytes pelo parser de streaming do Jackson (campos
+ *   desconhecidos são pulados sem montar objetos).
+ * - Linhas vazias são ignoradas; linhas inválidas são contadas e puladas (o arquivo não para a carga).
+ * - next() é sincronizado: vários workers compartilham o mesmo leitor e a ordem do arquivo é preservada
+ *   na retirada.
+ */
+public class WorkloadReader implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(WorkloadReader.class);
+    private static final JsonFactory JSON = new JsonFactory(); // Thread-safe; um parser por linha
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final ProductType[] TYPES = ProductType.values();
+    private static final int[] PRIORITY = new int[TYPES.length];      // Padrões por ordinal do tipo
+    private static final long[] DEADLINE_MS = new long[TYPES.length];
+
+    static {
+        for (ProductType type : TYPES) {
+            PRIORITY[type.ordinal()] = AppConfig.getMessagePriority(type);
+            DEADLINE_MS[type.ordinal()] = AppConfig.getMessageDeadlineMillis(type);
+        }
+    }
+
+    private final Path file;
+    private final int loops;
+    private final String defaultProducerId;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private byte[] line = new byte[1024];   // Cresce até a maior linha do arquivo
+    private int lineLength;
+    private int loop;                       // Repetição atual (0 = primeira passada)
+    private long lines;                     // Linhas lidas (todas as passadas)
+    private long invalid;                   // Linhas que não viraram mensagem
+
+    /**
+     * @param file              arquivo JSONL
+     * @param loops             quantas vezes o arquivo é reproduzido (>= 1)
+     * @param defaultProducerId producerId das linhas que não trazem o seu
+     */
+    public WorkloadReader(Path file, int loops, String defaultProducerId) throws IOException {
+        this.file = file;
+        this.loops = Math.max(1, loops);
+        this.defaultProducerId = defaultProducerId;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer.flip(); // Começa vazio (primeiro next() lê do arquivo)
+    }
+
+    /** Próxima mensagem da carga, ou null quando o arquivo (e suas repetições) acabou. */
+    public synchronized ProductMessage next() throws IOException {
+        while (readLine()) {
+            lines++;
+            if (isBlank()) continue;
+            ProductMessage message = parse();
+            if (message != null) return message;
+            if (++invalid <= 5) { // Não inunda o log com um arquivo inteiro inválido
+                log.warn("[WorkloadReader] Linha {} de {} ignorada (não é um objeto JSON válido)", lines, file.getFileName());
+            }
+        }
+        return null;
+    }
+
+    /** Linhas lidas até agora (todas as repetições, incluindo vazias e inválidas). */
+    public synchronized long lines() {
+        return lines;
+    }
+
+    /** Linhas ignoradas por serem inválidas. */
+    public synchronized long invalid() {
+        return invalid;
+    }
+
+    // Copia a próxima linha (sem o \n) para o acumulador; false no fim da última repetição
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        boolean any = false;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int n = channel.read(buffer);
+                buffer.flip();
+                if (n < 0) {
+                    if (any) return true;          // Última linha sem \n no fim do arquivo
+                    if (++loop >= loops) return false;
+                    channel.position(0);           // Próxima repetição
+                    continue;
+                }
+            }
+            any = true;
+            byte[] array = buffer.array();
+            int start = buffer.position();
+            int end = buffer.limit();
+            int newline = start;
+            while (newline < end && array[newline] != '\n') newline++;
+            append(array, start, newline - start);
+            if (newline < end) {
+                buffer.position(newline + 1);
+                return true;
+            }
+            buffer.position(end);
+        }
+    }
+
+    private void append(byte[] src, int offset, int length) {
+        if (lineLength + length > line.length) line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        System.arraycopy(src, offset, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private boolean isBlank() {
+        for (int i = 0; i < lineLength; i++) {
+            byte b = line[i];
+            if (b != ' ' && b != '\t' && b != '\r') return false;
+        }
+        return true;
+    }
+
+    // Decodifica a linha atual; null se não for um objeto JSON
+    private ProductMessage parse() {
+        ProductType type = null;
+        String itemId = null;
+        String producerId = null;
+        int priority = -1;    // -1 = padrão do tipo
+        long deadlineMs = -1;
+        try (JsonParser parser = JSON.createParser(line, 0, lineLength)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "type":
+                        type = value == JsonToken.VALUE_STRING ? ProductType.lookup(parser.getText()) : null;
+                        break;
+                    case "itemId":
+                    case "id":
+                    case "request_id":
+                        if (itemId == null && value.isScalarValue()) itemId = parser.getText();
+                        break;
+                    case "producerId":
+                        if (value.isScalarValue()) producerId = parser.getText();
+                        break;
+                    case "priority":
+                        if (value == JsonToken.VALUE_NUMBER_INT) priority = Math.max(0, Math.min(255, parser.getIntValue()));
+                        break;
+                    case "deadlineMs":
+                        if (value.isNumeric()) deadlineMs = Math.max(0, parser.getLongValue());
+                        break;
+                    default:
+                        parser.skipChildren(); // Campos desconhecidos (inclusive objetos/arrays) não são montados
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        ProductMessage message = new ProductMessage(); // id e timestamp novos
+        type = type != null ? type : TYPES[Math.floorMod(hashLine(), TYPES.length)];
+        message.setType(type);
+        message.setPriority(priority >= 0 ? priority : PRIORITY[type.ordinal()]);
+        if (deadlineMs < 0) deadlineMs = DEADLINE_MS[type.ordinal()];
+        if (deadlineMs > 0) message.setDeadline(message.getTimestamp() + deadlineMs);
+        if (itemId != null) message.setItemId(loop == 0 ? itemId : itemId + "#" + loop);
+        message.setProducerId(producerId != null ? producerId : defaultProducerId);
+        return message;
+    }
+
+    private int hashLine() {
+        int h = 1;
+        for (int i = 0; i < lineLength; i++) h = 31 * h + line[i];
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,156 @@
+package com.trabalho.finalpc.producer.messaging; // Adaptadores de mensageria do produtor
+
+import com.rabbitmq.client.AMQP;            // Propriedades guardadas para republicação
+import com.rabbitmq.client.ConfirmListener; // Callbacks assíncronos de ack/nack do broker
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;      // Avisa quem espera a confirmação (publishConfirmed)
+import java.util.concurrent.ConcurrentLinkedQueue;  // Nacks aguardando republicação
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;  // seqNo -> publicação pendente (ordenado)
+import java.util.concurrent.Semaphore;              // Janela de publicações em voo (backpressure)
+
+/**
+ * Acompanha publisher confirms sem bloquear a publicação a cada mensagem.
+ * Minhas decisões:
+ * - Cada publicação fica num mapa ordenado por sequence number até o broker confirmar.
+ * - Um semáforo limita quantas podem estar em voo (CONFIRM_WINDOW); quem publica espera quando a janela
+ *   enche, o que propaga a pressão do broker até o ProducerService.
+ * - Acks com multiple=true removem o prefixo do mapa de uma vez e liberam a janela.
+ * - Nacks e publicações sem resposta após o timeout voltam para republicação; a vaga na janela é mantida.
+ * - Na recuperação automática do canal os sequence numbers recomeçam em 1: tudo que ainda aguardava
+ *   confirmação volta para republicação antes da primeira publicação no canal novo (requeueAll), senão
+ *   acks do canal novo confirmariam (ou sobrescreveriam) entradas do antigo.
+ * - Publicações com futuro (publishConfirmed) o completam no ack; um nack só republica. No encerramento,
+ *   o que sobrou sem confirmação tem o futuro falho (failAll), para quem espera devolver a mensagem ao spill.
+ */
+final class ConfirmTracker implements ConfirmListener {
+    private final ConcurrentSkipListMap<Long, PendingPublish> outstanding = new ConcurrentSkipListMap<>();
+    private final ConcurrentLinkedQueue<PendingPublish> nacked = new ConcurrentLinkedQueue<>();
+    private final Semaphore window;
+    private final long timeoutMillis;
+
+    ConfirmTracker(int windowSize, long timeoutMillis) {
+        this.window = new Semaphore(windowSize);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /** Reserva uma vaga na janela (bloqueia enquanto houver CONFIRM_WINDOW publicações sem confirmação). */
+    void acquire() throws InterruptedException {
+        window.acquire();
+    }
+
+    /** Devolve uma vaga reservada cuja publicação falhou antes de chegar ao broker. */
+    void release() {
+        window.release();
+    }
+
+    /** Registra uma publicação com seu sequence number (antes do basicPublish, para não perder o ack). */
+    void sent(long seqNo, PendingPublish publish) {
+        publish.sentAt = System.currentTimeMillis();
+        outstanding.put(seqNo, publish);
+    }
+
+    /** Desfaz o registro de uma publicação cujo basicPublish falhou (quem chamou decide o destino da vaga). */
+    void unsent(long seqNo) {
+        outstanding.remove(seqNo);
+    }
+
+    /** Devolve para a próxima varredura uma publicação que não pôde ser republicada agora (mantém a vaga). */
+    void retryLater(PendingPublish publish) {
+        nacked.add(publish);
+    }
+
+    /**
+     * Canal recuperado: os sequence numbers antigos não serão mais confirmados, então tudo que os aguardava
+     * volta para republicação, em ordem e com a vaga mantida.
+     */
+    void requeueAll() {
+        Map.Entry<Long, PendingPublish> e;
+        while ((e = outstanding.pollFirstEntry()) != null) nacked.add(e.getValue());
+    }
+
+    /** Quantidade de publicações aguardando confirmação. */
+    int outstanding() {
+        return outstanding.size();
+    }
+
+    /** Quantidade de publicações esperando a próxima varredura de republicação. */
+    int pendingRetries() {
+        return nacked.size();
+    }
+
+    /** Encerramento: falha o futuro de tudo que não foi confirmado (aguardando ack ou republicação). */
+    void failAll(Exception cause) {
+        Map.Entry<Long, PendingPublish> e;
+        while ((e = outstanding.pollFirstEntry()) != null) fail(e.getValue(), cause);
+        PendingPublish p;
+        while ((p = nacked.poll()) != null) fail(p, cause);
+    }
+
+    private static void fail(PendingPublish publish, Exception cause) {
+        if (publish.confirmed != null) publish.confirmed.completeExceptionally(cause);
+    }
+
+    @Override
+    public void handleAck(long deliveryTag, boolean multiple) {
+        List<PendingPublish> settled = settle(deliveryTag, multiple);
+        window.release(settled.size());
+        for (PendingPublish p : settled) {
+            if (p.confirmed != null) p.confirmed.complete(null);
+        }
+    }
+
+    @Override
+    public void handleNack(long deliveryTag, boolean multiple) {
+        nacked.addAll(settle(deliveryTag, multiple)); // Mantém a vaga: a mensagem ainda vai ser publicada
+    }
+
+    /**
+     * Retira para republicação tudo que foi rejeitado (nack) ou passou do timeout sem confirmação.
+     * A vaga na janela continua reservada para essas mensagens.
+     */
+    List<PendingPublish> drainRetries() {
+        List<PendingPublish> retries = new ArrayList<>();
+        PendingPublish p;
+        while ((p = nacked.poll()) != null) retries.add(p);
+        long deadline = System.currentTimeMillis() - timeoutMillis;
+        for (Map.Entry<Long, PendingPublish> e : outstanding.entrySet()) { // Ordenado: as mais antigas primeiro
+            if (e.getValue().sentAt > deadline) break;
+            if (outstanding.remove(e.getKey(), e.getValue())) retries.add(e.getValue());
+        }
+        return retries;
+    }
+
+    // Remove do mapa a tag confirmada (ou todas até ela, se multiple=true)
+    private List<PendingPublish> settle(long deliveryTag, boolean multiple) {
+        List<PendingPublish> settled = new ArrayList<>();
+        if (multiple) {
+            ConcurrentNavigableMap<Long, PendingPublish> head = outstanding.headMap(deliveryTag, true);
+            Map.Entry<Long, PendingPublish> e;
+            while ((e = head.pollFirstEntry()) != null) settled.add(e.getValue());
+        } else {
+            PendingPublish p = outstanding.remove(deliveryTag);
+            if (p != null) settled.add(p); // null = já republicada por timeout
+        }
+        return settled;
+    }
+
+    /** Uma publicação guardada até a confirmação (o suficiente para republicar sem recodificar). */
+    static final class PendingPublish {
+        final String routingKey;
+        final AMQP.BasicProperties props;
+        final byte[] body;
+        final CompletableFuture<Void> confirmed; // null = ninguém espera esta confirmação
+        volatile long sentAt;
+
+        PendingPublish(String routingKey, AMQP.BasicProperties props, byte[] body, CompletableFuture<Void> confirmed) {
+            this.routingKey = routingKey;
+            this.props = props;
+            this.body = body;
+            this.confirmed = confirmed;
+        }
+    }
+}
@@ -3,85 +3,405 @@ package com.trabalho.finalpc.producer.messaging; // Adaptador de publicação re
 import com.rabbitmq.client.AMQP;                // Propriedades de mensagem (contentType, deliveryMode, timestamp)
 import com.rabbitmq.client.Channel;             // Canal AMQP (operações de publicação/declaração)
 import com.rabbitmq.client.Connection;          // Conexão AMQP
-import com.rabbitmq.client.ConnectionFactory;   // Fábrica de conexões
+import com.rabbitmq.client.Recoverable;         // Canal com recuperação automática (sequence numbers recomeçam)
+import com.rabbitmq.client.RecoveryListener;
 import com.trabalho.finalpc.common.MessagingConstants; // Nomes padronizados (exchange/filas/rk)
 import com.trabalho.finalpc.common.ProductMessage;
 import com.trabalho.finalpc.common.ProductType;
 import com.trabalho.finalpc.common.config.AppConfig;    // Lê host/porta/user/pass do broker
+import com.trabalho.finalpc.common.logging.HotPathLog;  // Logs por mensagem (LOG_MODE/LOG_PAYLOADS)
 import com.trabalho.finalpc.common.messaging.MessagePublisher;
-import com.trabalho.finalpc.common.serialization.JsonCodec;               // Abstração de JSON
-import com.trabalho.finalpc.common.serialization.JacksonProductMessageCodec; // Implementação Jackson
+import com.trabalho.finalpc.common.messaging.QueueStats;                  // Profundidade das filas (TYPE_STRATEGY=backpressure)
+import com.trabalho.finalpc.common.messaging.rabbit.RabbitConnectionPool; // Conexões compartilhadas do processo
+import com.trabalho.finalpc.common.messaging.rabbit.Retries;              // Cabeçalhos do estacionamento
+import com.trabalho.finalpc.common.messaging.rabbit.Shards;               // Fila/rk do shard de cada item (SHARDS_PER_TYPE)
+import com.trabalho.finalpc.common.messaging.rabbit.Topology;             // Exchange/filas declarados uma vez por processo
+import com.trabalho.finalpc.common.metrics.Metrics;                       // Gauge de publicações sem confirmação
+import com.trabalho.finalpc.common.serialization.ByteCodec;               // Abstração de codec em bytes
+import com.trabalho.finalpc.common.serialization.ProductMessageCodecs;    // Codec configurado (JSON/binário)
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.StandardCharsets; // Encoding para o corpo da mensagem
+import java.io.IOException;              // Publicação recusada durante a recuperação do canal
+import java.util.ArrayList;
 import java.util.Date;                    // Timestamp AMQP (compatível com UI do Rabbit)
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;    // publishConfirmed: completa no ack do broker
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService; // Varredura de nacks/timeouts para republicar
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
 
 /**
  * Este adaptador publica mensagens reais no RabbitMQ.
  * Minhas decisões:
- * - Declarar exchange/filas/bindings na construção (idempotente) para simplificar setup.
- * - Publicar mensagens persistentes (deliveryMode=2) em JSON com contentType explícito.
+ * - O canal vem do RabbitConnectionPool do processo (o construtor sem conexão usa o pool compartilhado
+ *   "producer-app"); exchange/filas/bindings são declarados pela Topology só no primeiro publicador.
+ * - Com SHARDS_PER_TYPE > 1, cada item vai para o shard do hash do seu itemId (Shards.shardFor, pelos bits
+ *   do id: o texto do UUID não é montado para publicar).
+ * - Publicar mensagens persistentes (deliveryMode=2) com contentType explícito do codec (JSON ou binário,
+ *   conforme MESSAGE_CODEC); o codec escreve bytes direto, sem String intermediária.
+ * - A prioridade do item (se houver) vira a prioridade AMQP; o broker só a respeita em filas declaradas com
+ *   x-max-priority (QUEUE_MAX_PRIORITY). O prazo segue só no corpo: quem desvia vencidos é o consumidor.
+ * - park publica no estacionamento (products.parking) com x-retry-count e x-last-error, para o
+ *   RetryingPublisher não descartar o que esgotou as novas tentativas. Como é o último recurso, usa um canal
+ *   próprio em modo confirm e espera a confirmação (CONFIRM_TIMEOUT_MS): um nack lança exceção e uma
+ *   devolução por falta de rota (mandatory) retorna false, para o RetryingPublisher registrar a perda.
+ * - Opcionalmente (PUBLISHER_CONFIRMS=true) ativar publisher confirms de forma assíncrona: nada de
+ *   waitForConfirms por mensagem; o ConfirmTracker acompanha as confirmações, limita as publicações em voo
+ *   e uma varredura periódica republica nacks e mensagens sem confirmação após CONFIRM_TIMEOUT_MS.
+ *   Quando a recuperação automática reabre o canal, o que aguardava confirmação volta para republicação
+ *   antes de qualquer publicação nova; enquanto o canal novo não está em modo confirm, send recusa publicar.
+ *   Uma republicação que falha volta para a fila da próxima varredura (nada é descartado).
+ *   publishConfirmed devolve um futuro completado no ack; no close, o que ficou sem confirmação tem o
+ *   futuro falho (o SpillingPublisher devolve essas mensagens ao log).
+ * Como QueueStats, mede messageCount/consumerCount das filas (queueDeclarePassive) num canal só para isso,
+ * criado na primeira medição, para as consultas não disputarem o lock das publicações.
  */
-public class RabbitPublisher implements MessagePublisher {
+public class RabbitPublisher implements MessagePublisher, QueueStats {
     private static final Logger log = LoggerFactory.getLogger(RabbitPublisher.class);
+    private static final HotPathLog PUBLISHED = HotPathLog.event(log, "publicado");
+    private static final HotPathLog BATCH_PUBLISHED = HotPathLog.event(log, "lote");
 
-    private final Connection connection;
+    private final Connection connection;                // Conexão do canal (para o canal de medição)
     private final Channel channel;
-    private final JsonCodec<ProductMessage> codec;
+    private final RabbitConnectionPool ownedPool;       // Referência ao pool liberada no close (null = de quem criou)
+    private final ByteCodec<ProductMessage> codec;
+    private final ConfirmTracker confirms;              // null quando os confirms estão desligados
+    private final ScheduledExecutorService republisher; // Varredura de republicação (só com confirms)
+    private final Object publishLock = new Object();    // O canal não é thread-safe para publicações concorrentes
+    private final DoubleSupplier unconfirmedGauge;      // Fonte do gauge publish_unconfirmed (só com confirms)
+    private final Object statsLock = new Object();
+    private Channel statsChannel;                       // Canal das consultas de fila (protegido por statsLock)
+    private final Object parkLock = new Object();
+    private Channel parkChannel;                        // Canal do estacionamento em modo confirm (protegido por parkLock)
+    private volatile boolean parkReturned;              // O broker devolveu a última mensagem estacionada (sem rota)
+    private boolean republishFailing;                   // Só a thread da varredura usa: um log de erro por queda
 
     public RabbitPublisher() throws Exception {
-        this(new JacksonProductMessageCodec());
+        this(ProductMessageCodecs.configured());
     }
 
-    public RabbitPublisher(JsonCodec<ProductMessage> codec) throws Exception { // Permite injetar outro codec para testes
+    public RabbitPublisher(ByteCodec<ProductMessage> codec) throws Exception { // Permite injetar outro codec para testes
+        this(RabbitConnectionPool.shared("producer-app"), codec, true);
+    }
+
+    /**
+     * Publicador com canal próprio aberto no pool (uma instância por faixa/thread, já que canais não são
+     * thread-safe). O pool não é fechado por este publicador.
+     */
+    public RabbitPublisher(RabbitConnectionPool pool, ByteCodec<ProductMessage> codec) throws Exception {
+        this(pool, codec, false);
+    }
+
+    /** Publicador com canal próprio sobre uma conexão avulsa (ex.: broker simulado nos benchmarks). */
+    public RabbitPublisher(Connection connection, ByteCodec<ProductMessage> codec) throws Exception {
+        this(connection.createChannel(), null, codec);
+    }
+
+    private RabbitPublisher(RabbitConnectionPool pool, ByteCodec<ProductMessage> codec, boolean ownsPool) throws Exception {
+        this(openPoolChannel(pool, ownsPool), ownsPool ? pool : null, codec);
+    }
+
+    private RabbitPublisher(Channel channel, RabbitConnectionPool ownedPool, ByteCodec<ProductMessage> codec) throws Exception {
         this.codec = codec;
+        this.connection = channel.getConnection();
+        this.channel = channel;
+        this.ownedPool = ownedPool;
+        try {
+            Topology.ensureDeclared(channel); // Só o primeiro publicador/assinante do processo declara
+        } catch (Exception e) {
+            if (ownedPool != null) ownedPool.close(); // Sem publicador, a referência ao pool não seria liberada
+            throw e;
+        }
 
-        ConnectionFactory factory = new ConnectionFactory();           // Configura fábrica de conexão AMQP
-        factory.setHost(AppConfig.getRabbitHost());                    // Host (default: localhost)
-        factory.setPort(AppConfig.getRabbitPort());                    // Porta (default: 5672)
-        factory.setUsername(AppConfig.getRabbitUser());                // Usuário (default: guest)
-        factory.setPassword(AppConfig.getRabbitPass());                // Senha (default: guest)
+        if (AppConfig.isPublisherConfirms()) {
+            this.confirms = new ConfirmTracker(AppConfig.getConfirmWindow(), AppConfig.getConfirmTimeoutMillis());
+            channel.confirmSelect();              // Broker passa a confirmar cada publicação (assíncrono)
+            channel.addConfirmListener(confirms);
+            if (channel instanceof Recoverable recoverable) recoverable.addRecoveryListener(new RecoveryListener() {
+                @Override
+                public void handleRecoveryStarted(Recoverable r) { // Antes do confirmSelect no canal novo
+                    synchronized (publishLock) {
+                        confirms.requeueAll();
+                    }
+                }
 
-        this.connection = factory.newConnection("producer-app");      // Abre conexão com nome amigável
-        this.channel = connection.createChannel();                     // Cria canal para publicar e declarar topologia
+                @Override
+                public void handleRecovery(Recoverable r) {
+                    log.info("[RabbitPublisher] Canal recuperado; {} publicação(ões) serão republicadas.", confirms.pendingRetries());
+                }
+            });
+            this.republisher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "confirm-republisher");
+                t.setDaemon(true); // Não impede o encerramento da JVM
+                return t;
+            });
+            republisher.scheduleWithFixedDelay(this::republishPending, 100, 100, TimeUnit.MILLISECONDS);
+            this.unconfirmedGauge = confirms::outstanding;
+            Metrics.registerGauge("publish_unconfirmed", "", "Publicações aguardando publisher confirm", unconfirmedGauge);
+        } else {
+            this.confirms = null;
+            this.republisher = null;
+            this.unconfirmedGauge = null;
+        }
 
-        // Declara topologia (idempotente)
-        channel.exchangeDeclare(MessagingConstants.EXCHANGE_PRODUCTS, "direct", true); // exchange durável
-        channel.queueDeclare(MessagingConstants.QUEUE_TYPE_A, true, false, false, null); // filas duráveis
-        channel.queueDeclare(MessagingConstants.QUEUE_TYPE_B, true, false, false, null);
-        channel.queueBind(MessagingConstants.QUEUE_TYPE_A, MessagingConstants.EXCHANGE_PRODUCTS, MessagingConstants.ROUTING_KEY_TYPE_A);
-        channel.queueBind(MessagingConstants.QUEUE_TYPE_B, MessagingConstants.EXCHANGE_PRODUCTS, MessagingConstants.ROUTING_KEY_TYPE_B);
+        log.info("[RabbitPublisher] Conectado a {}:{} como {}. Exchange '{}' pronto (confirms={}).",
+                AppConfig.getRabbitHost(), AppConfig.getRabbitPort(), AppConfig.getRabbitUser(),
+                MessagingConstants.EXCHANGE_PRODUCTS, confirms != null);
+    }
 
-        log.info("[RabbitPublisher] Conectado a {}:{} como {}. Exchange '{}' pronto.",
-                AppConfig.getRabbitHost(), AppConfig.getRabbitPort(), AppConfig.getRabbitUser(), MessagingConstants.EXCHANGE_PRODUCTS);
+    // Canal do pool; se nem isso for possível, libera a referência que este publicador acabou de pegar
+    private static Channel openPoolChannel(RabbitConnectionPool pool, boolean ownsPool) throws Exception {
+        try {
+            return pool.openChannel();
+        } catch (Exception e) {
+            if (ownsPool) pool.close();
+            throw e;
+        }
     }
 
     @Override
     public void publish(ProductType type, ProductMessage message) throws Exception {
-        String routingKey = (type == ProductType.TIPO_A)               // Mapeia tipo -> routing key
-                ? MessagingConstants.ROUTING_KEY_TYPE_A
-                : MessagingConstants.ROUTING_KEY_TYPE_B;
+        publish(type, message, null);
+    }
 
-        String json = codec.toJson(message);                           // Serializa DTO -> JSON
-        byte[] body = json.getBytes(StandardCharsets.UTF_8);           // Codifica como UTF-8
+    @Override
+    public CompletableFuture<Void> publishConfirmed(ProductType type, ProductMessage message) throws Exception {
+        if (confirms == null) return MessagePublisher.super.publishConfirmed(type, message); // Sem confirms: nada a esperar
+        CompletableFuture<Void> confirmed = new CompletableFuture<>();
+        publish(type, message, confirmed);
+        return confirmed;
+    }
+
+    // confirmed: futuro completado no ack (só com confirms; null = ninguém espera)
+    private void publish(ProductType type, ProductMessage message, CompletableFuture<Void> confirmed) throws Exception {
+        String routingKey = Shards.routingKey(type, Shards.shardFor(message)); // Tipo (+ shard) -> routing key
+
+        byte[] body = codec.encode(message);                           // Serializa DTO -> bytes (JSON ou binário)
 
         AMQP.BasicProperties props = new AMQP.BasicProperties.Builder() // Define metadados úteis
-                .contentType("application/json")                       // Ajuda a UI e consumidores a entenderem o payload
+                .contentType(codec.contentType())                      // Consumidores escolhem o codec por aqui
                 .deliveryMode(2)                                       // 2 = persistente (sobrevive a restart do broker)
                 .timestamp(new Date(message.getTimestamp()))           // Timestamp alinhado ao DTO
+                .priority(message.getPriority() > 0 ? message.getPriority() : null) // Sem prioridade = propriedade ausente
                 .build();
 
-        channel.basicPublish(MessagingConstants.EXCHANGE_PRODUCTS, routingKey, props, body); // Publica de fato
-        log.info("[RabbitPublisher] Publicado em rk='{}' => {}", routingKey, json);          // Log para auditoria
+        if (confirms == null) {
+            synchronized (publishLock) {
+                channel.basicPublish(MessagingConstants.EXCHANGE_PRODUCTS, routingKey, props, body); // Publica de fato
+            }
+        } else {
+            confirms.acquire(); // Backpressure: espera vaga na janela de confirmações
+            try {
+                send(new ConfirmTracker.PendingPublish(routingKey, props, body, confirmed));
+            } catch (Exception e) {
+                confirms.release(); // Não chegou ao broker: devolve a vaga e propaga o erro
+                throw e;
+            }
+        }
+        if (HotPathLog.payloads()) {
+            PUBLISHED.info("[RabbitPublisher] Publicado em rk='{}' => tipo={} ({} bytes, {}) corpo={}",
+                    routingKey, type, body.length, codec.contentType(), HotPathLog.payload(body, codec.contentType()));
+        } else {
+            PUBLISHED.info("[RabbitPublisher] Publicado em rk='{}' => tipo={} ({} bytes, {})", // itemId já saiu no log do ProducerService
+                    routingKey, type, body.length, codec.contentType());
+        }
+    }
+
+    /**
+     * Publica um lote: agrupa por routing key, monta as propriedades uma vez por grupo e publica o grupo
+     * inteiro sob um único lock do canal. O timestamp AMQP passa a ser o do lote (o do item segue no corpo).
+     * Itens com prioridade ganham uma cópia das propriedades com a prioridade deles.
+     */
+    @Override
+    public void publishBatch(List<ProductMessage> messages) throws Exception {
+        publishBatch(messages, null);
+    }
+
+    @Override
+    public CompletableFuture<Void> publishBatchConfirmed(List<ProductMessage> messages) throws Exception {
+        if (confirms == null) return MessagePublisher.super.publishBatchConfirmed(messages);
+        List<CompletableFuture<Void>> confirmations = new ArrayList<>(messages.size());
+        publishBatch(messages, confirmations);
+        return CompletableFuture.allOf(confirmations.toArray(new CompletableFuture<?>[0]));
+    }
+
+    // confirmations: recebe o futuro de cada mensagem (só com confirms; null = ninguém espera)
+    private void publishBatch(List<ProductMessage> messages, List<CompletableFuture<Void>> confirmations) throws Exception {
+        if (messages.isEmpty()) return;
+        ProductType[] types = ProductType.values();
+        int shards = Shards.count();
+        AMQP.BasicProperties props = new AMQP.BasicProperties.Builder() // Uma vez por lote
+                .contentType(codec.contentType())
+                .deliveryMode(2)
+                .timestamp(new Date())
+                .build();
+
+        List<List<Encoded>> bodies = new ArrayList<>(types.length * shards); // Índice = ordinal x shards + shard
+        for (int i = 0; i < types.length * shards; i++) bodies.add(new ArrayList<>());
+        for (ProductMessage message : messages) {
+            int group = message.getType().ordinal() * shards + Shards.shardFor(message);
+            AMQP.BasicProperties p = message.getPriority() > 0 ? props.builder().priority(message.getPriority()).build() : props;
+            bodies.get(group).add(new Encoded(codec.encode(message), p));
+        }
+
+        for (int g = 0; g < bodies.size(); g++) {
+            List<Encoded> group = bodies.get(g);
+            if (group.isEmpty()) continue;
+            String routingKey = Shards.routingKey(types[g / shards], g % shards);
+            if (confirms == null) {
+                synchronized (publishLock) { // Um lock para o grupo inteiro
+                    for (Encoded e : group) {
+                        channel.basicPublish(MessagingConstants.EXCHANGE_PRODUCTS, routingKey, e.props, e.body);
+                    }
+                }
+            } else {
+                for (Encoded e : group) { // Com confirms, cada mensagem ainda respeita a janela
+                    confirms.acquire();
+                    CompletableFuture<Void> confirmed = confirmations != null ? new CompletableFuture<>() : null;
+                    try {
+                        send(new ConfirmTracker.PendingPublish(routingKey, e.props, e.body, confirmed));
+                        if (confirmed != null) confirmations.add(confirmed);
+                    } catch (Exception ex) {
+                        confirms.release();
+                        throw ex;
+                    }
+                }
+            }
+            BATCH_PUBLISHED.info("[RabbitPublisher] Lote publicado em rk='{}' => {} mensagens", routingKey, group.size());
+        }
+    }
+
+    @Override
+    public boolean park(ProductMessage message, Exception lastError) throws Exception {
+        AMQP.BasicProperties props = new AMQP.BasicProperties.Builder()
+                .contentType(codec.contentType())
+                .deliveryMode(2)
+                .timestamp(new Date(message.getTimestamp()))
+                .headers(Map.of(Retries.HEADER_RETRY_COUNT, message.getRetryCount(),
+                        Retries.HEADER_LAST_ERROR, Retries.describe(lastError),
+                        "x-product-type", message.getType().name()))
+                .build();
+        byte[] body = codec.encode(message);
+        synchronized (parkLock) {
+            if (parkChannel == null || !parkChannel.isOpen()) { // Um nack (waitForConfirmsOrDie) fecha o canal
+                parkChannel = connection.createChannel();
+                parkChannel.confirmSelect();
+                parkChannel.addReturnListener(returned -> parkReturned = true); // Chega antes do ack da mesma mensagem
+            }
+            parkReturned = false;
+            parkChannel.basicPublish(MessagingConstants.EXCHANGE_PARKING, "", true, props, body); // mandatory: sem fila, volta
+            parkChannel.waitForConfirmsOrDie(AppConfig.getConfirmTimeoutMillis());
+            return !parkReturned;
+        }
+    }
+
+    @Override
+    public long depth(ProductType type) {
+        long total = 0;
+        for (String queue : Shards.queues(type)) { // Soma dos shards do tipo
+            AMQP.Queue.DeclareOk ok = declarePassive(queue);
+            if (ok == null) return -1;
+            total += ok.getMessageCount();
+        }
+        return total;
+    }
+
+    @Override
+    public int consumers(ProductType type) {
+        int max = 0;
+        for (String queue : Shards.queues(type)) { // Assinantes consomem todos os shards: o maior é o total
+            AMQP.Queue.DeclareOk ok = declarePassive(queue);
+            if (ok == null) return -1;
+            max = Math.max(max, ok.getConsumerCount());
+        }
+        return max;
+    }
+
+    // Consulta a fila sem alterá-la; null se o broker não respondeu (conexão fechada, fila inexistente...)
+    private AMQP.Queue.DeclareOk declarePassive(String queue) {
+        if (connection == null || !connection.isOpen()) return null; // Encerrando (ou em recuperação): não tenta abrir canal
+        synchronized (statsLock) {
+            try {
+                if (statsChannel == null || !statsChannel.isOpen()) statsChannel = connection.createChannel(); // Um erro fecha o canal
+                return statsChannel.queueDeclarePassive(queue);
+            } catch (Exception e) {
+                log.warn("[RabbitPublisher] Falha ao medir queue='{}': {}", queue, e.toString());
+                return null;
+            }
+        }
+    }
+
+    // Registra o seqNo antes de publicar para que o ack assíncrono sempre encontre a entrada
+    private void send(ConfirmTracker.PendingPublish p) throws Exception {
+        synchronized (publishLock) {
+            long seqNo = channel.getNextPublishSeqNo();
+            if (seqNo == 0) throw new IOException("canal em recuperação (confirms ainda não reativados)"); // 0 = sem confirmSelect
+            confirms.sent(seqNo, p);
+            try {
+                channel.basicPublish(MessagingConstants.EXCHANGE_PRODUCTS, p.routingKey, p.props, p.body);
+            } catch (Exception e) {
+                confirms.unsent(seqNo); // Não saiu: o timeout não deve republicá-la por conta própria
+                throw e;
+            }
+        }
+    }
+
+    // Executado pela varredura: republica nacks e publicações que passaram do timeout
+    private void republishPending() {
+        List<ConfirmTracker.PendingPublish> retries = confirms.drainRetries();
+        for (int i = 0; i < retries.size(); i++) {
+            ConfirmTracker.PendingPublish p = retries.get(i);
+            try {
+                send(p);
+                republishFailing = false;
+                log.warn("[RabbitPublisher] Republicado em rk='{}' (nack ou sem confirmação).", p.routingKey);
+            } catch (Exception e) {
+                for (int j = i; j < retries.size(); j++) confirms.retryLater(retries.get(j)); // Vagas mantidas
+                if (republishFailing) return;
+                republishFailing = true;
+                log.error("[RabbitPublisher] Falha ao republicar em rk='{}' ({} aguardando a próxima varredura): {}",
+                        p.routingKey, retries.size() - i, e.toString());
+                return; // Canal indisponível: o resto também falharia agora
+            }
+        }
     }
 
     @Override
     public void close() throws Exception { // Fecha canal e conexão com segurança
+        if (confirms != null) {
+            long deadline = System.currentTimeMillis() + AppConfig.getConfirmTimeoutMillis();
+            while (confirms.outstanding() > 0 && System.currentTimeMillis() < deadline && channel.isOpen()) {
+                Thread.sleep(10); // Dá tempo para as últimas confirmações chegarem
+            }
+            republisher.shutdownNow();
+            republisher.awaitTermination(1, TimeUnit.SECONDS); // Uma varredura em curso não republica depois do failAll
+            confirms.failAll(new IOException("publicador fechado antes da confirmação do broker"));
+            Metrics.unregisterGauge("publish_unconfirmed", "", unconfirmedGauge);
+        }
         try {
+            synchronized (statsLock) {
+                if (statsChannel != null && statsChannel.isOpen()) statsChannel.close();
+            }
+            synchronized (parkLock) {
+                if (parkChannel != null && parkChannel.isOpen()) parkChannel.close();
+            }
             if (channel != null && channel.isOpen()) channel.close();
         } finally {
-            if (connection != null && connection.isOpen()) connection.close();
+            if (ownedPool != null) ownedPool.close(); // Conexões fecham quando o último usuário do pool fechar
+        }
+    }
+
+    /** Corpo já codificado de um item do lote e as propriedades com que ele será publicado. */
+    private static final class Encoded {
+        final byte[] body;
+        final AMQP.BasicProperties props;
+
+        Encoded(byte[] body, AMQP.BasicProperties props) {
+            this.body = body;
+            this.props = props;
         }
     }
 }
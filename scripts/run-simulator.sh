@@ -0,0 +1,17 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# Uso: bash scripts/run-simulator.sh [SIM_CONSUMERS] [SIM_OUTPUT]
+# Ex.: SIM_TYPE_STRATEGIES=random,backpressure bash scripts/run-simulator.sh 1-8 sim.csv
+export SIM_CONSUMERS=${1:-${SIM_CONSUMERS:-4}}
+if [[ -n "${2:-}" ]]; then export SIM_OUTPUT="$2"; fi
+
+JAR=$(ls -1 simulator/target/simulator.jar 2>/dev/null || true)
+if [[ -z "$JAR" ]]; then
+  echo "Fat-jar não encontrado. Rodando build..."
+  mvn -q -DskipTests package
+  JAR=$(ls -1 simulator/target/simulator.jar)
+fi
+
+echo "Simulando SIM_PRODUCERS=${SIM_PRODUCERS:-2} x SIM_CONSUMERS=$SIM_CONSUMERS (SIM_ITEMS=${SIM_ITEMS:-1000000})" >&2
+java -jar "$JAR"
@@ -0,0 +1,334 @@
+package com.trabalho.finalpc.simulator; // Simulador de eventos discretos
+
+import com.trabalho.finalpc.common.ProductType;
+import com.trabalho.finalpc.common.Timing;                     // Mesmos tempos/modelos do sistema real
+import com.trabalho.finalpc.common.config.AppConfig;           // Limite das filas e piso de justiça das estratégias
+import com.trabalho.finalpc.common.messaging.QueueStats;       // As estratégias enxergam as filas simuladas
+import com.trabalho.finalpc.common.metrics.LatencyHistogram;   // Percentis de espera e fim a fim
+import com.trabalho.finalpc.consumer.AdaptiveNeedSelectionStrategy;
+import com.trabalho.finalpc.consumer.NeedSelectionStrategy;
+import com.trabalho.finalpc.consumer.RandomNeedSelectionStrategy;
+import com.trabalho.finalpc.producer.BackpressureTypeSelectionStrategy;
+import com.trabalho.finalpc.producer.RandomTypeSelectionStrategy;
+import com.trabalho.finalpc.producer.TypeSelectionStrategy;
+
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;  // Agenda de eventos (menor tempo primeiro)
+import java.util.SplittableRandom; // Tempos sorteados reprodutíveis pela semente
+
+/**
+ * Uma execução do pipeline produtor/consumidor em tempo simulado: P produtores, C consumidores e uma fila
+ * FIFO por tipo, como no broker.
+ * Fluxo (igual ao dos serviços reais):
+ * - Produtor: escolhe o tipo (TypeSelectionStrategy), “produz” por Timing.productionMillis e publica.
+ *   Com backpressure e todas as filas no limite, tenta de novo após QUEUE_STATS_REFRESH_MS.
+ * - Consumidor: escolhe o tipo necessário (NeedSelectionStrategy) e espera um item dessa fila (FIFO entre
+ *   os consumidores que esperam o mesmo tipo); “consome” por Timing.consumptionMillis e recomeça.
+ * Minhas decisões:
+ * - Cada produtor/consumidor é um ator com no máximo um evento pendente na PriorityQueue (tempo, ordem de
+ *   agendamento). Sem threads nem sleeps: o relógio pula de evento em evento, em ms.
+ * - As estratégias são as classes reais; elas veem as filas simuladas por QueueStats (profundidade exata)
+ *   e a adaptativa mede as chegadas no tempo simulado.
+ * - Os tempos usam o modelo configurado (TIMING_MODEL...) sorteado com uma semente: a mesma semente em
+ *   todas as combinações (números aleatórios comuns) deixa a comparação mais justa. As estratégias
+ *   sorteiam com ThreadLocalRandom, então duas execuções iguais podem diferir um pouco.
+ * - Termina quando todos os itens foram produzidos e não há mais eventos. Itens de um tipo que nenhum
+ *   consumidor esperava ao final ficam como “retidos” (o consumidor real também ficaria esperando).
+ * - Profundidade média ponderada pelo tempo; esperas e fim a fim em LatencyHistogram (µs).
+ */
+public class Simulation implements QueueStats {
+    private static final ProductType[] TYPES = ProductType.values();
+
+    private final int producerCount;
+    private final int consumerCount;
+    private final String typeStrategyName;
+    private final String needStrategyName;
+    private final long items;
+    private final SplittableRandom random;
+    private final PrintWriter timeseries;      // null = sem série temporal
+    private final long sampleMillis;
+    private final TypeSelectionStrategy typeStrategy;
+    private final NeedSelectionStrategy needStrategy;
+    private final long retryMillis;            // Espera do produtor pausado pelo backpressure
+
+    private final PriorityQueue<Actor> agenda = new PriorityQueue<>(
+            Comparator.<Actor>comparingLong(a -> a.time).thenComparingLong(a -> a.seq));
+    private final LongQueue[] queues = new LongQueue[TYPES.length];          // Instante de produção de cada item
+    private final List<ArrayDeque<Actor>> waiting = new ArrayList<>(TYPES.length); // Consumidores esperando o tipo (índice = ordinal)
+    private final long[] depthArea = new long[TYPES.length];                 // Integral da profundidade (itens x ms)
+    private final long[] lastDepthChange = new long[TYPES.length];
+    private final long[] maxDepth = new long[TYPES.length];
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram endToEnd = new LatencyHistogram();
+    private long now;                          // Tempo simulado (ms)
+    private long seq;
+    private long started;                      // Produções iniciadas (para parar em items)
+    private long produced;
+    private long consumed;
+    private long producerBusy;                 // Soma dos tempos de produção (ms)
+    private long consumerBusy;                 // Soma dos tempos de consumo (ms)
+    private long pausedRetries;                // Vezes em que o backpressure pausou um produtor
+
+    /**
+     * @param producers        produtores simulados
+     * @param consumers        consumidores simulados
+     * @param typeStrategyName "random" ou "backpressure"
+     * @param needStrategyName "random" ou "adaptive"
+     * @param items            itens a produzir
+     * @param seed             semente dos tempos sorteados
+     * @param timeseries       destino da série de profundidade (null = desligada)
+     * @param sampleMillis     intervalo entre amostras da série (tempo simulado)
+     */
+    public Simulation(int producers, int consumers, String typeStrategyName, String needStrategyName,
+                      long items, long seed, PrintWriter timeseries, long sampleMillis) {
+        this.producerCount = producers;
+        this.consumerCount = consumers;
+        this.typeStrategyName = typeStrategyName;
+        this.needStrategyName = needStrategyName;
+        this.items = items;
+        this.random = new SplittableRandom(seed);
+        this.timeseries = timeseries;
+        this.sampleMillis = Math.max(1, sampleMillis);
+        this.retryMillis = Math.max(1, AppConfig.getQueueStatsRefreshMillis());
+        this.typeStrategy = "backpressure".equals(typeStrategyName)
+                ? new BackpressureTypeSelectionStrategy(this, AppConfig.getQueueHighWater(), retryMillis)
+                : new RandomTypeSelectionStrategy();
+        this.needStrategy = "adaptive".equals(needStrategyName)
+                ? new AdaptiveNeedSelectionStrategy(this, AppConfig.getNeedFairnessFloor(), () -> now * 1_000_000L)
+                : new RandomNeedSelectionStrategy();
+        for (int i = 0; i < TYPES.length; i++) {
+            queues[i] = new LongQueue();
+            waiting.add(new ArrayDeque<>());
+        }
+    }
+
+    /** Roda até o fim e devolve o resumo. */
+    public Result run() {
+        for (int i = 0; i < producerCount; i++) nextProduction(new Actor(Actor.PRODUCER));
+        for (int i = 0; i < consumerCount; i++) nextNeed(new Actor(Actor.CONSUMER));
+        if (timeseries != null) schedule(new Actor(Actor.SAMPLER), 0);
+
+        Actor actor;
+        while ((actor = agenda.poll()) != null) {
+            now = actor.time;
+            switch (actor.kind) {
+                case Actor.PRODUCER -> {
+                    if (actor.type != null) publish(actor.type); // null = acordou de uma pausa do backpressure
+                    nextProduction(actor);
+                }
+                case Actor.CONSUMER -> {
+                    consumed++;
+                    endToEnd.record((now - actor.itemProducedAt) * 1_000);
+                    nextNeed(actor);
+                }
+                default -> {
+                    sample();
+                    if (!agenda.isEmpty()) schedule(actor, now + sampleMillis); // Só enquanto há atividade
+                }
+            }
+        }
+        for (int i = 0; i < TYPES.length; i++) depthChanged(i); // Fecha a integral no instante final
+        return new Result();
+    }
+
+    private void nextProduction(Actor producer) {
+        if (started >= items) return; // Produtor encerra
+        ProductType type = typeStrategy instanceof BackpressureTypeSelectionStrategy
+                ? ((BackpressureTypeSelectionStrategy) typeStrategy).tryNextType()
+                : typeStrategy.nextType();
+        producer.type = type;
+        if (type == null) { // Todas as filas no limite: tenta de novo depois
+            pausedRetries++;
+            schedule(producer, now + retryMillis);
+            return;
+        }
+        started++;
+        long duration = Timing.productionMillis(type, random);
+        producerBusy += duration;
+        schedule(producer, now + duration);
+    }
+
+    private void publish(ProductType type) {
+        produced++;
+        int i = type.ordinal();
+        Actor consumer = waiting.get(i).poll();
+        if (consumer != null) { // Alguém já esperava este tipo: entrega direta (fila continua vazia)
+            startConsuming(consumer, type, now);
+            return;
+        }
+        depthChanged(i);
+        queues[i].add(now);
+        maxDepth[i] = Math.max(maxDepth[i], queues[i].size());
+    }
+
+    private void nextNeed(Actor consumer) {
+        ProductType need = needStrategy.nextNeededType();
+        int i = need.ordinal();
+        if (queues[i].isEmpty()) {
+            waiting.get(i).add(consumer); // Bloqueia no receiveOne até chegar um item do tipo
+            return;
+        }
+        depthChanged(i);
+        startConsuming(consumer, need, queues[i].poll());
+    }
+
+    private void startConsuming(Actor consumer, ProductType type, long producedAt) {
+        queueWait.record((now - producedAt) * 1_000);
+        consumer.itemProducedAt = producedAt;
+        long duration = Timing.consumptionMillis(type, random);
+        consumerBusy += duration;
+        schedule(consumer, now + duration);
+    }
+
+    private void schedule(Actor actor, long time) {
+        actor.time = time;
+        actor.seq = seq++;
+        agenda.add(actor);
+    }
+
+    // Acumula profundidade x tempo até agora (chamado antes de cada mudança na fila)
+    private void depthChanged(int i) {
+        depthArea[i] += queues[i].size() * (now - lastDepthChange[i]);
+        lastDepthChange[i] = now;
+    }
+
+    private void sample() {
+        StringBuilder row = new StringBuilder(configColumns()).append(',')
+                .append(String.format(Locale.US, "%.3f", now / 1000.0));
+        for (LongQueue queue : queues) row.append(',').append(queue.size());
+        row.append(',').append(produced).append(',').append(consumed);
+        timeseries.println(row);
+    }
+
+    private String configColumns() {
+        return producerCount + "," + consumerCount + "," + typeStrategyName + "," + needStrategyName;
+    }
+
+    @Override
+    public long depth(ProductType type) {
+        return queues[type.ordinal()].size();
+    }
+
+    /** Cabeçalho da série temporal (uma coluna de profundidade por tipo). */
+    public static String timeseriesHeader() {
+        StringBuilder header = new StringBuilder("producers,consumers,type_strategy,need_strategy,t_s");
+        for (ProductType type : TYPES) header.append(",depth_").append(type);
+        return header.append(",produced,consumed").toString();
+    }
+
+    /** Cabeçalho do CSV de resumo (mesma ordem de Result.csv()). */
+    public static String resultHeader() {
+        StringBuilder header = new StringBuilder("producers,consumers,type_strategy,need_strategy,items,sim_seconds,"
+                + "throughput_per_s,producer_util,consumer_util,backpressure_pauses");
+        for (ProductType type : TYPES) header.append(",mean_depth_").append(type).append(",max_depth_").append(type);
+        return header.append(",wait_p50_s,wait_p99_s,e2e_p50_s,e2e_p99_s,e2e_p999_s,e2e_max_s,retained").toString();
+    }
+
+    /** Resumo de uma execução. */
+    public final class Result {
+        private final long simMillis = now;
+        private final long retained = Arrays.stream(queues).mapToLong(LongQueue::size).sum();
+
+        /** Consumos concluídos por segundo simulado. */
+        public double throughput() {
+            return simMillis > 0 ? consumed * 1000.0 / simMillis : 0;
+        }
+
+        public long consumed() {
+            return consumed;
+        }
+
+        public double simSeconds() {
+            return simMillis / 1000.0;
+        }
+
+        public double endToEndP99Seconds() {
+            return endToEnd.percentile(0.99) / 1e6;
+        }
+
+        public long retained() {
+            return retained;
+        }
+
+        /** Linha do CSV de resumo. */
+        public String csv() {
+            StringBuilder row = new StringBuilder(configColumns()).append(',').append(consumed).append(',')
+                    .append(fmt(simSeconds())).append(',').append(fmt(throughput())).append(',')
+                    .append(fmt(utilization(producerBusy, producerCount))).append(',')
+                    .append(fmt(utilization(consumerBusy, consumerCount))).append(',').append(pausedRetries);
+            for (int i = 0; i < TYPES.length; i++) {
+                row.append(',').append(fmt(simMillis > 0 ? (double) depthArea[i] / simMillis : 0)).append(',').append(maxDepth[i]);
+            }
+            row.append(',').append(fmt(queueWait.percentile(0.50) / 1e6)).append(',').append(fmt(queueWait.percentile(0.99) / 1e6))
+                    .append(',').append(fmt(endToEnd.percentile(0.50) / 1e6)).append(',').append(fmt(endToEnd.percentile(0.99) / 1e6))
+                    .append(',').append(fmt(endToEnd.percentile(0.999) / 1e6)).append(',').append(fmt(endToEnd.max() / 1e6))
+                    .append(',').append(retained);
+            return row.toString();
+        }
+
+        // Fração do tempo simulado em que os atores estiveram produzindo/consumindo
+        private double utilization(long busy, int actors) {
+            return simMillis > 0 && actors > 0 ? Math.min(1.0, (double) busy / ((double) simMillis * actors)) : 0;
+        }
+
+        private String fmt(double v) {
+            return String.format(Locale.US, "%.4f", v);
+        }
+    }
+
+    /** Produtor, consumidor ou amostrador, com seu único evento pendente. */
+    private static final class Actor {
+        static final int PRODUCER = 0;
+        static final int CONSUMER = 1;
+        static final int SAMPLER = 2;
+
+        final int kind;
+        long time;              // Instante do próximo evento
+        long seq;               // Desempate: ordem de agendamento
+        ProductType type;       // Produtor: tipo em produção (null = pausado)
+        long itemProducedAt;    // Consumidor: instante de produção do item em consumo
+
+        Actor(int kind) {
+            this.kind = kind;
+        }
+    }
+
+    /** Fila FIFO de longs em buffer circular (sem boxing: milhões de itens por execução). */
+    private static final class LongQueue {
+        private long[] items = new long[1024];
+        private int head;
+        private int size;
+
+        void add(long value) {
+            if (size == items.length) {
+                long[] grown = new long[items.length * 2];
+                for (int i = 0; i < size; i++) grown[i] = items[(head + i) % items.length];
+                items = grown;
+                head = 0;
+            }
+            items[(head + size) % items.length] = value;
+            size++;
+        }
+
+        long poll() {
+            long value = items[head];
+            head = (head + 1) % items.length;
+            size--;
+            return value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.trabalho.finalpc.simulator; // Simulador de eventos discretos
+
+import com.trabalho.finalpc.common.config.AppConfig; // SIM_* (varredura, itens, semente, saídas)
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Esta é a classe main do SIMULADOR. Aqui eu:
+ * - Varro todas as combinações de SIM_PRODUCERS x SIM_CONSUMERS x SIM_TYPE_STRATEGIES x SIM_NEED_STRATEGIES
+ *   (padrão: 2 produtores e 4 consumidores aleatórios, como o scripts/run-demo.sh).
+ * - Rodo uma Simulation de SIM_ITEMS itens por combinação, com a mesma semente (SIM_SEED).
+ * - Escrevo uma linha CSV por combinação (vazão, utilização, profundidade das filas e latências) em
+ *   SIM_OUTPUT ou na saída padrão; lidas em sequência, as linhas formam as curvas por número de consumidores.
+ * - Com SIM_TIMESERIES, gravo também a profundidade das filas a cada SIM_SAMPLE_MS de tempo simulado.
+ * Os tempos seguem o modelo configurado (TIMING_MODEL, TIMING_PRODUCTION_MS...), e as estratégias usam
+ * QUEUE_HIGH_WATER, QUEUE_STATS_REFRESH_MS e NEED_FAIRNESS_FLOOR, como nos apps.
+ */
+public class SimulatorApp {
+    private static final Logger log = LoggerFactory.getLogger(SimulatorApp.class);
+
+    public static void main(String[] args) throws IOException {
+        int items = AppConfig.getSimItems();
+        int seed = AppConfig.getSimSeed();
+        String output = AppConfig.getSimOutput();
+        String timeseriesFile = AppConfig.getSimTimeseries();
+
+        try (PrintWriter out = output != null ? writer(output) : new PrintWriter(System.out, true);
+             PrintWriter timeseries = timeseriesFile != null ? writer(timeseriesFile) : null) {
+            out.println(Simulation.resultHeader());
+            if (timeseries != null) timeseries.println(Simulation.timeseriesHeader());
+            for (int producers : AppConfig.getSimProducers()) {
+                for (int consumers : AppConfig.getSimConsumers()) {
+                    for (String typeStrategy : AppConfig.getSimTypeStrategies()) {
+                        for (String needStrategy : AppConfig.getSimNeedStrategies()) {
+                            long start = System.nanoTime();
+                            Simulation.Result result = new Simulation(producers, consumers, typeStrategy, needStrategy,
+                                    items, seed, timeseries, AppConfig.getSimSampleMillis()).run();
+                            out.println(result.csv());
+                            log.info(String.format(Locale.US,
+                                    "[Simulator] P=%d C=%d %s/%s: %d itens, %.3f/s, e2e p99 %.1f s, %.1f h simuladas em %.2f s%s",
+                                    producers, consumers, typeStrategy, needStrategy, result.consumed(), result.throughput(),
+                                    result.endToEndP99Seconds(), result.simSeconds() / 3600, (System.nanoTime() - start) / 1e9,
+                                    result.retained() > 0 ? " (" + result.retained() + " retidos)" : ""));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static PrintWriter writer(String file) throws IOException {
+        return new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+    }
+}